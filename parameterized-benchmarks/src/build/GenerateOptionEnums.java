@@ -0,0 +1,108 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Genera los enumerados de opciones de distintos tamaños sobre los que se ejecutan los benchmarks,
+ * junto con un parseador por enumerado y la clase {@code OptionParsers} que los instancia por tamaño.
+ * Se ejecuta como programa de un único fichero: java GenerateOptionEnums.java &lt;dir&gt; &lt;tamaño&gt;...
+ * */
+public class GenerateOptionEnums {
+
+	/** Paquete de las clases generadas */
+	private static final String PACKAGE = "es.home.parameterized.benchmarks.options";
+
+	public static void main(String[] args) throws IOException {
+		Path dir = Paths.get(args[0], PACKAGE.split("\\."));
+		Files.createDirectories(dir);
+
+		StringBuilder parsers = header();
+		parsers.append("import es.home.parameterized.exception.ParameterizedParserException;\n");
+		parsers.append("import es.home.parameterized.parser.Parser;\n\n");
+		parsers.append("/**\n * Instancia los parseadores generados por tamaño de enumerado\n * */\n");
+		parsers.append("public final class OptionParsers {\n\n");
+		parsers.append("\tprivate OptionParsers(){}\n\n");
+		parsers.append("\tpublic static Class<?> enumClass(int size) {\n\t\tswitch(size){\n");
+		for (int i = 1; i < args.length; i++) {
+			parsers.append("\t\tcase ").append(args[i]).append(": return Options").append(args[i]).append(".class;\n");
+		}
+		parsers.append("\t\tdefault: throw new IllegalArgumentException(\"Tamaño no generado: \"+size);\n\t\t}\n\t}\n\n");
+		parsers.append("\tpublic static Parser<?> newParser(int size, String[] args) throws ParameterizedParserException {\n\t\tswitch(size){\n");
+		for (int i = 1; i < args.length; i++) {
+			parsers.append("\t\tcase ").append(args[i]).append(": return new Options").append(args[i]).append("Parser(args);\n");
+		}
+		parsers.append("\t\tdefault: throw new IllegalArgumentException(\"Tamaño no generado: \"+size);\n\t\t}\n\t}\n}\n");
+		write(dir.resolve("OptionParsers.java"), parsers);
+
+		for (int i = 1; i < args.length; i++) {
+			int size = Integer.parseInt(args[i]);
+			write(dir.resolve("Options"+size+".java"), optionsEnum(size));
+			write(dir.resolve("Options"+size+"Parser.java"), parser(size));
+		}
+	}
+
+	/**
+	 * Genera un enumerado con una opción de ayuda y size-1 opciones. Las opciones pares tienen
+	 * argumentos, una de cada tres de ellas es obligatoria y no vacía y una de cada cinco no nula
+	 */
+	private static StringBuilder optionsEnum(int size) {
+		StringBuilder source = header();
+		source.append("import es.home.parameterized.annotations.ParameterNotEmpty;\n");
+		source.append("import es.home.parameterized.annotations.ParameterNotNull;\n");
+		source.append("import es.home.parameterized.annotations.ParameterOption;\n");
+		source.append("import es.home.parameterized.impl.HelpParameterExecutable;\n");
+		source.append("import es.home.parameterized.impl.SimpleParameterExecutable;\n");
+		source.append("import es.home.parameterized.interfaces.ParameterExecutable;\n");
+		source.append("import es.home.parameterized.interfaces.Parameterized;\n\n");
+		source.append("/**\n * Enumerado generado con ").append(size).append(" opciones\n * */\n");
+		source.append("public enum Options").append(size).append(" implements Parameterized {\n");
+		source.append("\t@ParameterOption(shortKey = \"h\", description = \"Muestra la ayuda\")\n\tHELP,\n");
+		for (int i = 1; i < size; i++) {
+			boolean hasArgs = i%2==0;
+			source.append("\t@ParameterOption(shortKey = \"o").append(i).append("\", description = \"Opción ").append(i).append("\"");
+			if(hasArgs){
+				source.append(", hasArgs = true");
+			}
+			source.append(")\n");
+			if(hasArgs && i%3==0){
+				source.append("\t@ParameterNotEmpty\n");
+			}
+			if(i%5==0){
+				source.append("\t@ParameterNotNull\n");
+			}
+			source.append("\tOPTION_").append(i).append(i==size-1 ? ";\n\n" : ",\n");
+		}
+		source.append("\tprivate static final ParameterExecutable HELP_EXECUTABLE = new HelpParameterExecutable();\n");
+		source.append("\tprivate static final ParameterExecutable EXECUTABLE = new SimpleParameterExecutable();\n\n");
+		source.append("\tprivate final String name = name().toLowerCase();\n\n");
+		source.append("\tpublic String getName() {\n\t\treturn name;\n\t}\n\n");
+		source.append("\tpublic ParameterExecutable getParameterExecutable() {\n\t\treturn this==HELP ? HELP_EXECUTABLE : EXECUTABLE;\n\t}\n}\n");
+		return source;
+	}
+
+	/**
+	 * Genera el parseador de un enumerado
+	 */
+	private static StringBuilder parser(int size) {
+		StringBuilder source = header();
+		String name = "Options"+size;
+		source.append("import es.home.parameterized.exception.ParameterizedParserException;\n");
+		source.append("import es.home.parameterized.parser.Parser;\n\n");
+		source.append("public class ").append(name).append("Parser extends Parser<").append(name).append("> {\n\n");
+		source.append("\tpublic ").append(name).append("Parser(String[] args) throws ParameterizedParserException {\n\t\tsuper(args);\n\t}\n\n");
+		source.append("\t@Override\n\tpublic String getHelpHeader() {\n\t\treturn \"Benchmark de ").append(size).append(" opciones\";\n\t}\n\n");
+		source.append("\t@Override\n\tpublic String getHelpFooter() {\n\t\treturn \"Fin de la ayuda\";\n\t}\n\n");
+		source.append("\t@Override\n\tpublic String getAppName() {\n\t\treturn \"").append(name.toLowerCase()).append("\";\n\t}\n}\n");
+		return source;
+	}
+
+	private static StringBuilder header() {
+		return new StringBuilder("package ").append(PACKAGE).append(";\n\n");
+	}
+
+	private static void write(Path file, StringBuilder source) throws IOException {
+		Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+	}
+}
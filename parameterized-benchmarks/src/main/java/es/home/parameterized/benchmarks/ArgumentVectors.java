@@ -0,0 +1,72 @@
+package es.home.parameterized.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import es.home.parameterized.annotations.ParameterOption;
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.impl.HelpParameterExecutable;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Construye vectores de argumentos realistas a partir del esquema de un enumerado: hasta
+ * {@link #MAX_OPTIONS} opciones repartidas uniformemente, alternando claves largas y cortas y
+ * dando valor a las que tienen argumentos. Nunca incluye la opción de ayuda
+ * */
+public final class ArgumentVectors {
+
+	/** Número máximo de opciones incluidas en el vector */
+	public static final int MAX_OPTIONS = 32;
+
+	/**
+	 * Constructor sin argumentos
+	 */
+	private ArgumentVectors(){}
+
+	/**
+	 * Construye el vector de argumentos de un enumerado
+	 * @param enumClass Clase del enumerado
+	 * @return Argumentos de línea de comandos
+	 * @throws ParameterizedParserException
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static String[] forEnum(Class<?> enumClass) throws ParameterizedParserException {
+		OptionSchema<?> schema = OptionSchema.forEnum((Class) enumClass);
+		Enum<? extends Parameterized>[] constants = schema.getConstants();
+
+		List<String> args = new ArrayList<>();
+		int step = Math.max(1, constants.length/MAX_OPTIONS);
+		for (int i = 0; i < constants.length; i += step) {
+			Enum<? extends Parameterized> constant = constants[i];
+			ParameterOption option = schema.getParameterOption(constant);
+			if(option==null || ((Parameterized) constant).getParameterExecutable() instanceof HelpParameterExecutable){
+				continue;
+			}
+			args.add(args.size()%2==0 ? "--"+((Parameterized) constant).getName() : "-"+option.shortKey());
+			if(option.hasArgs()){
+				args.add("value-"+i);
+			}
+		}
+		return args.toArray(new String[args.size()]);
+	}
+
+	/**
+	 * Devuelve el primer elemento con argumentos presente en un vector de argumentos
+	 * @param enumClass Clase del enumerado
+	 * @param args Argumentos construidos con {@link #forEnum(Class)}
+	 * @return Elemento cuyo valor se consulta en los benchmarks
+	 * @throws ParameterizedParserException
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static Parameterized firstValued(Class<?> enumClass, String[] args) throws ParameterizedParserException {
+		OptionSchema<?> schema = OptionSchema.forEnum((Class) enumClass);
+		for (String arg : args) {
+			Enum<? extends Parameterized> constant = arg.startsWith("--") ? schema.findByName(arg.substring(2)) : schema.findByShortKey(arg.substring(1));
+			if(constant!=null && schema.getParameterOption(constant).hasArgs()){
+				return (Parameterized) constant;
+			}
+		}
+		throw new IllegalArgumentException("El vector de argumentos no contiene opciones con valor");
+	}
+}
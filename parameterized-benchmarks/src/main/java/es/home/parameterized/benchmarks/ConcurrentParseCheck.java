@@ -0,0 +1,129 @@
+package es.home.parameterized.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import es.home.parameterized.benchmarks.options.OptionParsers;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.parser.ExecutionMode;
+import es.home.parameterized.parser.ParseMode;
+import es.home.parameterized.parser.ParsedCommandLine;
+import es.home.parameterized.parser.ParserEngine;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Prueba de estrés de {@link ParserEngine}. Varios hilos comparten un mismo motor y parsean a la vez
+ * vectores de argumentos con valores distintos por hilo e iteración, comprobando que cada resultado
+ * contiene exactamente sus propios valores y las mismas validaciones no superadas que un parseo secuencial. Se repite para cada combinación de motor de procesado y
+ * modo de ejecución y termina con código 1 al primer resultado incorrecto.
+ * <p>
+ * Uso: {@code java -cp target/benchmarks.jar es.home.parameterized.benchmarks.ConcurrentParseCheck [hilos] [iteraciones]}
+ * */
+public class ConcurrentParseCheck {
+
+	/** Tamaño del enumerado utilizado */
+	private static final int SIZE = 100;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static void main(String[] args) throws Exception {
+		int threads = args.length>0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors()*2;
+		int iterations = args.length>1 ? Integer.parseInt(args[1]) : 2000;
+
+		OptionSchema schema = OptionSchema.forEnum((Class) OptionParsers.enumClass(SIZE));
+		String[] template = ArgumentVectors.forEnum(schema.getEnumClass());
+
+		for (ParseMode parseMode : ParseMode.values()) {
+			for (ExecutionMode executionMode : ExecutionMode.values()) {
+				ParserEngine<?> engine = ParserEngine.builder(schema).parseMode(parseMode).executionMode(executionMode).build();
+				Set<?> failedOptions = engine.parse(template).getFailedValidations().keySet();
+				long start = System.nanoTime();
+				String failure = run(engine, template, failedOptions, threads, iterations);
+				long millis = (System.nanoTime()-start)/1000000;
+				System.out.println(parseMode+"/"+executionMode+": "+threads*iterations+" parseos en "+millis+" ms"+(failure==null ? "" : " - ERROR: "+failure));
+				if(failure!=null){
+					System.exit(1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Ejecuta la prueba sobre un motor
+	 * @return Descripción del primer fallo o null si todos los resultados son correctos
+	 */
+	private static String run(final ParserEngine<?> engine, final String[] template, final Set<?> failedOptions, int threads, final int iterations) throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<String> failure = new AtomicReference<>();
+		final AtomicInteger nextId = new AtomicInteger();
+		List<Thread> workers = new ArrayList<>();
+
+		for (int t = 0; t < threads; t++) {
+			Thread worker = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					int id = nextId.getAndIncrement();
+					try {
+						start.await();
+						for (int i = 0; i < iterations && failure.get()==null; i++) {
+							String error = check(engine, template, failedOptions, "t"+id+"-i"+i);
+							if(error!=null){
+								failure.compareAndSet(null, error);
+							}
+						}
+					} catch (Exception e) {
+						failure.compareAndSet(null, e.toString());
+					}
+				}
+			});
+			worker.start();
+			workers.add(worker);
+		}
+
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		return failure.get();
+	}
+
+	/**
+	 * Parsea un vector con valores únicos y comprueba el resultado
+	 * @param failedOptions Opciones con validaciones no superadas en el parseo secuencial del vector
+	 * @param prefix Prefijo único de los valores
+	 * @return Descripción del fallo o null si el resultado es correcto
+	 */
+	private static String check(ParserEngine<?> engine, String[] template, Set<?> failedOptions, String prefix) throws Exception {
+		OptionSchema<?> schema = engine.getSchema();
+		String[] args = template.clone();
+		List<Parameterized> options = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+
+		for (int i = 0; i < args.length; i++) {
+			if(args[i].startsWith("value-")){
+				args[i] = prefix+"-"+args[i];
+				String key = args[i-1];
+				options.add((Parameterized) (key.startsWith("--") ? schema.findByName(key.substring(2)) : schema.findByShortKey(key.substring(1))));
+				expected.add(args[i]);
+			}
+		}
+
+		ParsedCommandLine<?> commandLine = engine.parse(args);
+		if(!commandLine.getFailedValidations().keySet().equals(failedOptions)){
+			return prefix+": validaciones no superadas "+commandLine.getFailedValidations().keySet()+" y se esperaban "+failedOptions;
+		}
+		for (int i = 0; i < options.size(); i++) {
+			Object value = commandLine.getValue(options.get(i));
+			if(!expected.get(i).equals(value)){
+				return prefix+": "+options.get(i)+" vale "+value+" y se esperaba "+expected.get(i);
+			}
+		}
+		if(commandLine.getResult().asMap().size()!=options.size()){
+			return prefix+": el resultado contiene "+commandLine.getResult().asMap().size()+" valores y se esperaban "+options.size();
+		}
+		return null;
+	}
+}
@@ -0,0 +1,98 @@
+package es.home.parameterized.benchmarks;
+
+import es.home.parameterized.annotations.ParameterOption;
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.impl.SimpleParameterExecutable;
+import es.home.parameterized.interfaces.ParameterExecutable;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.parser.ExecutionMode;
+import es.home.parameterized.parser.ParseMode;
+import es.home.parameterized.parser.ParsedCommandLine;
+import es.home.parameterized.parser.ParserEngine;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Comprueba que el modo {@link ExecutionMode#LAZY} conserva la semántica de {@link ExecutionMode#EAGER}
+ * cuando una función falla: cada acceso al valor de la opción y cada llamada a
+ * {@link ParsedCommandLine#getResult()} vuelve a lanzar la excepción, sin guardar la opción como
+ * ejecutada y sin valor. Termina con código 1 si algún acceso no falla.
+ * <p>
+ * Uso: {@code java -cp target/benchmarks.jar es.home.parameterized.benchmarks.LazyExecutionCheck}
+ * */
+public class LazyExecutionCheck {
+
+	/** Argumentos de la prueba */
+	private static final String[] ARGS = {"-a", "y", "-f", "x"};
+
+	public static void main(String[] args) throws Exception {
+		OptionSchema<CheckOption> schema = OptionSchema.forEnum(CheckOption.class);
+
+		int failures = 0;
+		for (ParseMode parseMode : ParseMode.values()) {
+			for (ExecutionMode executionMode : ExecutionMode.values()) {
+				ParserEngine<CheckOption> engine = ParserEngine.builder(schema).parseMode(parseMode).executionMode(executionMode).build();
+				ParsedCommandLine<CheckOption> commandLine = engine.parse(ARGS);
+				String failure = null;
+				if(!fails(commandLine, CheckOption.FAIL) || !fails(commandLine, CheckOption.FAIL)){
+					failure = "el segundo acceso a "+CheckOption.FAIL+" no falla";
+				}else if(!fails(commandLine, null)){
+					failure = "getResult() no falla";
+				}
+				System.out.println(parseMode+"/"+executionMode+": "+(failure==null ? "correcto" : "ERROR: "+failure));
+				if(failure!=null){
+					failures++;
+				}
+			}
+		}
+		if(failures>0){
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Determina si el acceso a una opción o, si es null, al resultado completo lanza una excepción
+	 */
+	private static boolean fails(ParsedCommandLine<CheckOption> commandLine, CheckOption option) {
+		try {
+			if(option==null){
+				commandLine.getResult();
+			}else{
+				commandLine.getValue(option);
+			}
+			return false;
+		} catch (ParameterizedParserException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Opciones de la prueba: una función correcta y otra que siempre falla
+	 * */
+	public enum CheckOption implements Parameterized {
+		@ParameterOption(shortKey="a", hasArgs=true)
+		PARAM_A(new SimpleParameterExecutable()),
+
+		@ParameterOption(shortKey="f", hasArgs=true)
+		FAIL(new ParameterExecutable() {
+			@Override
+			public Object executeFunction(String value) {
+				throw new IllegalStateException("Fallo de la función con el valor "+value);
+			}
+		});
+
+		/** Función de las opciones */
+		private final ParameterExecutable executable;
+
+		private CheckOption(ParameterExecutable executable) {
+			this.executable = executable;
+		}
+
+		public String getName() {
+			return name().toLowerCase().replace('_', '-');
+		}
+
+		public ParameterExecutable getParameterExecutable() {
+			return executable;
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package es.home.parameterized.benchmarks;
+
+import java.util.Arrays;
+
+import es.home.parameterized.annotations.ParameterOption;
+import es.home.parameterized.impl.DoubleParameterExecutable;
+import es.home.parameterized.impl.HelpParameterExecutable;
+import es.home.parameterized.impl.IntParameterExecutable;
+import es.home.parameterized.impl.SimpleParameterExecutable;
+import es.home.parameterized.interfaces.ParameterExecutable;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.parser.ParseMode;
+import es.home.parameterized.parser.ParseOutcome;
+import es.home.parameterized.parser.ParserEngine;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Prueba diferencial de los modos de parseo. Procesa los mismos vectores de argumentos con
+ * {@link ParseMode#COMMONS_CLI} y {@link ParseMode#NATIVE} y comprueba que producen el mismo error,
+ * la misma opción, posición y argumento del error y los mismos valores. Los vectores cubren claves cortas agrupadas,
+ * abreviaturas, valores concatenados, valores con {@code =} en opciones sin argumentos, números
+ * negativos, comillas, el separador {@code --} y valores iguales a la clave de ayuda y valores numéricos no válidos. También se compara
+ * si se detecta la ayuda. Termina con código 1 si algún vector difiere.
+ * <p>
+ * Uso: {@code java -cp target/benchmarks.jar es.home.parameterized.benchmarks.ParseModeCheck}
+ * */
+public class ParseModeCheck {
+
+	/** Vectores de argumentos */
+	private static final String[][] VECTORS = {
+		{"-xy"},
+		{"-yx"},
+		{"-xyv", "1"},
+		{"-xv1"},
+		{"-xvb"},
+		{"-xq"},
+		{"-vbz"},
+		{"-vb"},
+		{"-vbx"},
+		{"-v=1"},
+		{"-v", "1"},
+		{"-v1"},
+		{"-v", "--", "a"},
+		{"-v", "--"},
+		{"-v"},
+		{"-v", "-x"},
+		{"-v", "-xq"},
+		{"-v", "-q"},
+		{"-v", "-"},
+		{"-v", "--unknown"},
+		{"-v", "--param"},
+		{"-v", "-pa=3"},
+		{"-v", "--yes=1"},
+		{"-n", "-1.5"},
+		{"-n", "-1"},
+		{"-n", "-x"},
+		{"-y=1"},
+		{"--yes=1"},
+		{"--yes="},
+		{"--value=1"},
+		{"--value="},
+		{"--val", "1"},
+		{"--val=1"},
+		{"-val", "1"},
+		{"--ver"},
+		{"--v"},
+		{"--param"},
+		{"--param=1"},
+		{"--param-a", "x"},
+		{"--param-a=x"},
+		{"-pa", "x"},
+		{"-pa=x"},
+		{"-pa"},
+		{"-pb"},
+		{"-pbx"},
+		{"-outputfile"},
+		{"-outputfile=x"},
+		{"-ofile"},
+		{"-o", "\"quoted\""},
+		{"-o", "\"a\"b\""},
+		{"-o", "\""},
+		{"--quiet"},
+		{"-quiet"},
+		{"--", "-x"},
+		{"-x", "--", "-q"},
+		{"---x"},
+		{"-x-y"},
+		{"-x", "a", "-y"},
+		{"-v", "1", "-v", "2"},
+		{"-xy", "--value", "1", "-o", "f", "--yes"},
+		{"-h"},
+		{"--help"},
+		{"-xh"},
+		{"h"},
+		{"-pa", "h"},
+		{"-o", "h"},
+		{"-o", "-h"},
+		{"-v", "-h"},
+		{"-n", "--help"},
+		{"--", "-h"},
+		{"--unknown", "-h"},
+		{"-i", "12"},
+		{"-i12"},
+		{"-i", "abc"},
+		{"--int=abc"},
+		{"-i", "99999999999"},
+		{"-d", "1e3"},
+		{"-d", "0x1p3"},
+		{"-d", "1.5.2"},
+		{"-x", "-d"},
+		{"-x", "-i", "-y"},
+	};
+
+	public static void main(String[] args) throws Exception {
+		OptionSchema<CheckOption> schema = OptionSchema.forEnum(CheckOption.class);
+		ParserEngine<CheckOption> commons = ParserEngine.builder(schema).parseMode(ParseMode.COMMONS_CLI).build();
+		ParserEngine<CheckOption> nativeEngine = ParserEngine.builder(schema).parseMode(ParseMode.NATIVE).build();
+
+		int failures = 0;
+		for (String[] vector : VECTORS) {
+			String expected = describe(commons.tryParse(vector));
+			String actual = describe(nativeEngine.tryParse(vector));
+			if(!expected.equals(actual)){
+				System.out.println(Arrays.toString(vector)+" - ERROR: "+ParseMode.COMMONS_CLI+" "+expected+", "+ParseMode.NATIVE+" "+actual);
+				failures++;
+			}
+		}
+		System.out.println(VECTORS.length+" vectores, "+failures+" diferencias");
+		if(failures>0){
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Describe el resultado de un parseo: si se detecta la ayuda y el error y su opción o los valores
+	 * de las opciones
+	 */
+	private static String describe(ParseOutcome<CheckOption> outcome) {
+		String help = outcome.isHelp() ? "ayuda " : "";
+		if(!outcome.isSuccess()){
+			return help+outcome.getError()+(outcome.getOption()==null ? "" : " "+outcome.getOption())+" en "+outcome.getPosition()+" "+outcome.getArgument();
+		}
+		return help+outcome.getResult().asMap();
+	}
+
+	/**
+	 * Opciones de la prueba. Las claves se solapan para recorrer el orden de resolución de commons cli:
+	 * claves cortas de uno y dos caracteres con el mismo inicio, nombres largos con un prefijo común y
+	 * una clave corta igual al nombre largo de otra opción. La opción de ayuda tiene la clave corta
+	 * {@code h}
+	 * */
+	public enum CheckOption implements Parameterized {
+		@ParameterOption(shortKey="v", hasArgs=true)
+		VALUE,
+
+		@ParameterOption(shortKey="vb")
+		VERBOSE,
+
+		@ParameterOption(shortKey="x")
+		EXTRA,
+
+		@ParameterOption(shortKey="y")
+		YES,
+
+		@ParameterOption(shortKey="n", hasArgs=true)
+		NUMBER,
+
+		@ParameterOption(shortKey="o", hasArgs=true)
+		OUTPUT,
+
+		@ParameterOption(shortKey="pa", hasArgs=true)
+		PARAM_A,
+
+		@ParameterOption(shortKey="pb")
+		PARAM_B,
+
+		@ParameterOption(shortKey="q")
+		QUIET,
+
+		@ParameterOption(shortKey="quiet")
+		LOUD,
+
+		@ParameterOption(shortKey="h")
+		HELP(new HelpParameterExecutable()),
+
+		@ParameterOption(shortKey="i", hasArgs=true)
+		INT(new IntParameterExecutable()),
+
+		@ParameterOption(shortKey="d", hasArgs=true)
+		DOUBLE(new DoubleParameterExecutable());
+
+		/** Función de las opciones */
+		private final ParameterExecutable executable;
+
+		private CheckOption() {
+			this(new SimpleParameterExecutable());
+		}
+
+		private CheckOption(ParameterExecutable executable) {
+			this.executable = executable;
+		}
+
+		public String getName() {
+			return name().toLowerCase().replace('_', '-');
+		}
+
+		public ParameterExecutable getParameterExecutable() {
+			return executable;
+		}
+	}
+}
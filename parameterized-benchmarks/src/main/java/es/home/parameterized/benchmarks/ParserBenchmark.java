@@ -0,0 +1,125 @@
+package es.home.parameterized.benchmarks;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.benchmarks.options.OptionParsers;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.parser.Parser;
+import es.home.parameterized.schema.OptionSchema;
+import es.home.parameterized.utils.Util;
+
+/**
+ * Benchmarks de las fases del parseador sobre enumerados generados de distintos tamaños. Los
+ * benchmarks con prefijo parse construyen un parseador nuevo en cada invocación, ya que el
+ * parseador memoriza sus resultados; el resto trabajan sobre un parseador ya resuelto
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	/** Número de opciones del enumerado */
+	@Param({ "10", "100", "2000" })
+	public int size;
+
+	/** Argumentos de línea de comandos */
+	private String[] args;
+
+	/** Parseador con los valores ya generados */
+	private Parser<?> parser;
+
+	/** Opción consultada con getValue */
+	private Parameterized valued;
+
+	/** Opciones de commons cli del esquema */
+	private Options options;
+
+	/** Salida de la ayuda que descarta lo escrito */
+	private PrintWriter discard;
+
+	@Setup
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void setup() throws Exception {
+		Class<?> enumClass = OptionParsers.enumClass(size);
+		args = ArgumentVectors.forEnum(enumClass);
+		valued = ArgumentVectors.firstValued(enumClass, args);
+		options = OptionSchema.forEnum((Class) enumClass).getOptions();
+		parser = OptionParsers.newParser(size, args);
+		parser.getValues();
+		discard = new PrintWriter(new Writer() {
+			@Override
+			public void write(char[] cbuf, int off, int len) {}
+			@Override
+			public void flush() {}
+			@Override
+			public void close() {}
+		});
+	}
+
+	/** Construcción del parseador, incluida la detección de la ayuda */
+	@Benchmark
+	public Parser<?> construct() throws Exception {
+		return OptionParsers.newParser(size, args);
+	}
+
+	/** Parseo completo y generación de valores */
+	@Benchmark
+	public Map<?, Object> parseValues() throws Exception {
+		return OptionParsers.newParser(size, args).getValues();
+	}
+
+	/** Parseo completo y validación */
+	@Benchmark
+	public Map<?, List<CustomValidation>> parseFailedValidations() throws Exception {
+		return OptionParsers.newParser(size, args).getFailedValidations();
+	}
+
+	/** Obtención de los valores de un parseador resuelto */
+	@Benchmark
+	public Map<?, Object> getValues() throws Exception {
+		return parser.getValues();
+	}
+
+	/** Obtención de un valor de un parseador resuelto */
+	@Benchmark
+	public Object getValue() throws Exception {
+		return parser.getValue(valued);
+	}
+
+	/** Limpieza de guiones de todos los argumentos */
+	@Benchmark
+	public void pruneArg(Blackhole blackhole) {
+		for (String arg : args) {
+			blackhole.consume(Util.pruneArg(arg));
+		}
+	}
+
+	/** Maquetación de la ayuda */
+	@Benchmark
+	public void help() {
+		new HelpFormatter().printHelp(discard, HelpFormatter.DEFAULT_WIDTH, "benchmark", "Cabecera", options, HelpFormatter.DEFAULT_LEFT_PAD, HelpFormatter.DEFAULT_DESC_PAD, "Pie", true);
+	}
+}
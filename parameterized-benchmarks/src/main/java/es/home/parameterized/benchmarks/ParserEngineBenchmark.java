@@ -0,0 +1,65 @@
+package es.home.parameterized.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.home.parameterized.benchmarks.options.OptionParsers;
+import es.home.parameterized.parser.ParseMode;
+import es.home.parameterized.parser.ParserEngine;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Rendimiento de un {@link ParserEngine} compartido por todos los hilos disponibles. Cada hilo
+ * parsea el mismo vector de argumentos y obtiene sus valores, de forma que la escalabilidad se
+ * compara con {@link ParserBenchmark#parseValues()} ejecutado en un único hilo
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class ParserEngineBenchmark {
+
+	/** Número de opciones del enumerado */
+	@Param({ "10", "100", "2000" })
+	public int size;
+
+	/** Motor de procesado de los argumentos */
+	@Param({ "COMMONS_CLI", "NATIVE" })
+	public ParseMode parseMode;
+
+	/** Argumentos de línea de comandos */
+	private String[] args;
+
+	/** Motor compartido */
+	private ParserEngine<?> engine;
+
+	@Setup
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void setup() throws Exception {
+		Class<?> enumClass = OptionParsers.enumClass(size);
+		args = ArgumentVectors.forEnum(enumClass);
+		engine = ParserEngine.builder(OptionSchema.forEnum((Class) enumClass)).parseMode(parseMode).build();
+	}
+
+	/** Parseo completo y generación de valores desde todos los hilos */
+	@Benchmark
+	public Map<?, Object> parseValues() throws Exception {
+		return engine.parse(args).getResult().asMap();
+	}
+}
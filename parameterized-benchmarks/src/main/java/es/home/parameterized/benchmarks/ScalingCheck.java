@@ -0,0 +1,376 @@
+package es.home.parameterized.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.cli.Option;
+
+import es.home.parameterized.benchmarks.options.OptionParsers;
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.interfaces.ParameterValidation;
+import es.home.parameterized.parser.ParseMode;
+import es.home.parameterized.parser.ParsedCommandLine;
+import es.home.parameterized.parser.ParserEngine;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Comprobación de escalabilidad y de memoria reservada sobre los enumerados generados. Mide con
+ * {@link com.sun.management.ThreadMXBean} los bytes reservados en estado estacionario por la
+ * construcción del esquema, el parseo, la validación, la ejecución y las búsquedas de opciones, y
+ * comprueba que:
+ * <ul>
+ * <li>El coste por argumento de cada fase no crece con la longitud de la línea de comandos</li>
+ * <li>El coste por opción de la construcción no crece con el tamaño del enumerado</li>
+ * <li>El coste de las búsquedas y del parseo en {@link ParseMode#NATIVE} no crece con el tamaño del enumerado</li>
+ * <li>Las búsquedas no reservan memoria</li>
+ * <li>La memoria reservada por cada fase no supera su presupuesto</li>
+ * </ul>
+ * Termina con código 1 si alguna comprobación falla. Se ejecuta en la fase {@code verify} del módulo
+ * salvo que se indique {@code -DskipTests}.
+ * <p>
+ * Uso: {@code java -cp target/benchmarks.jar es.home.parameterized.benchmarks.ScalingCheck}
+ * */
+public class ScalingCheck {
+
+	/** Tamaños de los enumerados generados */
+	private static final int[] SIZES = {10, 100, 2000};
+
+	/** Longitudes de las líneas de comandos */
+	private static final int[] LENGTHS = {1000, 10000};
+
+	/** Crecimiento máximo admitido del coste por elemento entre el menor y el mayor tamaño */
+	private static final double MAX_GROWTH = 3;
+
+	/** Repeticiones de calentamiento */
+	private static final int WARMUP = 30;
+
+	/** Repeticiones medidas, de las que se toma el mínimo */
+	private static final int RUNS = 15;
+
+	/**
+	 * Opciones distintas que se buscan. Es el mismo número en todos los enumerados para que el
+	 * tamaño de los datos recorridos no dependa del enumerado
+	 * */
+	private static final int LOOKUP_KEYS = 10;
+
+	/** Búsquedas por repetición en la comprobación de búsquedas */
+	private static final int LOOKUPS = 100000;
+
+	/** Bytes reservados admitidos en la construcción por cada opción del enumerado */
+	private static final long CONSTRUCTION_BUDGET_PER_OPTION = 2048;
+
+	/** Medidor de la memoria reservada por hilo */
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	/** Bytes que reserva la propia medición, que se descuentan de cada muestra */
+	private static long overhead;
+
+	/** Errores encontrados */
+	private static final List<String> failures = new ArrayList<>();
+
+	/**
+	 * Fases del procesado de una línea de comandos con su presupuesto de memoria reservada en cada
+	 * modo de parseo, como bytes fijos, por opción del enumerado y por argumento. En
+	 * {@link ParseMode#COMMONS_CLI} los argumentos se procesan en la primera consulta, por lo que la
+	 * validación incluye el procesado de commons cli
+	 * */
+	private enum Phase {
+		PARSE(new long[] {2048, 16, 48}, new long[] {4096, 16, 10}),
+		VALIDATION(new long[] {4096, 64, 192}, new long[] {512, 16, 0}),
+		EXECUTION(new long[] {1024, 32, 0}, new long[] {1024, 32, 0});
+
+		/** Presupuesto en {@link ParseMode#COMMONS_CLI} */
+		private final long[] commonsBudget;
+
+		/** Presupuesto en {@link ParseMode#NATIVE} */
+		private final long[] nativeBudget;
+
+		Phase(long[] commonsBudget, long[] nativeBudget) {
+			this.commonsBudget = commonsBudget;
+			this.nativeBudget = nativeBudget;
+		}
+
+		/**
+		 * Obtiene los bytes admitidos
+		 */
+		long budget(ParseMode parseMode, int size, int length) {
+			long[] budget = parseMode==ParseMode.NATIVE ? nativeBudget : commonsBudget;
+			return budget[0]+budget[1]*size+budget[2]*length;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		overhead = measurementOverhead();
+
+		checkConstruction();
+		checkLookups();
+		for (ParseMode parseMode : ParseMode.values()) {
+			checkParse(parseMode);
+		}
+
+		if(failures.isEmpty()){
+			System.out.println("Comprobaciones de escalabilidad correctas");
+			return;
+		}
+		for (String failure : failures) {
+			System.out.println("ERROR: "+failure);
+		}
+		System.exit(1);
+	}
+
+	/**
+	 * Comprueba el coste de la construcción de los esquemas. Se construyen con
+	 * {@link OptionSchema#builder(Class, Enum[])}, ya que {@link OptionSchema#forEnum(Class)} guarda el
+	 * esquema en caché
+	 */
+	private static void checkConstruction() throws Exception {
+		double[] perOption = new double[SIZES.length];
+		for (int s = 0; s < SIZES.length; s++) {
+			OptionSchema<?> schema = schema(SIZES[s]);
+			long[] nanos = new long[RUNS];
+			long bytes = Long.MAX_VALUE;
+			for (int i = 0; i < WARMUP+RUNS; i++) {
+				long before = allocated();
+				long start = System.nanoTime();
+				build(schema);
+				long elapsed = System.nanoTime()-start;
+				long allocated = allocated()-before-overhead;
+				if(i>=WARMUP){
+					nanos[i-WARMUP] = elapsed;
+					bytes = Math.min(bytes, allocated);
+				}
+			}
+			perOption[s] = (double) fastest(nanos)/SIZES[s];
+			System.out.println("Construcción, "+SIZES[s]+" opciones: "+fastest(nanos)/1000+" us, "+bytes+" bytes");
+			budget("construcción con "+SIZES[s]+" opciones", bytes, CONSTRUCTION_BUDGET_PER_OPTION*SIZES[s]);
+		}
+		growth("coste por opción de la construcción", perOption);
+	}
+
+	/**
+	 * Comprueba el coste de las búsquedas de opciones por nombre largo, por clave corta y por abreviatura
+	 */
+	private static void checkLookups() throws Exception {
+		double[] perLookup = new double[SIZES.length];
+		for (int s = 0; s < SIZES.length; s++) {
+			OptionSchema<?> schema = schema(SIZES[s]);
+			String[] names = new String[LOOKUP_KEYS];
+			String[] shortKeys = new String[LOOKUP_KEYS];
+			for (int i = 0; i < names.length; i++) {
+				Option option = schema.getOption(schema.getConstant(i*schema.size()/LOOKUP_KEYS));
+				names[i] = option.getLongOpt();
+				shortKeys[i] = option.getOpt();
+			}
+
+			long[] nanos = new long[RUNS];
+			long bytes = Long.MAX_VALUE;
+			int found = 0;
+			for (int i = 0; i < WARMUP+RUNS; i++) {
+				long before = allocated();
+				long start = System.nanoTime();
+				for (int j = 0; j < LOOKUPS; j++) {
+					int index = j%names.length;
+					found += schema.findByName(names[index])!=null ? 1 : 0;
+					found += schema.getLongKeys().find(names[index])>=0 ? 1 : 0;
+					found += schema.getShortKeys().find(shortKeys[index])>=0 ? 1 : 0;
+					found += schema.getLongKeyTrie().findPrefix(names[index], 0, names[index].length())>=0 ? 1 : 0;
+				}
+				long elapsed = System.nanoTime()-start;
+				long allocated = allocated()-before-overhead;
+				if(i>=WARMUP){
+					nanos[i-WARMUP] = elapsed;
+					bytes = Math.min(bytes, allocated);
+				}
+			}
+			if(found!=(WARMUP+RUNS)*LOOKUPS*4){
+				failures.add("búsquedas con "+SIZES[s]+" opciones: no se encuentran todas las opciones");
+			}
+			perLookup[s] = (double) fastest(nanos)/LOOKUPS;
+			System.out.println("Búsquedas, "+SIZES[s]+" opciones: "+String.format("%.1f", perLookup[s])+" ns, "+bytes+" bytes");
+			budget("búsquedas con "+SIZES[s]+" opciones", bytes, 0);
+		}
+		growth("coste de las búsquedas", perLookup);
+	}
+
+	/**
+	 * Comprueba el coste del parseo, la validación y la ejecución en un modo de parseo
+	 */
+	private static void checkParse(ParseMode parseMode) throws Exception {
+		Phase[] phases = Phase.values();
+		double[][] perSize = new double[phases.length][SIZES.length];
+		for (int s = 0; s < SIZES.length; s++) {
+			ParserEngine<?> engine = engine(SIZES[s], parseMode);
+			double[][] perArgument = new double[phases.length][LENGTHS.length];
+			for (int l = 0; l < LENGTHS.length; l++) {
+				String[] vector = vector(engine.getSchema(), LENGTHS[l]);
+				long[][] samples = measure(engine, vector);
+				for (Phase phase : phases) {
+					long nanos = samples[phase.ordinal()][0];
+					long bytes = samples[phase.ordinal()][1];
+					String name = parseMode+" "+phase+", "+SIZES[s]+" opciones, "+vector.length+" argumentos";
+					System.out.println(name+": "+nanos/1000+" us, "+bytes+" bytes");
+					budget(name, bytes, phase.budget(parseMode, SIZES[s], vector.length));
+					perArgument[phase.ordinal()][l] = (double) nanos/vector.length;
+					if(l==LENGTHS.length-1){
+						perSize[phase.ordinal()][s] = perArgument[phase.ordinal()][l];
+					}
+				}
+			}
+			for (Phase phase : phases) {
+				growth(parseMode+" "+phase+" por argumento con "+SIZES[s]+" opciones", perArgument[phase.ordinal()]);
+			}
+		}
+		// En commons cli la resolución de cada opción larga recorre las opciones del enumerado
+		if(parseMode==ParseMode.NATIVE){
+			growth(parseMode+" "+Phase.PARSE+" por tamaño del enumerado", perSize[Phase.PARSE.ordinal()]);
+		}
+	}
+
+	/**
+	 * Mide cada fase del procesado de una línea de comandos
+	 * @return Duración mínima y mínimo de los bytes reservados de cada fase
+	 */
+	private static long[][] measure(ParserEngine<?> engine, String[] vector) throws Exception {
+		Phase[] phases = Phase.values();
+		long[][] nanos = new long[phases.length][RUNS];
+		long[][] samples = new long[phases.length][2];
+		for (long[] sample : samples) {
+			sample[1] = Long.MAX_VALUE;
+		}
+
+		for (int i = 0; i < WARMUP+RUNS; i++) {
+			long bytes0 = allocated();
+			long time0 = System.nanoTime();
+			ParsedCommandLine<?> commandLine = engine.parse(vector);
+			long time1 = System.nanoTime();
+			long bytes1 = allocated();
+			commandLine.validParams();
+			long time2 = System.nanoTime();
+			long bytes2 = allocated();
+			commandLine.getResult();
+			long time3 = System.nanoTime();
+			long bytes3 = allocated();
+			if(i>=WARMUP){
+				record(samples[Phase.PARSE.ordinal()], nanos[Phase.PARSE.ordinal()], i-WARMUP, time1-time0, bytes1-bytes0);
+				record(samples[Phase.VALIDATION.ordinal()], nanos[Phase.VALIDATION.ordinal()], i-WARMUP, time2-time1, bytes2-bytes1);
+				record(samples[Phase.EXECUTION.ordinal()], nanos[Phase.EXECUTION.ordinal()], i-WARMUP, time3-time2, bytes3-bytes2);
+			}
+		}
+		for (Phase phase : phases) {
+			samples[phase.ordinal()][0] = fastest(nanos[phase.ordinal()]);
+		}
+		return samples;
+	}
+
+	/**
+	 * Guarda una muestra de una fase
+	 */
+	private static void record(long[] sample, long[] nanos, int run, long elapsed, long bytes) {
+		nanos[run] = elapsed;
+		sample[1] = Math.min(sample[1], bytes-overhead);
+	}
+
+	/**
+	 * Comprueba que el coste por elemento del mayor tamaño no supera en {@link #MAX_GROWTH} veces al del menor
+	 */
+	private static void growth(String name, double[] costs) {
+		double growth = costs[costs.length-1]/costs[0];
+		if(growth>MAX_GROWTH){
+			failures.add(name+": crece "+String.format("%.1f", growth)+" veces");
+		}
+	}
+
+	/**
+	 * Comprueba que los bytes reservados no superan el presupuesto
+	 */
+	private static void budget(String name, long bytes, long budget) {
+		if(bytes>budget){
+			failures.add(name+": reserva "+bytes+" bytes, el presupuesto es de "+budget);
+		}
+	}
+
+	/**
+	 * Obtiene el esquema de un enumerado generado
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static OptionSchema<?> schema(int size) throws Exception {
+		return OptionSchema.forEnum((Class) OptionParsers.enumClass(size));
+	}
+
+	/**
+	 * Construye sin caché un esquema con las mismas opciones y validaciones que otro
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static OptionSchema<?> build(OptionSchema schema) throws ReflectiveOperationException {
+		OptionSchema.Builder builder = OptionSchema.builder(schema.getEnumClass(), schema.getConstants());
+		for (Object constant : schema.getConstants()) {
+			Option option = schema.getOption((Enum) constant);
+			builder.option((Enum) constant, option.getOpt(), option.getDescription(), option.hasArg());
+			List<CustomValidation> validations = schema.getValidations((Enum) constant);
+			List<ParameterValidation> validators = schema.getValidators((Enum) constant);
+			for (int i = 0; i < validations.size(); i++) {
+				// Las validaciones sin configuración se comparten y no tienen instancia en el esquema
+				ParameterValidation validator = validators.get(i);
+				builder.validation((Enum) constant, validator!=null ? validator : validations.get(i).validationClass().getConstructor().newInstance());
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Crea el motor de un enumerado generado
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ParserEngine<?> engine(int size, ParseMode parseMode) throws Exception {
+		return ParserEngine.builder((OptionSchema) schema(size)).parseMode(parseMode).build();
+	}
+
+	/**
+	 * Construye una línea de comandos repitiendo el vector de {@link ArgumentVectors} hasta alcanzar una longitud
+	 */
+	private static String[] vector(OptionSchema<?> schema, int length) throws Exception {
+		String[] template = ArgumentVectors.forEnum(schema.getEnumClass());
+		String[] vector = new String[length];
+		for (int i = 0; i < length; i++) {
+			vector[i] = template[i%template.length];
+		}
+		// Si se corta una opción con argumentos, se completa su valor
+		if(length%template.length!=0 && vector[length-1].startsWith("-")){
+			vector = Arrays.copyOf(vector, length+1);
+			vector[length] = "value";
+		}
+		return vector;
+	}
+
+	/**
+	 * Bytes reservados hasta el momento por el hilo actual
+	 */
+	private static long allocated() {
+		return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Bytes que reserva la propia medición entre dos lecturas consecutivas
+	 */
+	private static long measurementOverhead() {
+		long min = Long.MAX_VALUE;
+		for (int i = 0; i < WARMUP; i++) {
+			long before = allocated();
+			min = Math.min(min, allocated()-before);
+		}
+		return min;
+	}
+
+	/**
+	 * Duración mínima, la menos afectada por el ruido de la máquina
+	 */
+	private static long fastest(long[] nanos) {
+		long min = Long.MAX_VALUE;
+		for (long elapsed : nanos) {
+			min = Math.min(min, elapsed);
+		}
+		return min;
+	}
+}
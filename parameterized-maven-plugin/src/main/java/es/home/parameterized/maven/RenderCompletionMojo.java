@@ -0,0 +1,92 @@
+package es.home.parameterized.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import es.home.parameterized.completion.CompletionIndex;
+import es.home.parameterized.completion.CompletionScripts;
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Genera durante la construcción los scripts de completado de bash y zsh de los comandos indicados y
+ * guarda el índice de sus opciones como recurso del classpath para
+ * {@link es.home.parameterized.completion.Completer}
+ */
+@Mojo(name = "render-completion", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class RenderCompletionMojo extends AbstractMojo {
+
+	/** Nombres cualificados de los enumerados de las opciones por nombre de comando */
+	@Parameter(required = true)
+	private Map<String, String> commands;
+
+	/** Directorio de las clases compiladas, en el que se escriben los índices */
+	@Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+	private File outputDirectory;
+
+	/** Directorio en el que se escriben los scripts */
+	@Parameter(defaultValue = "${project.build.directory}/completion", required = true)
+	private File scriptDirectory;
+
+	/** Classpath de compilación del proyecto */
+	@Parameter(defaultValue = "${project.compileClasspathElements}", required = true, readonly = true)
+	private List<String> classpathElements;
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void execute() throws MojoExecutionException {
+		try (URLClassLoader loader = new URLClassLoader(toUrls(), Parameterized.class.getClassLoader())) {
+			for (Map.Entry<String, String> command : commands.entrySet()) {
+				OptionSchema<?> schema = OptionSchema.forEnum((Class) loader.loadClass(command.getValue()));
+				CompletionIndex index = CompletionScripts.index(schema);
+
+				File indexFile = new File(outputDirectory, CompletionIndex.resourceName(command.getValue()));
+				indexFile.getParentFile().mkdirs();
+				try (OutputStream out = new FileOutputStream(indexFile)) {
+					index.write(out);
+				}
+				write(new File(scriptDirectory, command.getKey()+".bash"), CompletionScripts.bash(index, command.getKey()));
+				write(new File(scriptDirectory, "_"+command.getKey()), CompletionScripts.zsh(index, command.getKey()));
+				getLog().info("Completado de "+command.getKey()+" generado en "+scriptDirectory);
+			}
+		} catch (IOException | ClassNotFoundException | ParameterizedParserException e) {
+			throw new MojoExecutionException("Excepción producida al generar el completado: "+e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Escribe un script
+	 */
+	private void write(File file, String script) throws IOException {
+		file.getParentFile().mkdirs();
+		try (OutputStream out = new FileOutputStream(file)) {
+			out.write(script.getBytes(CompletionIndex.CHARSET));
+		}
+	}
+
+	/**
+	 * Convierte el classpath del proyecto en URLs
+	 */
+	private URL[] toUrls() throws MalformedURLException {
+		URL[] urls = new URL[classpathElements.size()];
+		for (int i = 0; i < urls.length; i++) {
+			urls[i] = new File(classpathElements.get(i)).toURI().toURL();
+		}
+		return urls;
+	}
+}
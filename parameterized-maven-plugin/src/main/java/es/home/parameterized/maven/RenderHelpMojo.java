@@ -0,0 +1,100 @@
+package es.home.parameterized.maven;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import es.home.parameterized.parser.HelpText;
+import es.home.parameterized.parser.Parser;
+
+/**
+ * Renderiza durante la construcción la ayuda de los parseadores indicados y la guarda como recurso
+ * del classpath, de forma que {@link Parser} la imprime sin renderizarla. Cada parseador se instancia
+ * sin argumentos a través de su constructor público {@code (String[])}
+ */
+@Mojo(name = "render-help", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class RenderHelpMojo extends AbstractMojo {
+
+	/** Nombres cualificados de las clases de los parseadores */
+	@Parameter(required = true)
+	private String[] parsers;
+
+	/** Directorio de las clases compiladas, en el que se escriben los recursos */
+	@Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+	private File outputDirectory;
+
+	/** Classpath de compilación del proyecto */
+	@Parameter(defaultValue = "${project.compileClasspathElements}", required = true, readonly = true)
+	private List<String> classpathElements;
+
+	@Override
+	public void execute() throws MojoExecutionException {
+		try (URLClassLoader loader = new URLClassLoader(toUrls(), Parser.class.getClassLoader())) {
+			for (String parser : parsers) {
+				Class<? extends Parser<?>> parserClass = parserClass(loader.loadClass(parser));
+				File file = new File(outputDirectory, HelpText.resourceName(parserClass));
+				render(parserClass, file);
+				getLog().info("Ayuda de "+parser+" generada en "+file);
+			}
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			throw new MojoExecutionException("Excepción producida al generar la ayuda: "+e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Renderiza la ayuda de un parseador y la escribe en un fichero
+	 * @param parserClass Clase del parseador
+	 * @param file Fichero de la ayuda
+	 * @throws MojoExecutionException Si no se puede instanciar el parseador o escribir el fichero
+	 */
+	private void render(Class<? extends Parser<?>> parserClass, File file) throws MojoExecutionException {
+		Parser<?> parser;
+		try {
+			parser = parserClass.getConstructor(String[].class).newInstance((Object) new String[0]);
+		} catch (ReflectiveOperationException e) {
+			throw new MojoExecutionException("No se puede instanciar el parseador: "+parserClass.getName(), e);
+		}
+
+		String help = HelpText.render(parser.getCommandLine().getSchema(), parser.getAppName(), parser.getHelpHeader(), parser.getHelpFooter(), parser.getHelpWidth());
+		file.getParentFile().mkdirs();
+		try (OutputStream out = new FileOutputStream(file)) {
+			out.write(help.getBytes(HelpText.RESOURCE_CHARSET));
+		} catch (IOException e) {
+			throw new MojoExecutionException("No se puede escribir la ayuda: "+file, e);
+		}
+	}
+
+	/**
+	 * Comprueba que una clase es un parseador
+	 * @param type Clase cargada
+	 * @return Clase del parseador
+	 * @throws ClassCastException Si la clase no extiende {@link Parser}
+	 */
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Parser<?>> parserClass(Class<?> type) {
+		return (Class<? extends Parser<?>>) type.asSubclass(Parser.class);
+	}
+
+	/**
+	 * Convierte el classpath del proyecto en URLs
+	 */
+	private URL[] toUrls() throws MalformedURLException {
+		URL[] urls = new URL[classpathElements.size()];
+		for (int i = 0; i < urls.length; i++) {
+			urls[i] = new File(classpathElements.get(i)).toURI().toURL();
+		}
+		return urls;
+	}
+}
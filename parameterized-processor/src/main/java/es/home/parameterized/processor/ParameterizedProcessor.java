@@ -0,0 +1,348 @@
+package es.home.parameterized.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Procesador de anotaciones que genera, para cada enumerado {@link #PARAMETERIZED} con opciones
+ * {@link #PARAMETER_OPTION}, un parseador abstracto con el esquema de opciones y las validaciones
+ * escritos en código. Los parseadores que extienden la clase generada no utilizan reflexión
+ * durante el parseo, por lo que también funcionan sin configuración adicional en imágenes nativas
+ * */
+@SupportedAnnotationTypes(ParameterizedProcessor.PARAMETER_OPTION)
+public class ParameterizedProcessor extends AbstractProcessor {
+
+	/** Anotación de opciones de un parámetro */
+	static final String PARAMETER_OPTION = "es.home.parameterized.annotations.ParameterOption";
+
+	/** Anotación de validación customizada */
+	static final String CUSTOM_VALIDATION = "es.home.parameterized.annotations.CustomValidation";
+
+	/** Interfaz de los enumerados parametrizados */
+	static final String PARAMETERIZED = "es.home.parameterized.interfaces.Parameterized";
+
+	/** Sufijo de las clases generadas */
+	static final String SUFFIX = "GeneratedParser";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+		// Se agrupan los elementos anotados por enumerado
+		Set<TypeElement> enums = new LinkedHashSet<>();
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if(element.getKind()==ElementKind.ENUM_CONSTANT){
+					enums.add((TypeElement) element.getEnclosingElement());
+				}
+			}
+		}
+
+		for (TypeElement enumElement : enums) {
+			if(!isParameterized(enumElement)){
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "El enumerado no implementa "+PARAMETERIZED+", no se genera parseador", enumElement);
+			}else if(enumElement.getModifiers().contains(Modifier.PRIVATE)){
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "No se puede generar el parseador de un enumerado privado", enumElement);
+			}else{
+				try {
+					generate(enumElement);
+				} catch (IOException e) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Error al generar el parseador: "+e.getMessage(), enumElement);
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determina si un enumerado implementa la interfaz parametrizada
+	 * @param enumElement Enumerado
+	 * @return true si implementa {@link #PARAMETERIZED}
+	 */
+	private boolean isParameterized(TypeElement enumElement) {
+		TypeElement parameterized = processingEnv.getElementUtils().getTypeElement(PARAMETERIZED);
+		return parameterized!=null && processingEnv.getTypeUtils().isAssignable(enumElement.asType(), parameterized.asType());
+	}
+
+	/**
+	 * Genera el parseador de un enumerado
+	 * @param enumElement Enumerado
+	 * @throws IOException
+	 */
+	private void generate(TypeElement enumElement) throws IOException {
+		String packageName = processingEnv.getElementUtils().getPackageOf(enumElement).getQualifiedName().toString();
+		String enumName = enumElement.getQualifiedName().toString();
+		String className = generatedName(enumElement);
+
+		StringBuilder source = new StringBuilder();
+		if(!packageName.isEmpty()){
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("/**\n");
+		source.append(" * Parseador generado por ").append(ParameterizedProcessor.class.getName()).append(" para {@link ").append(enumName).append("}. No editar\n");
+		source.append(" * */\n");
+		source.append("public abstract class ").append(className).append(" extends es.home.parameterized.parser.Parser<").append(enumName).append("> {\n\n");
+		source.append("\t/** Esquema de opciones generado en tiempo de compilación */\n");
+		source.append("\tpublic static final es.home.parameterized.schema.OptionSchema<").append(enumName).append("> SCHEMA = es.home.parameterized.schema.OptionSchema\n");
+		source.append("\t\t.builder(").append(enumName).append(".class, ").append(enumName).append(".values())\n");
+
+		Set<String> constantNames = new HashSet<>();
+		for (Element element : enumElement.getEnclosedElements()) {
+			if(element.getKind()==ElementKind.ENUM_CONSTANT){
+				constantNames.add(element.getSimpleName().toString());
+			}
+		}
+
+		for (Element element : enumElement.getEnclosedElements()) {
+			if(element.getKind()!=ElementKind.ENUM_CONSTANT){
+				continue;
+			}
+			String constant = enumName+"."+element.getSimpleName();
+
+			AnnotationMirror option = findAnnotation(element, PARAMETER_OPTION);
+			if(option!=null){
+				source.append("\t\t.option(").append(constant)
+					.append(", ").append(literal(option, "shortKey"))
+					.append(", ").append(literal(option, "description"))
+					.append(", ").append(literal(option, "hasArgs"));
+				for (Object dependency : (List<?>) value(option, "dependsOn")) {
+					Object name = ((AnnotationValue) dependency).getValue();
+					if(!constantNames.contains(name)){
+						processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "La opción depende de un elemento inexistente: "+name, element, option);
+					}
+					source.append(", ").append(processingEnv.getElementUtils().getConstantExpression(name));
+				}
+				source.append(")\n");
+			}
+
+			List<String> validations = new ArrayList<>();
+			collectValidations(validations, element, null, element.getAnnotationMirrors(), new HashSet<String>());
+			for (String validation : validations) {
+				source.append("\t\t.validation(").append(constant).append(", ").append(validation).append(")\n");
+			}
+		}
+		source.append("\t\t.build();\n\n");
+		source.append("\t/**\n");
+		source.append("\t * Constructor\n");
+		source.append("\t * @param args Argumentos pasados por línea de comandos\n");
+		source.append("\t * @throws es.home.parameterized.exception.ParameterizedParserException\n");
+		source.append("\t * */\n");
+		source.append("\tprotected ").append(className).append("(String[] args) throws es.home.parameterized.exception.ParameterizedParserException {\n");
+		source.append("\t\tsuper(args, SCHEMA);\n");
+		source.append("\t}\n");
+		source.append("}\n");
+
+		String qualifiedName = packageName.isEmpty() ? className : packageName+"."+className;
+		try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, enumElement).openWriter()) {
+			writer.write(source.toString());
+		}
+	}
+
+	/**
+	 * Obtiene el nombre de la clase generada. Para enumerados anidados se concatenan los nombres
+	 * de las clases contenedoras separados por guiones bajos
+	 * @param enumElement Enumerado
+	 * @return Nombre simple de la clase generada
+	 */
+	private static String generatedName(TypeElement enumElement) {
+		StringBuilder name = new StringBuilder(enumElement.getSimpleName());
+		Element enclosing = enumElement.getEnclosingElement();
+		while(!(enclosing instanceof PackageElement)){
+			name.insert(0, '_').insert(0, enclosing.getSimpleName());
+			enclosing = enclosing.getEnclosingElement();
+		}
+		return name.append(SUFFIX).toString();
+	}
+
+	/**
+	 * Busca una anotación en un elemento
+	 * @param element Elemento
+	 * @param annotationName Nombre cualificado de la anotación
+	 * @return Anotación o null si el elemento no la contiene
+	 */
+	private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			if(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)){
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Obtiene el valor de un atributo de una anotación, incluidos los valores por defecto
+	 * @param mirror Anotación
+	 * @param attribute Nombre del atributo
+	 * @return Valor del atributo o null si no existe
+	 */
+	private Object value(AnnotationMirror mirror, String attribute) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			if(entry.getKey().getSimpleName().contentEquals(attribute)){
+				return entry.getValue().getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Obtiene el valor de un atributo de una anotación como literal de código java
+	 * @param mirror Anotación
+	 * @param attribute Nombre del atributo
+	 * @return Literal java del valor
+	 */
+	private String literal(AnnotationMirror mirror, String attribute) {
+		return processingEnv.getElementUtils().getConstantExpression(value(mirror, attribute));
+	}
+
+	/**
+	 * Obtiene de forma recursiva las instancias de las validaciones de las anotaciones {@link #CUSTOM_VALIDATION},
+	 * en el mismo orden en el que las obtiene el esquema compilado por reflexión
+	 * @param result Lista en la que inyectar los argumentos de cada validación del esquema
+	 * @param element Elemento del enumerado, en el que se informan los errores
+	 * @param owner Anotación cuyas anotaciones se comprueban o null si son las del elemento
+	 * @param mirrors Anotaciones a comprobar
+	 * @param path Anotaciones que se están recorriendo, para evitar ciclos
+	 */
+	private void collectValidations(List<String> result, Element element, AnnotationMirror owner, List<? extends AnnotationMirror> mirrors, Set<String> path) {
+		for (AnnotationMirror mirror : mirrors) {
+			TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+			String name = type.getQualifiedName().toString();
+			if(CUSTOM_VALIDATION.equals(name)){
+				TypeMirror validation = processingEnv.getTypeUtils().erasure((TypeMirror) value(mirror, "validationClass"));
+				StringBuilder expression = new StringBuilder("new ").append(validation).append('(');
+				TypeElement validationElement = (TypeElement) processingEnv.getTypeUtils().asElement(validation);
+				if(owner!=null && isConfigured(validationElement, owner)){
+					if(!hasAttributesConstructor(validationElement, owner)){
+						processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "La validación "+validation+" se configura con @"
+							+owner.getAnnotationType().asElement().getSimpleName()+" pero no declara un constructor público con sus atributos en el orden en que se declaran", element);
+					}
+					appendArguments(expression, owner);
+				}
+				expression.append(')');
+				if(Boolean.TRUE.equals(value(mirror, "cacheable"))){
+					expression.append(", ").append(literal(mirror, "cacheSize")).append(", ").append(literal(mirror, "cacheTtl"));
+				}
+				result.add(expression.toString());
+			}else if(!name.startsWith("java.lang.annotation.") && path.add(name)){
+				collectValidations(result, element, mirror, type.getAnnotationMirrors(), path);
+				path.remove(name);
+			}
+		}
+	}
+
+	/**
+	 * Determina si una validación se configura con los atributos de la anotación que la declara, es
+	 * decir, si tiene un constructor público que recibe esa anotación
+	 * @param validation Clase de la validación
+	 * @param owner Anotación que declara la validación
+	 * @return true si la validación se instancia con los atributos de la anotación
+	 */
+	private boolean isConfigured(TypeElement validation, AnnotationMirror owner) {
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(validation.getEnclosedElements())) {
+			if(constructor.getModifiers().contains(Modifier.PUBLIC) && constructor.getParameters().size()==1
+				&& processingEnv.getTypeUtils().isSameType(constructor.getParameters().get(0).asType(), owner.getAnnotationType())){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determina si una validación tiene el constructor público con los atributos de la anotación, en el
+	 * orden en que se declaran, que utiliza el código generado
+	 * @param validation Clase de la validación
+	 * @param owner Anotación que declara la validación
+	 * @return true si existe el constructor
+	 */
+	private boolean hasAttributesConstructor(TypeElement validation, AnnotationMirror owner) {
+		List<ExecutableElement> attributes = ElementFilter.methodsIn(owner.getAnnotationType().asElement().getEnclosedElements());
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(validation.getEnclosedElements())) {
+			if(!constructor.getModifiers().contains(Modifier.PUBLIC) || constructor.getParameters().size()!=attributes.size()){
+				continue;
+			}
+			boolean matches = true;
+			for (int i = 0; i < attributes.size() && matches; i++) {
+				TypeMirror attribute = processingEnv.getTypeUtils().erasure(attributes.get(i).getReturnType());
+				matches = processingEnv.getTypeUtils().isAssignable(attribute, processingEnv.getTypeUtils().erasure(constructor.getParameters().get(i).asType()));
+			}
+			if(matches){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Añade los valores de los atributos de una anotación, en el orden en que se declaran, como
+	 * argumentos de un constructor
+	 * @param expression Expresión en la que añadir los argumentos
+	 * @param owner Anotación
+	 */
+	private void appendArguments(StringBuilder expression, AnnotationMirror owner) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(owner);
+		String separator = "";
+		for (ExecutableElement attribute : ElementFilter.methodsIn(owner.getAnnotationType().asElement().getEnclosedElements())) {
+			expression.append(separator);
+			appendValue(expression, attribute.getReturnType(), values.get(attribute).getValue());
+			separator = ", ";
+		}
+	}
+
+	/**
+	 * Añade el valor de un atributo de una anotación como expresión java
+	 * @param expression Expresión en la que añadir el valor
+	 * @param type Tipo del atributo
+	 * @param value Valor del atributo
+	 */
+	private void appendValue(StringBuilder expression, TypeMirror type, Object value) {
+		if(value instanceof List){
+			TypeMirror component = ((ArrayType) type).getComponentType();
+			expression.append("new ").append(processingEnv.getTypeUtils().erasure(component)).append("[]{");
+			String separator = "";
+			for (Object item : (List<?>) value) {
+				expression.append(separator);
+				appendValue(expression, component, ((AnnotationValue) item).getValue());
+				separator = ", ";
+			}
+			expression.append('}');
+		}else if(value instanceof VariableElement){
+			expression.append(processingEnv.getTypeUtils().erasure(type)).append('.').append(((VariableElement) value).getSimpleName());
+		}else if(value instanceof TypeMirror){
+			expression.append(processingEnv.getTypeUtils().erasure((TypeMirror) value)).append(".class");
+		}else if(value instanceof AnnotationMirror){
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Las validaciones no admiten atributos de tipo anotación: "+type);
+			expression.append("null");
+		}else{
+			expression.append(processingEnv.getElementUtils().getConstantExpression(value));
+		}
+	}
+}
@@ -8,7 +8,11 @@ import java.lang.annotation.Target;
 import es.home.parameterized.interfaces.ParameterValidation;
 
 /**
- * Validación customizada. Se utiliza en otras anotaciones para generar validaciones personalizadas
+ * Validación customizada. Se utiliza en otras anotaciones para generar validaciones personalizadas.
+ * Si la clase de la validación tiene un constructor público que recibe la anotación que la declara,
+ * se instancia una vez por elemento con los atributos de esa anotación. Para los parseadores generados
+ * por el procesador de anotaciones, también debe tener un constructor que reciba los atributos de la
+ * anotación en el orden en que se declaran
  */
 @Retention(value = RetentionPolicy.RUNTIME)
 @Target(value = { ElementType.ANNOTATION_TYPE })
@@ -16,4 +20,13 @@ public @interface CustomValidation {
 	
 	/** Clase que contiene la implementación de la validación */
 	Class<? extends ParameterValidation> validationClass(); 
+
+	/** Determina si los resultados de la validación se guardan en caché por valor */
+	boolean cacheable() default false;
+
+	/** Número máximo de valores en caché. Al superarlo se descarta el utilizado hace más tiempo */
+	int cacheSize() default 1024;
+
+	/** Milisegundos durante los que un resultado en caché es válido o 0 para que no caduque */
+	long cacheTtl() default 0;
 }
@@ -0,0 +1,20 @@
+package es.home.parameterized.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import es.home.parameterized.impl.ParameterMaxLengthValidation;
+
+/**
+ * Genera una validación de longitud máxima del valor. Las opciones sin valor se consideran válidas
+ */
+@CustomValidation(validationClass = ParameterMaxLengthValidation.class)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = { ElementType.FIELD })
+public @interface ParameterMaxLength {
+
+	/** Número máximo de caracteres */
+	int value();
+}
@@ -0,0 +1,24 @@
+package es.home.parameterized.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import es.home.parameterized.impl.ParameterOneOfValidation;
+
+/**
+ * Genera una validación de valor dentro de un conjunto de valores permitidos. Las opciones sin valor
+ * se consideran válidas
+ */
+@CustomValidation(validationClass = ParameterOneOfValidation.class)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = { ElementType.FIELD })
+public @interface ParameterOneOf {
+
+	/** Valores permitidos */
+	String[] value();
+
+	/** Determina si se ignoran las mayúsculas */
+	boolean ignoreCase() default false;
+}
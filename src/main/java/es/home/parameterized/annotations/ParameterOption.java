@@ -20,4 +20,11 @@ public @interface ParameterOption {
 	
 	/** Determina si la opción tiene o no argumentos por defecto false */
 	boolean hasArgs() default false;
+	
+	/**
+	 * Nombres de los elementos del enumerado cuya función debe ejecutarse antes que la de esta opción
+	 * en el modo de ejecución en paralelo. Las dependencias que no aparecen en la línea de comandos
+	 * se ignoran. Por defecto ninguna
+	 */
+	String[] dependsOn() default {};
 }
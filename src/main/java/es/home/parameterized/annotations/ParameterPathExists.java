@@ -0,0 +1,17 @@
+package es.home.parameterized.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import es.home.parameterized.impl.ParameterPathExistsValidation;
+
+/**
+ * Genera una validación de ruta existente en el sistema de ficheros. Las opciones sin valor se
+ * consideran válidas
+ */
+@CustomValidation(validationClass = ParameterPathExistsValidation.class)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = { ElementType.FIELD })
+public @interface ParameterPathExists {}
@@ -0,0 +1,24 @@
+package es.home.parameterized.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import es.home.parameterized.impl.ParameterPatternValidation;
+
+/**
+ * Genera una validación de expresión regular. El valor completo debe cumplir la expresión. Las
+ * opciones sin valor se consideran válidas
+ */
+@CustomValidation(validationClass = ParameterPatternValidation.class)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = { ElementType.FIELD })
+public @interface ParameterPattern {
+
+	/** Expresión regular */
+	String value();
+
+	/** Modificadores de {@link java.util.regex.Pattern}, como {@link java.util.regex.Pattern#CASE_INSENSITIVE} */
+	int flags() default 0;
+}
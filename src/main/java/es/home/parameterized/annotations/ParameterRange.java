@@ -0,0 +1,24 @@
+package es.home.parameterized.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import es.home.parameterized.impl.ParameterRangeValidation;
+
+/**
+ * Genera una validación de número entero dentro de un rango, con los límites incluidos. Las opciones
+ * sin valor se consideran válidas
+ */
+@CustomValidation(validationClass = ParameterRangeValidation.class)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = { ElementType.FIELD })
+public @interface ParameterRange {
+
+	/** Valor mínimo */
+	long min() default Long.MIN_VALUE;
+
+	/** Valor máximo */
+	long max() default Long.MAX_VALUE;
+}
@@ -0,0 +1,22 @@
+package es.home.parameterized.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Subcomando de un enumerado parametrizado. El elemento anotado no es una opción: su nombre selecciona
+ * el subcomando y su función se ejecuta al ejecutarlo. Las opciones del subcomando se declaran en su
+ * propio enumerado, que se indica por nombre para que solo se cargue el del subcomando seleccionado
+ * */
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = { ElementType.FIELD })
+public @interface ParameterSubcommand {
+
+	/** Nombre completo de la clase del enumerado con las opciones del subcomando */
+	String options();
+
+	/** Descripción del subcomando. Por defecto cadena vacía */
+	String description() default "";
+}
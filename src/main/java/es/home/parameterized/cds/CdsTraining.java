@@ -0,0 +1,305 @@
+package es.home.parameterized.cds;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.List;
+
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.impl.SimpleParameterExecutable;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.parser.ExecutionMode;
+import es.home.parameterized.parser.ParseMode;
+import es.home.parameterized.parser.ParsedCommandLine;
+import es.home.parameterized.parser.Parser;
+import es.home.parameterized.parser.ParserEngine;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Ejecución de entrenamiento para generar un archivo de clases compartidas (AppCDS) que reduzca el
+ * arranque de las aplicaciones basadas en {@link Parser}. Con la clase de un enumerado
+ * {@link Parameterized} recorre la ayuda, el parseo, las validaciones y la ejecución de las funciones de
+ * la librería en todos los modos de parseo y de ejecución, de forma que se cargan y enlazan las clases
+ * del parseador, de commons cli y del enumerado. Las funciones propias de la aplicación no se ejecutan,
+ * ya que pueden tener efectos.
+ * <p>
+ * Uso: {@code java -cp aplicacion.jar es.home.parameterized.cds.CdsTraining <enumerado> [-archive <fichero.jsa>] [-classlist <fichero>] [clases...]}.
+ * Sin {@code -archive} ni {@code -classlist} solo se ejecuta el entrenamiento, por ejemplo para
+ * lanzarlo con opciones propias de la máquina virtual. Con {@code -archive} se relanza con
+ * {@code -XX:ArchiveClassesAtExit}, disponible desde Java 13, y con {@code -classlist} con
+ * {@code -XX:DumpLoadedClassList}. Las clases indicadas al final, por ejemplo el parseador y la clase
+ * principal de la aplicación, se cargan sin inicializarse para incluirlas en el archivo
+ * */
+public final class CdsTraining {
+
+	/** Valor de las opciones con argumentos. Es válido para las funciones numéricas de la librería */
+	private static final String TRAINING_VALUE = "1";
+
+	/** Opción que no existe en ningún enumerado, para recorrer los errores y las sugerencias */
+	private static final String UNKNOWN_OPTION = "--cds-training-unknown";
+
+	/** Versión de Java desde la que existe {@code -XX:ArchiveClassesAtExit} */
+	private static final int DYNAMIC_ARCHIVE_VERSION = 13;
+
+	/**
+	 * Constructor privado
+	 * */
+	private CdsTraining() {
+	}
+
+	/**
+	 * Ejecuta el entrenamiento o genera el archivo de clases compartidas
+	 * @param args Clase del enumerado, opciones {@code -archive} y {@code -classlist} y clases adicionales
+	 * @throws Exception Si no se puede cargar alguna clase o falla la generación del archivo
+	 * */
+	public static void main(String[] args) throws Exception {
+		if(args.length<1){
+			System.err.println("Uso: "+CdsTraining.class.getName()+" <enumerado> [-archive <fichero.jsa>] [-classlist <fichero>] [clases...]");
+			System.exit(2);
+		}
+
+		String archive = null;
+		String classList = null;
+		List<String> classes = new ArrayList<>();
+		for (int i = 1; i < args.length; i++) {
+			if("-archive".equals(args[i]) && i+1<args.length){
+				archive = args[++i];
+			}else if("-classlist".equals(args[i]) && i+1<args.length){
+				classList = args[++i];
+			}else{
+				classes.add(args[i]);
+			}
+		}
+
+		if(archive==null && classList==null){
+			train(args[0], classes);
+			return;
+		}
+
+		List<String> training = new ArrayList<>();
+		training.add(args[0]);
+		training.addAll(classes);
+		if(classList!=null){
+			relaunch("-XX:DumpLoadedClassList="+classList, training);
+			System.out.println("Lista de clases generada en "+classList);
+		}
+		if(archive!=null){
+			if(javaVersion()<DYNAMIC_ARCHIVE_VERSION){
+				System.err.println("-archive requiere Java "+DYNAMIC_ARCHIVE_VERSION+". Utilice -classlist y -Xshare:dump");
+				System.exit(1);
+			}
+			relaunch("-XX:ArchiveClassesAtExit="+archive, training);
+			System.out.println("Archivo de clases compartidas generado en "+archive);
+		}
+	}
+
+	/**
+	 * Ejecuta el entrenamiento en la máquina virtual actual
+	 * @param enumClassName Nombre cualificado de la clase del enumerado
+	 * @param classes Nombres cualificados de las clases que se cargan sin inicializarse. De los
+	 * parseadores se resuelve además el enumerado como lo hace el constructor {@link Parser#Parser(String[])}
+	 * @throws ClassNotFoundException Si no existe alguna de las clases
+	 * @throws ParameterizedParserException Si el enumerado no es válido
+	 * */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static void train(String enumClassName, List<String> classes) throws ClassNotFoundException, ParameterizedParserException {
+		ClassLoader loader = CdsTraining.class.getClassLoader();
+		for (String name : classes) {
+			Class<?> type = Class.forName(name, false, loader);
+			if(Parser.class.isAssignableFrom(type) && type.getGenericSuperclass() instanceof ParameterizedType){
+				((ParameterizedType) type.getGenericSuperclass()).getActualTypeArguments();
+			}
+		}
+		train(OptionSchema.forEnum((Class) Class.forName(enumClassName, true, loader)));
+	}
+
+	/**
+	 * Ejecuta el entrenamiento sobre un esquema. Durante el entrenamiento la salida estándar y la de
+	 * errores se descartan
+	 * @param schema Esquema de las opciones
+	 * */
+	public static <T extends Enum<? extends Parameterized>> void train(OptionSchema<T> schema) {
+		PrintStream out = System.out;
+		PrintStream err = System.err;
+		PrintStream discard = new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+		});
+
+		System.setOut(discard);
+		System.setErr(discard);
+		try {
+			String[] help = helpArguments(schema);
+			String[] all = arguments(schema, false);
+			String[] executable = arguments(schema, true);
+
+			// Parseador con la configuración por defecto: ayuda, validaciones y funciones
+			if(help.length>0){
+				run(schema, help, false);
+			}
+			run(schema, all, false);
+			run(schema, executable, true);
+			run(schema, new String[] {UNKNOWN_OPTION}, false);
+
+			// Motor en el resto de modos
+			for (ParseMode parseMode : ParseMode.values()) {
+				for (ExecutionMode executionMode : ExecutionMode.values()) {
+					ParserEngine<T> engine = ParserEngine.builder(schema).parseMode(parseMode).executionMode(executionMode).build();
+					run(engine, all, false);
+					run(engine, executable, true);
+					engine.tryParse(all).isSuccess();
+					engine.tryParse(new String[] {UNKNOWN_OPTION}).getSuggestions();
+				}
+			}
+		} finally {
+			System.setOut(out);
+			System.setErr(err);
+		}
+	}
+
+	/**
+	 * Valida y, si se indica, ejecuta unos argumentos con un parseador
+	 */
+	private static <T extends Enum<? extends Parameterized>> void run(OptionSchema<T> schema, String[] args, boolean execute) {
+		try {
+			Parser<T> parser = new TrainingParser<>(args, schema);
+			if(!parser.isHelp() && parser.validParams() && execute){
+				parser.getResult();
+			}
+			parser.getFailedValidations();
+		} catch (ParameterizedParserException e) {
+			// Los errores de entrada también forman parte del entrenamiento
+		}
+	}
+
+	/**
+	 * Valida y, si se indica, ejecuta unos argumentos con un motor
+	 */
+	private static void run(ParserEngine<?> engine, String[] args, boolean execute) {
+		try {
+			ParsedCommandLine<?> commandLine = engine.parse(args);
+			if(commandLine.validParams() && execute){
+				for (Enum<?> constant : engine.getSchema().getConstants()) {
+					commandLine.getValue((Parameterized) constant);
+				}
+				commandLine.getResult();
+			}
+			commandLine.getFailedValidations();
+		} catch (ParameterizedParserException e) {
+			// Los errores de entrada también forman parte del entrenamiento
+		}
+	}
+
+	/**
+	 * Obtiene los argumentos que muestran la ayuda
+	 * @return Clave corta de la primera opción de ayuda o un arreglo vacío si no existe
+	 */
+	private static String[] helpArguments(OptionSchema<?> schema) {
+		for (int i = 0; i < schema.size(); i++) {
+			if(schema.isHelp(i)){
+				return new String[] {"-"+schema.getOption(schema.getConstant(i)).getOpt()};
+			}
+		}
+		return new String[0];
+	}
+
+	/**
+	 * Obtiene los argumentos con todas las opciones del enumerado salvo las de ayuda
+	 * @param library Determina si solo se incluyen las opciones cuyas funciones son de la librería
+	 * @return Argumentos, con un valor para las opciones con argumentos
+	 */
+	private static String[] arguments(OptionSchema<?> schema, boolean library) {
+		String libraryPackage = SimpleParameterExecutable.class.getPackage().getName()+".";
+		List<String> args = new ArrayList<>();
+		for (int i = 0; i < schema.size(); i++) {
+			Parameterized constant = (Parameterized) schema.getConstant(i);
+			if(schema.isHelp(i) || schema.getOption(schema.getConstant(i))==null){
+				continue;
+			}
+			if(library && (constant.getParameterExecutable()==null || !constant.getParameterExecutable().getClass().getName().startsWith(libraryPackage))){
+				continue;
+			}
+			args.add("--"+schema.getOption(schema.getConstant(i)).getLongOpt());
+			if(schema.hasArgs(i)){
+				args.add(TRAINING_VALUE);
+			}
+		}
+		return args.toArray(new String[args.size()]);
+	}
+
+	/**
+	 * Ejecuta el entrenamiento en una nueva máquina virtual con el mismo classpath
+	 * @param option Opción de la máquina virtual que genera el archivo o la lista de clases
+	 * @param training Argumentos del entrenamiento
+	 * @throws IOException Si no se puede lanzar la máquina virtual o termina con error
+	 * @throws InterruptedException Si se interrumpe la espera
+	 */
+	private static void relaunch(String option, List<String> training) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home")+File.separator+"bin"+File.separator+"java");
+		command.add(option);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(CdsTraining.class.getName());
+		command.addAll(training);
+
+		int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+		if(exit!=0){
+			StringBuilder string = new StringBuilder("Excepción producida en la ejecución de entrenamiento: ");
+			string.append("código de salida ").append(exit);
+			throw new IOException(string.toString());
+		}
+	}
+
+	/**
+	 * Obtiene la versión de la especificación de Java, por ejemplo 8 para {@code 1.8}
+	 */
+	private static int javaVersion() {
+		String version = System.getProperty("java.specification.version");
+		if(version.startsWith("1.")){
+			version = version.substring(2);
+		}
+		return Integer.parseInt(version);
+	}
+
+	/**
+	 * Parseador del entrenamiento. Muestra la ayuda sin terminar el programa
+	 * */
+	private static final class TrainingParser<T extends Enum<? extends Parameterized>> extends Parser<T> {
+
+		/**
+		 * Constructor
+		 * */
+		private TrainingParser(String[] args, OptionSchema<T> schema) throws ParameterizedParserException {
+			super(args, schema);
+		}
+
+		@Override
+		public String getHelpHeader() {
+			return "";
+		}
+
+		@Override
+		public String getHelpFooter() {
+			return "";
+		}
+
+		@Override
+		public String getAppName() {
+			return "cds-training";
+		}
+
+		@Override
+		protected boolean isExitOnHelp() {
+			return false;
+		}
+	}
+}
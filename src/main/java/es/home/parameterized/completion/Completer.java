@@ -0,0 +1,46 @@
+package es.home.parameterized.completion;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Punto de entrada ligero para completar la línea de comandos desde un script. Solo carga el índice
+ * generado por el objetivo {@code render-completion}, por lo que no inicializa ningún parseador ni
+ * carga el enumerado, commons cli, las validaciones o las funciones:
+ * {@code java -cp aplicacion.jar es.home.parameterized.completion.Completer <enumerado> <posición> <palabras...>}.
+ * Imprime una opción por línea
+ * */
+public final class Completer {
+
+	/**
+	 * Constructor privado
+	 * */
+	private Completer() {
+	}
+
+	/**
+	 * Completa una palabra
+	 * @param args Clase del enumerado, posición de la palabra que se completa y palabras de la línea de
+	 * comandos sin el nombre del programa
+	 * @throws IOException Si no se puede leer el índice
+	 * */
+	public static void main(String[] args) throws IOException {
+		if(args.length<2){
+			System.err.println("Uso: "+Completer.class.getName()+" <enumerado> <posición> <palabras...>");
+			System.exit(2);
+		}
+
+		CompletionIndex index = CompletionIndex.load(args[0], Completer.class.getClassLoader());
+		if(index==null){
+			System.err.println("No existe el índice de completado: "+CompletionIndex.resourceName(args[0]));
+			System.exit(1);
+		}
+
+		PrintStream out = System.out;
+		for (String option : index.complete(Arrays.copyOfRange(args, 2, args.length), Integer.parseInt(args[1]))) {
+			out.println(option);
+		}
+		out.flush();
+	}
+}
@@ -0,0 +1,204 @@
+package es.home.parameterized.completion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Índice de las opciones de un enumerado para completar la línea de comandos. Solo contiene la clave
+ * corta, el nombre, si tiene argumentos y la descripción de cada opción, y se guarda como recurso de
+ * texto, de forma que se puede completar sin cargar el enumerado, commons cli, las validaciones ni las
+ * funciones. No depende de ninguna otra clase de la librería
+ * */
+public final class CompletionIndex {
+
+	/** Codificación del recurso */
+	public static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/** Claves cortas */
+	private final List<String> shortKeys = new ArrayList<>();
+
+	/** Nombres largos */
+	private final List<String> names = new ArrayList<>();
+
+	/** Determina si cada opción tiene argumentos */
+	private final List<Boolean> hasArgs = new ArrayList<>();
+
+	/** Descripciones */
+	private final List<String> descriptions = new ArrayList<>();
+
+	/**
+	 * Constructor de un índice vacío
+	 * */
+	CompletionIndex() {
+	}
+
+	/**
+	 * Obtiene el nombre del recurso del índice de un enumerado
+	 * @param enumClassName Nombre cualificado de la clase del enumerado
+	 * @return Nombre del recurso
+	 * */
+	public static String resourceName(String enumClassName) {
+		return "META-INF/parameterized/completion/"+enumClassName+".idx";
+	}
+
+	/**
+	 * Carga el índice de un enumerado de su recurso, sin cargar la clase del enumerado
+	 * @param enumClassName Nombre cualificado de la clase del enumerado
+	 * @param loader Cargador de clases del recurso
+	 * @return Índice o null si no existe el recurso
+	 * @throws IOException Si no se puede leer el recurso
+	 * */
+	public static CompletionIndex load(String enumClassName, ClassLoader loader) throws IOException {
+		try (InputStream in = loader.getResourceAsStream(resourceName(enumClassName))) {
+			return in==null ? null : read(in);
+		}
+	}
+
+	/**
+	 * Lee un índice, con una opción por línea y sus campos separados por tabuladores
+	 * @param in Flujo del índice. No se cierra
+	 * @return Índice
+	 * @throws IOException Si no se puede leer el flujo
+	 * */
+	public static CompletionIndex read(InputStream in) throws IOException {
+		CompletionIndex index = new CompletionIndex();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, CHARSET));
+		String line;
+		while((line = reader.readLine())!=null){
+			String[] fields = line.split("\t", 4);
+			if(fields.length==4){
+				index.add(fields[0], fields[1], "1".equals(fields[2]), fields[3]);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Escribe el índice
+	 * @param out Flujo de salida. No se cierra
+	 * @throws IOException Si no se puede escribir el flujo
+	 * */
+	public void write(OutputStream out) throws IOException {
+		Writer writer = new OutputStreamWriter(out, CHARSET);
+		for (int i = 0; i < size(); i++) {
+			writer.append(shortKeys.get(i)).append('\t')
+				.append(names.get(i)).append('\t')
+				.append(hasArgs.get(i) ? '1' : '0').append('\t')
+				.append(descriptions.get(i).replace('\t', ' ').replace('\r', ' ').replace('\n', ' ')).append('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Añade una opción
+	 * @param shortKey Clave corta
+	 * @param name Nombre largo
+	 * @param args true si la opción tiene argumentos
+	 * @param description Descripción
+	 * */
+	void add(String shortKey, String name, boolean args, String description) {
+		shortKeys.add(shortKey);
+		names.add(name);
+		hasArgs.add(args);
+		descriptions.add(description);
+	}
+
+	/**
+	 * Obtiene las opciones que completan una palabra de la línea de comandos
+	 * @param words Palabras de la línea de comandos, sin el nombre del programa
+	 * @param current Posición de la palabra que se completa. Puede ser igual al número de palabras
+	 * si se completa una palabra vacía
+	 * @return Opciones, con sus guiones, que empiezan por la palabra. Vacía si la palabra anterior es
+	 * una opción con argumentos o la palabra no empieza por guión, en cuyo caso se completa el valor
+	 * */
+	public List<String> complete(String[] words, int current) {
+		if(current>0 && current<=words.length && expectsValue(words[current-1])){
+			return Collections.emptyList();
+		}
+		String word = current<words.length ? words[current] : "";
+		if(!word.isEmpty() && word.charAt(0)!='-'){
+			return Collections.emptyList();
+		}
+
+		List<String> result = new ArrayList<>();
+		for (int i = 0; i < size(); i++) {
+			String shortOption = "-"+shortKeys.get(i);
+			String longOption = "--"+names.get(i);
+			if(!word.startsWith("--") && shortOption.startsWith(word)){
+				result.add(shortOption);
+			}
+			if(longOption.startsWith(word)){
+				result.add(longOption);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Determina si una palabra es una opción con argumentos que no incluye su valor
+	 */
+	private boolean expectsValue(String word) {
+		if(word.indexOf('=')>=0){
+			return false;
+		}
+		for (int i = 0; i < size(); i++) {
+			if(hasArgs.get(i) && (word.equals("-"+shortKeys.get(i)) || word.equals("--"+names.get(i)))){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Obtiene el número de opciones
+	 * @return Número de opciones
+	 * */
+	public int size() {
+		return names.size();
+	}
+
+	/**
+	 * Obtiene la clave corta de una opción
+	 * @param i Posición de la opción
+	 * @return Clave corta
+	 * */
+	public String getShortKey(int i) {
+		return shortKeys.get(i);
+	}
+
+	/**
+	 * Obtiene el nombre largo de una opción
+	 * @param i Posición de la opción
+	 * @return Nombre largo
+	 * */
+	public String getName(int i) {
+		return names.get(i);
+	}
+
+	/**
+	 * Determina si una opción tiene argumentos
+	 * @param i Posición de la opción
+	 * @return true si tiene argumentos
+	 * */
+	public boolean hasArgs(int i) {
+		return hasArgs.get(i);
+	}
+
+	/**
+	 * Obtiene la descripción de una opción
+	 * @param i Posición de la opción
+	 * @return Descripción
+	 * */
+	public String getDescription(int i) {
+		return descriptions.get(i);
+	}
+}
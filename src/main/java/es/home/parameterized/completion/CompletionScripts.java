@@ -0,0 +1,130 @@
+package es.home.parameterized.completion;
+
+import es.home.parameterized.annotations.ParameterOption;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Generador de los scripts de completado de bash y zsh y del índice de {@link Completer} a partir de
+ * las anotaciones {@link ParameterOption} de un esquema. Los scripts contienen las opciones, por lo que
+ * completan sin arrancar la máquina virtual
+ * */
+public final class CompletionScripts {
+
+	/**
+	 * Constructor privado
+	 * */
+	private CompletionScripts() {
+	}
+
+	/**
+	 * Crea el índice de completado de un esquema
+	 * @param schema Esquema de las opciones
+	 * @return Índice con las opciones con {@link ParameterOption}
+	 * */
+	public static CompletionIndex index(OptionSchema<?> schema) {
+		CompletionIndex index = new CompletionIndex();
+		for (Enum<? extends Parameterized> constant : schema.getConstants()) {
+			ParameterOption option = schema.getParameterOption(constant);
+			if(option!=null){
+				index.add(option.shortKey(), ((Parameterized) constant).getName(), option.hasArgs(), option.description());
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Genera el script de completado de bash. Los valores de las opciones con argumentos se completan
+	 * como ficheros
+	 * @param index Índice de las opciones
+	 * @param command Nombre del comando
+	 * @return Script, que se carga con {@code source}
+	 * */
+	public static String bash(CompletionIndex index, String command) {
+		String function = "_"+identifier(command);
+		StringBuilder options = new StringBuilder();
+		StringBuilder withArgs = new StringBuilder();
+		for (int i = 0; i < index.size(); i++) {
+			String pair = "-"+index.getShortKey(i)+" --"+index.getName(i);
+			options.append(i==0 ? "" : " ").append(pair);
+			if(index.hasArgs(i)){
+				withArgs.append(withArgs.length()==0 ? "" : "|").append(pair.replace(' ', '|'));
+			}
+		}
+
+		StringBuilder script = new StringBuilder();
+		script.append("# Completado de ").append(command).append(" generado por parameterized\n");
+		script.append(function).append("() {\n");
+		script.append("\tlocal cur=\"${COMP_WORDS[COMP_CWORD]}\" prev=\"${COMP_WORDS[COMP_CWORD-1]}\"\n");
+		if(withArgs.length()>0){
+			script.append("\tcase \"$prev\" in\n");
+			script.append("\t\t").append(withArgs).append(") COMPREPLY=( $(compgen -f -- \"$cur\") ); return ;;\n");
+			script.append("\tesac\n");
+		}
+		script.append("\tif [[ \"$cur\" == -* ]]; then\n");
+		script.append("\t\tCOMPREPLY=( $(compgen -W \"").append(options).append("\" -- \"$cur\") )\n");
+		script.append("\telse\n");
+		script.append("\t\tCOMPREPLY=( $(compgen -f -- \"$cur\") )\n");
+		script.append("\tfi\n");
+		script.append("}\n");
+		script.append("complete -F ").append(function).append(' ').append(command).append('\n');
+		return script.toString();
+	}
+
+	/**
+	 * Genera el script de completado de zsh, con la descripción de cada opción
+	 * @param index Índice de las opciones
+	 * @param command Nombre del comando
+	 * @return Script, que se instala como {@code _comando} en un directorio de {@code fpath}
+	 * */
+	public static String zsh(CompletionIndex index, String command) {
+		StringBuilder script = new StringBuilder();
+		script.append("#compdef ").append(command).append('\n');
+		script.append("# Completado de ").append(command).append(" generado por parameterized\n");
+		script.append("_arguments");
+		for (int i = 0; i < index.size(); i++) {
+			String shortOption = "-"+index.getShortKey(i);
+			String longOption = "--"+index.getName(i);
+			script.append(" \\\n\t'(").append(shortOption).append(' ').append(longOption).append(")'")
+				.append('{').append(shortOption).append(',').append(longOption).append('}')
+				.append("'[").append(zshDescription(index.getDescription(i))).append(']');
+			if(index.hasArgs(i)){
+				script.append(":valor:_files");
+			}
+			script.append('\'');
+		}
+		return script.append('\n').toString();
+	}
+
+	/**
+	 * Escapa una descripción para los corchetes de {@code _arguments} entre comillas simples
+	 */
+	private static String zshDescription(String description) {
+		StringBuilder result = new StringBuilder(description.length());
+		for (int i = 0; i < description.length(); i++) {
+			char c = description.charAt(i);
+			if(c=='\''){
+				result.append("'\\''");
+			}else if(c=='[' || c==']' || c==':' || c=='\\'){
+				result.append('\\').append(c);
+			}else if(c=='\n' || c=='\r' || c=='\t'){
+				result.append(' ');
+			}else{
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Convierte el nombre de un comando en un identificador de función
+	 */
+	private static String identifier(String command) {
+		StringBuilder result = new StringBuilder(command.length());
+		for (int i = 0; i < command.length(); i++) {
+			char c = command.charAt(i);
+			result.append(Character.isLetterOrDigit(c) ? c : '_');
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,213 @@
+package es.home.parameterized.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+
+/**
+ * Protocolo entre {@link ParserDaemon} y {@link ParserClient}. El cliente envía el secreto del
+ * demonio precedido de su longitud, el número de argumentos y cada argumento en UTF-8 precedido de su
+ * longitud. El demonio responde con bloques de la salida estándar y de errores, precedidos de su tipo y
+ * longitud, y termina con el código de salida. Las peticiones con un secreto incorrecto se cierran sin
+ * leer los argumentos
+ * */
+final class DaemonProtocol {
+
+	/** Bloque de la salida estándar */
+	static final byte STDOUT = 1;
+
+	/** Bloque de la salida de errores */
+	static final byte STDERR = 2;
+
+	/** Código de salida */
+	static final byte EXIT = 3;
+
+	/** Tamaño máximo de una petición en bytes */
+	private static final int MAX_REQUEST = 64<<20;
+
+	/** Longitud del secreto en bytes */
+	private static final int TOKEN_LENGTH = 32;
+
+	/**
+	 * Constructor privado
+	 * */
+	private DaemonProtocol() {
+	}
+
+	/**
+	 * Obtiene el fichero del secreto por defecto de un demonio, en el directorio {@code .parameterized}
+	 * del usuario
+	 * @param port Puerto del demonio
+	 * @return Ruta del fichero
+	 */
+	static Path tokenFile(int port) {
+		return Paths.get(System.getProperty("user.home"), ".parameterized", "daemon-"+port+".token");
+	}
+
+	/**
+	 * Genera un secreto aleatorio y lo escribe en un fichero que solo puede leer el usuario. En los
+	 * sistemas de ficheros POSIX el fichero se crea directamente con permisos 0600
+	 * @param file Fichero del secreto. Si existe, se sustituye
+	 * @return Secreto
+	 * @throws IOException Si no se puede escribir el fichero
+	 */
+	static byte[] createToken(Path file) throws IOException {
+		byte[] token = new byte[TOKEN_LENGTH];
+		new SecureRandom().nextBytes(token);
+
+		boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+		Path directory = file.toAbsolutePath().getParent();
+		if(directory!=null && !Files.isDirectory(directory)){
+			if(posix){
+				Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_EXECUTE)));
+			}else{
+				Files.createDirectories(directory);
+			}
+		}
+		Files.deleteIfExists(file);
+		if(posix){
+			Files.createFile(file, PosixFilePermissions.asFileAttribute(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)));
+		}else{
+			Files.createFile(file);
+		}
+		Files.write(file, token);
+		return token;
+	}
+
+	/**
+	 * Lee el secreto de un demonio
+	 * @param file Fichero del secreto
+	 * @return Secreto
+	 * @throws IOException Si no se puede leer el fichero
+	 */
+	static byte[] readToken(Path file) throws IOException {
+		return Files.readAllBytes(file);
+	}
+
+	/**
+	 * Escribe el secreto al inicio de una petición
+	 * @param out Flujo de salida
+	 * @param token Secreto
+	 * @throws IOException
+	 */
+	static void writeToken(DataOutputStream out, byte[] token) throws IOException {
+		out.writeInt(token.length);
+		out.write(token);
+	}
+
+	/**
+	 * Lee el secreto de una petición y lo compara en tiempo constante con el del demonio
+	 * @param in Flujo de entrada
+	 * @param token Secreto del demonio
+	 * @return true si coinciden
+	 * @throws IOException
+	 */
+	static boolean checkToken(DataInputStream in, byte[] token) throws IOException {
+		int length = in.readInt();
+		if(length!=token.length){
+			return false;
+		}
+		byte[] received = new byte[length];
+		in.readFully(received);
+		return MessageDigest.isEqual(received, token);
+	}
+
+	/**
+	 * Escribe los argumentos de una petición
+	 * @param out Flujo de salida
+	 * @param args Argumentos
+	 * @throws IOException
+	 */
+	static void writeArgs(DataOutputStream out, String[] args) throws IOException {
+		out.writeInt(args.length);
+		for (String arg : args) {
+			byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Lee los argumentos de una petición
+	 * @param in Flujo de entrada
+	 * @return Argumentos
+	 * @throws IOException Si la petición no es correcta
+	 */
+	static String[] readArgs(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		if(count<0 || count>MAX_REQUEST/4){
+			throw new IOException("Número de argumentos no válido: "+count);
+		}
+		String[] args = new String[count];
+		long total = 0;
+		for (int i = 0; i < count; i++) {
+			int length = in.readInt();
+			total += length;
+			if(length<0 || total>MAX_REQUEST){
+				throw new IOException("Petición demasiado grande");
+			}
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			args[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return args;
+	}
+
+	/**
+	 * Flujo que escribe los bytes como bloques de un tipo
+	 * */
+	static final class FrameOutputStream extends OutputStream {
+
+		/** Flujo de la conexión, compartido por la salida estándar y la de errores */
+		private final DataOutputStream out;
+
+		/** Tipo de los bloques */
+		private final byte type;
+
+		/**
+		 * Constructor
+		 * @param out Flujo de la conexión
+		 * @param type Tipo de los bloques
+		 * */
+		FrameOutputStream(DataOutputStream out, byte type) {
+			this.out = out;
+			this.type = type;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if(len==0){
+				return;
+			}
+			synchronized (out) {
+				out.writeByte(type);
+				out.writeInt(len);
+				out.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			synchronized (out) {
+				out.flush();
+			}
+		}
+	}
+}
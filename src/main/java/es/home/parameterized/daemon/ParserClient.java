@@ -0,0 +1,105 @@
+package es.home.parameterized.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Cliente de {@link ParserDaemon}. Envía los argumentos al demonio, escribe su salida estándar y de
+ * errores y termina con su código de salida. Solo carga las clases de la librería estándar necesarias
+ * para la conexión, por lo que arranca mucho antes que la aplicación completa. El secreto del demonio
+ * se lee del fichero por defecto del puerto o del indicado en la propiedad {@code parameterized.daemon.token}.
+ * <p>
+ * Uso: {@code java -cp parameterized.jar es.home.parameterized.daemon.ParserClient <puerto> [argumentos...]}
+ * */
+public final class ParserClient {
+
+	/**
+	 * Constructor privado
+	 * */
+	private ParserClient() {
+	}
+
+	/**
+	 * Ejecuta una petición en el demonio y termina con su código de salida
+	 * @param args Puerto del demonio seguido de los argumentos de la petición
+	 */
+	public static void main(String[] args) {
+		if(args.length<1){
+			System.err.println("Uso: "+ParserClient.class.getName()+" <puerto> [argumentos...]");
+			System.exit(ParserDaemon.EXIT_INVALID);
+		}
+
+		try {
+			int port = Integer.parseInt(args[0]);
+			String tokenFile = System.getProperty("parameterized.daemon.token");
+			Path token = tokenFile!=null ? Paths.get(tokenFile) : DaemonProtocol.tokenFile(port);
+			System.exit(send(port, token, Arrays.copyOfRange(args, 1, args.length), System.out, System.err));
+		} catch (IOException | NumberFormatException e) {
+			System.err.println("No se puede conectar con el demonio: "+e.getMessage());
+			System.exit(ParserDaemon.EXIT_ERROR);
+		}
+	}
+
+	/**
+	 * Ejecuta una petición en el demonio con el secreto del fichero por defecto del puerto
+	 * @param port Puerto del demonio
+	 * @param args Argumentos de la petición
+	 * @param out Flujo en el que escribir la salida estándar de la petición
+	 * @param err Flujo en el que escribir la salida de errores de la petición
+	 * @return Código de salida de la petición
+	 * @throws IOException Si no se puede leer el secreto o se pierde la conexión con el demonio
+	 */
+	public static int send(int port, String[] args, PrintStream out, PrintStream err) throws IOException {
+		return send(port, DaemonProtocol.tokenFile(port), args, out, err);
+	}
+
+	/**
+	 * Ejecuta una petición en el demonio
+	 * @param port Puerto del demonio
+	 * @param tokenFile Fichero del secreto del demonio
+	 * @param args Argumentos de la petición
+	 * @param out Flujo en el que escribir la salida estándar de la petición
+	 * @param err Flujo en el que escribir la salida de errores de la petición
+	 * @return Código de salida de la petición
+	 * @throws IOException Si no se puede leer el secreto o se pierde la conexión con el demonio
+	 */
+	public static int send(int port, Path tokenFile, String[] args, PrintStream out, PrintStream err) throws IOException {
+		byte[] token = DaemonProtocol.readToken(tokenFile);
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			DataInputStream response = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DaemonProtocol.writeToken(request, token);
+			DaemonProtocol.writeArgs(request, args);
+
+			byte[] buffer = new byte[8192];
+			while(true){
+				byte type = response.readByte();
+				if(type==DaemonProtocol.EXIT){
+					out.flush();
+					err.flush();
+					return response.readInt();
+				}
+
+				int length = response.readInt();
+				if(length<0){
+					throw new EOFException("Bloque no válido");
+				}
+				if(length>buffer.length){
+					buffer = new byte[length];
+				}
+				response.readFully(buffer, 0, length);
+				(type==DaemonProtocol.STDERR ? err : out).write(buffer, 0, length);
+			}
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package es.home.parameterized.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.daemon.DaemonProtocol.FrameOutputStream;
+import es.home.parameterized.interfaces.ParserFactory;
+import es.home.parameterized.parser.Parser;
+import es.home.parameterized.parser.RequestScope;
+
+/**
+ * Demonio que atiende peticiones de parseo desde una máquina virtual ya iniciada, de forma que los
+ * esquemas compilados y las instancias de las validaciones se reutilizan entre ejecuciones. Escucha en
+ * un puerto de la interfaz local y, por cada petición de {@link ParserClient}, crea el parseador de los
+ * argumentos, ejecuta las validaciones y las funciones de las opciones y devuelve al cliente la salida
+ * estándar, la de errores y el código de salida.
+ * <p>
+ * Solo se atienden las peticiones que envían el secreto del demonio. Se genera al crearlo y se
+ * escribe en un fichero que solo puede leer el usuario que lo ejecuta, por defecto
+ * {@code ~/.parameterized/daemon-<puerto>.token}, y se elimina al cerrarlo. De esta forma otros
+ * usuarios del equipo no pueden ejecutar las funciones de las opciones ni leer ficheros de argumentos
+ * con los permisos del demonio.
+ * <p>
+ * Se atienden como máximo {@link #MAX_REQUESTS} peticiones a la vez y las conexiones que llegan con
+ * todos los hilos ocupados se cierran. Cada conexión dispone de {@link #REQUEST_TIMEOUT} milisegundos
+ * para enviar el secreto y los argumentos, de forma que las conexiones que no envían la petición no
+ * retienen sus hilos.
+ * <p>
+ * Códigos de salida: 0 si la petición termina correctamente o muestra la ayuda, 1 si se produce una
+ * excepción y 2 si alguna validación no se supera. Durante la petición, {@link System#out} y
+ * {@link System#err} se redirigen al cliente solo en el hilo que la atiende
+ * */
+public final class ParserDaemon implements Runnable, Closeable {
+
+	/** Código de salida de las peticiones correctas */
+	public static final int EXIT_OK = 0;
+
+	/** Código de salida de las peticiones con excepciones */
+	public static final int EXIT_ERROR = 1;
+
+	/** Código de salida de las peticiones con validaciones no superadas */
+	public static final int EXIT_INVALID = 2;
+
+	/** Número máximo de peticiones atendidas a la vez */
+	public static final int MAX_REQUESTS = 64;
+
+	/** Tiempo máximo en milisegundos para recibir el secreto y los argumentos de una petición */
+	public static final int REQUEST_TIMEOUT = 10000;
+
+	/** Constructor de los parseadores de cada petición */
+	private final ParserFactory factory;
+
+	/** Socket de escucha */
+	private final ServerSocket server;
+
+	/** Hilos que atienden las peticiones */
+	private final ExecutorService workers;
+
+	/** Fichero del secreto */
+	private final Path tokenFile;
+
+	/** Secreto que deben enviar las peticiones */
+	private final byte[] token;
+
+	/**
+	 * Constructor. Abre el puerto en la interfaz local y escribe el secreto en el fichero por defecto
+	 * @param factory Constructor de los parseadores de cada petición
+	 * @param port Puerto o 0 para utilizar uno libre
+	 * @throws IOException Si no se puede abrir el puerto o escribir el secreto
+	 * */
+	public ParserDaemon(ParserFactory factory, int port) throws IOException {
+		this(factory, port, null);
+	}
+
+	/**
+	 * Constructor. Abre el puerto en la interfaz local y escribe el secreto
+	 * @param factory Constructor de los parseadores de cada petición
+	 * @param port Puerto o 0 para utilizar uno libre
+	 * @param tokenFile Fichero del secreto o null para utilizar {@code ~/.parameterized/daemon-<puerto>.token}
+	 * @throws IOException Si no se puede abrir el puerto o escribir el secreto
+	 * */
+	public ParserDaemon(ParserFactory factory, int port, Path tokenFile) throws IOException {
+		this.factory = factory;
+		this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		try {
+			this.tokenFile = tokenFile!=null ? tokenFile : DaemonProtocol.tokenFile(server.getLocalPort());
+			this.token = DaemonProtocol.createToken(this.tokenFile);
+		} catch (IOException e) {
+			server.close();
+			throw e;
+		}
+		this.workers = new ThreadPoolExecutor(0, MAX_REQUESTS, 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "parameterized-daemon-"+count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		installRouting();
+	}
+
+	/**
+	 * Determina si el hilo actual atiende una petición del demonio
+	 * @return true si el hilo atiende una petición
+	 */
+	public static boolean isServing() {
+		return RequestScope.isActive();
+	}
+
+	/**
+	 * Obtiene el puerto en el que escucha el demonio
+	 * @return Puerto
+	 */
+	public int getPort() {
+		return server.getLocalPort();
+	}
+
+	/**
+	 * Obtiene el fichero del secreto que deben enviar las peticiones
+	 * @return Ruta del fichero
+	 */
+	public Path getTokenFile() {
+		return tokenFile;
+	}
+
+	/**
+	 * Atiende peticiones hasta que se cierra el demonio
+	 */
+	@Override
+	public void run() {
+		while(!server.isClosed()){
+			try {
+				final Socket socket = server.accept();
+				try {
+					workers.execute(new Runnable() {
+						@Override
+						public void run() {
+							serve(socket);
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					// Todos los hilos están ocupados o el demonio se está cerrando
+					socket.close();
+				}
+			} catch (SocketException e) {
+				// El socket se ha cerrado
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Cierra el puerto y elimina el fichero del secreto. Las peticiones en curso terminan normalmente
+	 */
+	@Override
+	public void close() throws IOException {
+		server.close();
+		workers.shutdown();
+		Files.deleteIfExists(tokenFile);
+	}
+
+	/**
+	 * Atiende una petición
+	 * @param socket Conexión con el cliente
+	 */
+	private void serve(Socket socket) {
+		try (Socket connection = socket) {
+			connection.setSoTimeout(REQUEST_TIMEOUT);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+			if(!DaemonProtocol.checkToken(in, token)){
+				return;
+			}
+			String[] args = DaemonProtocol.readArgs(in);
+			connection.setSoTimeout(0);
+
+			int status;
+			RequestScope.enter();
+			RoutingPrintStream.route(new PrintStream(new FrameOutputStream(out, DaemonProtocol.STDOUT), true), new PrintStream(new FrameOutputStream(out, DaemonProtocol.STDERR), true));
+			try {
+				status = execute(args);
+			} catch (Exception e) {
+				e.printStackTrace();
+				status = EXIT_ERROR;
+			} finally {
+				System.out.flush();
+				System.err.flush();
+				RoutingPrintStream.reset();
+				RequestScope.leave();
+			}
+
+			synchronized (out) {
+				out.writeByte(DaemonProtocol.EXIT);
+				out.writeInt(status);
+				out.flush();
+			}
+		} catch (IOException e) {
+			// El cliente ha cerrado la conexión o no ha enviado la petición a tiempo
+		}
+	}
+
+	/**
+	 * Procesa los argumentos de una petición
+	 * @param args Argumentos
+	 * @return Código de salida
+	 * @throws Exception
+	 */
+	private int execute(String[] args) throws Exception {
+		Parser<?> parser = factory.create(args);
+		if(parser.isHelp()){
+			return EXIT_OK;
+		}
+
+		Map<?, List<CustomValidation>> failed = parser.getFailedValidations();
+		if(!failed.isEmpty()){
+			System.err.println("Validaciones no superadas: "+failed);
+			return EXIT_INVALID;
+		}
+
+		parser.getResult();
+		return EXIT_OK;
+	}
+
+	/**
+	 * Sustituye la salida estándar y la de errores del proceso por flujos que redirigen la salida de
+	 * los hilos que atienden peticiones. Solo se sustituyen una vez
+	 */
+	private static synchronized void installRouting() {
+		if(!(System.out instanceof RoutingPrintStream)){
+			System.setOut(new RoutingPrintStream(System.out, 0));
+		}
+		if(!(System.err instanceof RoutingPrintStream)){
+			System.setErr(new RoutingPrintStream(System.err, 1));
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package es.home.parameterized.daemon;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Flujo que se instala como salida estándar y de errores del proceso del demonio. Los hilos que
+ * atienden una petición escriben en los flujos de la petición y el resto en el flujo original. Cada
+ * llamada se delega en el flujo del hilo, de forma que el bloqueo que se mantiene durante la escritura
+ * en la conexión es el del flujo de la petición y no el de la salida del proceso: un cliente lento no
+ * bloquea la salida del resto de hilos. Los hilos creados durante la petición no heredan la redirección
+ * */
+final class RoutingPrintStream extends PrintStream {
+
+	/** Flujos de la petición atendida por cada hilo, indexados por {@link #index} */
+	private static final ThreadLocal<PrintStream[]> ROUTES = new ThreadLocal<>();
+
+	/** Flujo original */
+	private final PrintStream fallback;
+
+	/** Posición del flujo en la petición: 0 para la salida estándar y 1 para la de errores */
+	private final int index;
+
+	/**
+	 * Constructor
+	 * @param fallback Flujo original
+	 * @param index Posición del flujo en la petición
+	 * */
+	RoutingPrintStream(PrintStream fallback, int index) {
+		super(fallback);
+		this.fallback = fallback;
+		this.index = index;
+	}
+
+	/**
+	 * Redirige la salida del hilo actual
+	 * @param out Salida estándar de la petición
+	 * @param err Salida de errores de la petición
+	 */
+	static void route(PrintStream out, PrintStream err) {
+		ROUTES.set(new PrintStream[] { out, err });
+	}
+
+	/**
+	 * Elimina la redirección del hilo actual
+	 */
+	static void reset() {
+		ROUTES.remove();
+	}
+
+	/**
+	 * Obtiene el flujo del hilo actual
+	 */
+	private PrintStream target() {
+		PrintStream[] routes = ROUTES.get();
+		return routes!=null ? routes[index] : fallback;
+	}
+
+	@Override
+	public void flush() {
+		target().flush();
+	}
+
+	@Override
+	public void close() {
+		target().close();
+	}
+
+	@Override
+	public boolean checkError() {
+		return target().checkError();
+	}
+
+	@Override
+	public void write(int b) {
+		target().write(b);
+	}
+
+	@Override
+	public void write(byte[] buf, int off, int len) {
+		target().write(buf, off, len);
+	}
+
+	@Override
+	public void print(boolean b) {
+		target().print(b);
+	}
+
+	@Override
+	public void print(char c) {
+		target().print(c);
+	}
+
+	@Override
+	public void print(int i) {
+		target().print(i);
+	}
+
+	@Override
+	public void print(long l) {
+		target().print(l);
+	}
+
+	@Override
+	public void print(float f) {
+		target().print(f);
+	}
+
+	@Override
+	public void print(double d) {
+		target().print(d);
+	}
+
+	@Override
+	public void print(char[] s) {
+		target().print(s);
+	}
+
+	@Override
+	public void print(String s) {
+		target().print(s);
+	}
+
+	@Override
+	public void print(Object obj) {
+		target().print(obj);
+	}
+
+	@Override
+	public void println() {
+		target().println();
+	}
+
+	@Override
+	public void println(boolean x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(char x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(int x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(long x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(float x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(double x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(char[] x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(String x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(Object x) {
+		target().println(x);
+	}
+
+	@Override
+	public PrintStream printf(String format, Object... args) {
+		target().printf(format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream printf(Locale l, String format, Object... args) {
+		target().printf(l, format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream format(String format, Object... args) {
+		target().format(format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream format(Locale l, String format, Object... args) {
+		target().format(l, format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(CharSequence csq) {
+		target().append(csq);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(CharSequence csq, int start, int end) {
+		target().append(csq, start, end);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(char c) {
+		target().append(c);
+		return this;
+	}
+}
@@ -19,4 +19,12 @@ public class ParameterizedParserException extends Exception {
 	public ParameterizedParserException(String msg,Exception e) {
 		super (msg,e);
 	}
+	
+	/**
+	 * Constructor. Sin traza si writableStackTrace es false, para los errores de entrada del usuario
+	 * que se producen con frecuencia, en los que la traza no aporta información
+	 * */
+	public ParameterizedParserException(String msg,Exception e,boolean writableStackTrace) {
+		super (msg,e,true,writableStackTrace);
+	}
 }
@@ -0,0 +1,44 @@
+package es.home.parameterized.impl;
+
+/**
+ * Ejecución de parámetro que convierte el valor en un boolean. En las opciones sin argumentos el
+ * valor es true si la opción aparece en la línea de comandos. En las opciones con argumentos el valor
+ * es true si el argumento es "true", sin distinguir mayúsculas, igual que {@link Boolean#parseBoolean(String)}
+ * */
+public class BooleanParameterExecutable extends PrimitiveParameterExecutable {
+
+	/** Texto del valor verdadero */
+	private static final String TRUE = "true";
+
+	/**
+	 * Convierte un fragmento de texto en un boolean
+	 * @param source Texto que contiene el valor o null si la opción no tiene argumentos
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Valor convertido
+	 * */
+	public boolean parseBoolean(CharSequence source, int start, int end) {
+		if(source==null){
+			return true;
+		}
+		if(end-start!=TRUE.length()){
+			return false;
+		}
+		for (int i = 0; i < TRUE.length(); i++) {
+			if(Character.toLowerCase(source.charAt(start+i))!=TRUE.charAt(i)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public long toBits(CharSequence source, int start, int end) {
+		return parseBoolean(source, start, end) ? 1L : 0L;
+	}
+
+	@Override
+	public Object fromBits(long bits) {
+		return Boolean.valueOf(bits!=0);
+	}
+}
@@ -0,0 +1,36 @@
+package es.home.parameterized.impl;
+
+import es.home.parameterized.utils.Util;
+
+/**
+ * Ejecución de parámetro que convierte el valor en un double
+ * */
+public class DoubleParameterExecutable extends PrimitiveParameterExecutable {
+
+	/**
+	 * Convierte un fragmento de texto en un double
+	 * @param source Texto que contiene el valor
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Valor convertido
+	 * @throws NumberFormatException Si el fragmento no es un double
+	 * */
+	public double parseDouble(CharSequence source, int start, int end) {
+		return Util.parseDouble(source, start, end);
+	}
+
+	@Override
+	public boolean isValid(CharSequence source, int start, int end) {
+		return Util.isDouble(source, start, end);
+	}
+
+	@Override
+	public long toBits(CharSequence source, int start, int end) {
+		return Double.doubleToRawLongBits(parseDouble(source, start, end));
+	}
+
+	@Override
+	public Object fromBits(long bits) {
+		return Double.valueOf(Double.longBitsToDouble(bits));
+	}
+}
@@ -0,0 +1,61 @@
+package es.home.parameterized.impl;
+
+import java.util.Map;
+
+import es.home.parameterized.interfaces.ParameterSource;
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Valores de las opciones en variables de entorno. El nombre de la variable es el prefijo seguido del
+ * nombre de la opción en mayúsculas, sustituyendo por guiones bajos los caracteres que no son letras
+ * ni dígitos: con el prefijo {@code APP_}, la opción {@code param-a} se lee de {@code APP_PARAM_A}
+ * */
+public class EnvironmentParameterSource implements ParameterSource {
+
+	/** Variables de entorno */
+	private final Map<String, String> environment;
+
+	/** Prefijo de las variables */
+	private final String prefix;
+
+	/**
+	 * Constructor sobre las variables de entorno del proceso
+	 * @param prefix Prefijo de las variables
+	 * */
+	public EnvironmentParameterSource(String prefix) {
+		this(System.getenv(), prefix);
+	}
+
+	/**
+	 * Constructor
+	 * @param environment Variables de entorno. No se copian
+	 * @param prefix Prefijo de las variables
+	 * */
+	public EnvironmentParameterSource(Map<String, String> environment, String prefix) {
+		this.environment = environment;
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Obtiene la variable de entorno de la opción
+	 * @param option Opción
+	 * @return Valor de la opción o null si no tiene valor
+	 * */
+	public String getValue(Parameterized option) {
+		return environment.get(variableName(option.getName()));
+	}
+
+	/**
+	 * Obtiene el nombre de la variable de entorno de una opción
+	 * @param name Nombre de la opción
+	 * @return Nombre de la variable
+	 * */
+	public String variableName(String name) {
+		StringBuilder variable = new StringBuilder(prefix.length()+name.length()).append(prefix);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			variable.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+		}
+		return variable.toString();
+	}
+}
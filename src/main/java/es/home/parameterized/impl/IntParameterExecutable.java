@@ -0,0 +1,44 @@
+package es.home.parameterized.impl;
+
+import es.home.parameterized.utils.Util;
+
+/**
+ * Ejecución de parámetro que convierte el valor en un int
+ * */
+public class IntParameterExecutable extends PrimitiveParameterExecutable {
+
+	/**
+	 * Convierte un fragmento de texto en un int
+	 * @param source Texto que contiene el valor
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Valor convertido
+	 * @throws NumberFormatException Si el fragmento no es un int
+	 * */
+	public int parseInt(CharSequence source, int start, int end) {
+		long value = Util.parseLong(source, start, end);
+		if(value<Integer.MIN_VALUE || value>Integer.MAX_VALUE){
+			throw new NumberFormatException("Valor fuera del rango de int: "+value);
+		}
+		return (int) value;
+	}
+
+	@Override
+	public boolean isValid(CharSequence source, int start, int end) {
+		if(!Util.isLong(source, start, end)){
+			return false;
+		}
+		long value = Util.parseLong(source, start, end);
+		return value>=Integer.MIN_VALUE && value<=Integer.MAX_VALUE;
+	}
+
+	@Override
+	public long toBits(CharSequence source, int start, int end) {
+		return parseInt(source, start, end);
+	}
+
+	@Override
+	public Object fromBits(long bits) {
+		return Integer.valueOf((int) bits);
+	}
+}
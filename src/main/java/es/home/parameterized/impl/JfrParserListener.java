@@ -0,0 +1,118 @@
+package es.home.parameterized.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.interfaces.ParserListener;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.parser.ParsePhase;
+
+/**
+ * Receptor de métricas que emite eventos de JDK Flight Recorder. Requiere una máquina virtual con JFR
+ * (Java 11 o superior); en versiones anteriores la clase no se puede cargar. Los eventos solo se crean
+ * si están activados en la grabación
+ * */
+public class JfrParserListener implements ParserListener {
+
+	@Override
+	public void phaseCompleted(Class<?> enumClass, ParsePhase phase, long nanos) {
+		PhaseEvent event = new PhaseEvent();
+		if(event.isEnabled()){
+			event.enumClass = enumClass.getName();
+			event.phase = phase.name();
+			event.nanos = nanos;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void validationCompleted(Parameterized option, CustomValidation validation, boolean valid, long nanos) {
+		ValidationEvent event = new ValidationEvent();
+		if(event.isEnabled()){
+			event.option = ((Enum<?>) option).name();
+			event.validation = validation.validationClass().getName();
+			event.valid = valid;
+			event.nanos = nanos;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void optionExecuted(Parameterized option, long nanos, long allocatedBytes) {
+		ExecutionEvent event = new ExecutionEvent();
+		if(event.isEnabled()){
+			event.option = ((Enum<?>) option).name();
+			event.nanos = nanos;
+			event.allocatedBytes = allocatedBytes;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Final de una fase del parseo
+	 * */
+	@Name("es.home.parameterized.Phase")
+	@Label("Parse Phase")
+	@Category("Parameterized")
+	static final class PhaseEvent extends Event {
+
+		@Label("Enum Class")
+		String enumClass;
+
+		@Label("Phase")
+		String phase;
+
+		@Label("Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+	}
+
+	/**
+	 * Ejecución de una validación
+	 * */
+	@Name("es.home.parameterized.Validation")
+	@Label("Parameter Validation")
+	@Category("Parameterized")
+	static final class ValidationEvent extends Event {
+
+		@Label("Option")
+		String option;
+
+		@Label("Validation Class")
+		String validation;
+
+		@Label("Valid")
+		boolean valid;
+
+		@Label("Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+	}
+
+	/**
+	 * Ejecución de la función de una opción
+	 * */
+	@Name("es.home.parameterized.Execution")
+	@Label("Option Execution")
+	@Category("Parameterized")
+	static final class ExecutionEvent extends Event {
+
+		@Label("Option")
+		String option;
+
+		@Label("Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+
+		@Label("Allocated")
+		@Description("Bytes reservados por el hilo o -1 si no se pueden medir")
+		@DataAmount(DataAmount.BYTES)
+		long allocatedBytes;
+	}
+}
@@ -0,0 +1,38 @@
+package es.home.parameterized.impl;
+
+import es.home.parameterized.interfaces.ParameterSource;
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Valores de las opciones en varios orígenes con precedencia: el valor de una opción es el del primer
+ * origen que lo contiene. Por ejemplo, los argumentos de línea de comandos, las variables de entorno y
+ * un fichero de propiedades, en ese orden
+ * */
+public class LayeredParameterSource implements ParameterSource {
+
+	/** Orígenes de mayor a menor precedencia */
+	private final ParameterSource[] sources;
+
+	/**
+	 * Constructor
+	 * @param sources Orígenes de mayor a menor precedencia. No se copian
+	 * */
+	public LayeredParameterSource(ParameterSource... sources) {
+		this.sources = sources;
+	}
+
+	/**
+	 * Obtiene el valor de la opción en el primer origen que lo contiene
+	 * @param option Opción
+	 * @return Valor de la opción o null si ningún origen lo contiene
+	 * */
+	public String getValue(Parameterized option) {
+		for (ParameterSource source : sources) {
+			String value = source.getValue(option);
+			if(value!=null){
+				return value;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,36 @@
+package es.home.parameterized.impl;
+
+import es.home.parameterized.utils.Util;
+
+/**
+ * Ejecución de parámetro que convierte el valor en un long
+ * */
+public class LongParameterExecutable extends PrimitiveParameterExecutable {
+
+	/**
+	 * Convierte un fragmento de texto en un long
+	 * @param source Texto que contiene el valor
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Valor convertido
+	 * @throws NumberFormatException Si el fragmento no es un long
+	 * */
+	public long parseLong(CharSequence source, int start, int end) {
+		return Util.parseLong(source, start, end);
+	}
+
+	@Override
+	public boolean isValid(CharSequence source, int start, int end) {
+		return Util.isLong(source, start, end);
+	}
+
+	@Override
+	public long toBits(CharSequence source, int start, int end) {
+		return parseLong(source, start, end);
+	}
+
+	@Override
+	public Object fromBits(long bits) {
+		return Long.valueOf(bits);
+	}
+}
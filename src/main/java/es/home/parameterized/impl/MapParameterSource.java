@@ -0,0 +1,32 @@
+package es.home.parameterized.impl;
+
+import java.util.Map;
+
+import es.home.parameterized.interfaces.ParameterSource;
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Valores de las opciones en un mapa indexado por el nombre de la opción
+ * */
+public class MapParameterSource implements ParameterSource {
+
+	/** Valores por nombre de opción */
+	private final Map<String, String> values;
+
+	/**
+	 * Constructor
+	 * @param values Valores por nombre de opción. No se copian
+	 * */
+	public MapParameterSource(Map<String, String> values) {
+		this.values = values;
+	}
+
+	/**
+	 * Obtiene el valor del nombre de la opción
+	 * @param option Opción
+	 * @return Valor de la opción o null si no tiene valor
+	 * */
+	public String getValue(Parameterized option) {
+		return values.get(option.getName());
+	}
+}
@@ -0,0 +1,51 @@
+package es.home.parameterized.impl;
+
+import es.home.parameterized.annotations.ParameterMaxLength;
+import es.home.parameterized.interfaces.CharSequenceParameterValidation;
+
+/**
+ * El valor no puede superar un número máximo de caracteres
+ */
+public class ParameterMaxLengthValidation implements CharSequenceParameterValidation {
+
+	/** Número máximo de caracteres */
+	private final int maxLength;
+
+	/**
+	 * Constructor
+	 * @param annotation Anotación con la longitud máxima
+	 */
+	public ParameterMaxLengthValidation(ParameterMaxLength annotation) {
+		this(annotation.value());
+	}
+
+	/**
+	 * Constructor
+	 * @param maxLength Número máximo de caracteres
+	 * @throws IllegalArgumentException Si la longitud es negativa
+	 */
+	public ParameterMaxLengthValidation(int maxLength) {
+		if(maxLength<0){
+			throw new IllegalArgumentException("Longitud máxima negativa: "+maxLength);
+		}
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true si el valor es nulo o no supera la longitud máxima
+	 */
+	@Override
+	public boolean isParamValid(String paramValue) {
+		return paramValue==null || paramValue.length()<=maxLength;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true si el fragmento es nulo o no supera la longitud máxima
+	 */
+	@Override
+	public boolean isParamValid(CharSequence source, int start, int end) {
+		return source==null || end-start<=maxLength;
+	}
+}
@@ -1,11 +1,11 @@
 package es.home.parameterized.impl;
 
-import es.home.parameterized.interfaces.ParameterValidation;
+import es.home.parameterized.interfaces.CharSequenceParameterValidation;
 
 /**
  * Se debe añadir valor para el atributo, y además, ese valor no puede ser vacío
  */
-public class ParameterNotEmptyValidation  implements ParameterValidation{
+public class ParameterNotEmptyValidation  implements CharSequenceParameterValidation{
 
 	/**
 	 * {@inheritDoc}
@@ -15,4 +15,13 @@ public class ParameterNotEmptyValidation  implements ParameterValidation{
 	public boolean isParamValid(String paramValue) {
 		return paramValue!=null && !paramValue.isEmpty();
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true si el fragmento es distinto de nulo y no es vacío
+	 */
+	@Override
+	public boolean isParamValid(CharSequence source, int start, int end) {
+		return source!=null && end>start;
+	}
 }
@@ -1,11 +1,11 @@
 package es.home.parameterized.impl;
 
-import es.home.parameterized.interfaces.ParameterValidation;
+import es.home.parameterized.interfaces.CharSequenceParameterValidation;
 
 /**
  * Añade al atributo obligatoriedad, de tal forma, que se debe introducir valor para ese atributo
  */
-public final class ParameterNotNullValidation implements ParameterValidation{
+public final class ParameterNotNullValidation implements CharSequenceParameterValidation{
 
 	/**
 	 * {@inheritDoc}
@@ -15,4 +15,13 @@ public final class ParameterNotNullValidation implements ParameterValidation{
 	public boolean isParamValid(String paramValue) {
 		return paramValue!=null;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true, si el atributo no es nulo
+	 */
+	@Override
+	public boolean isParamValid(CharSequence source, int start, int end) {
+		return source!=null;
+	}
 }
@@ -0,0 +1,53 @@
+package es.home.parameterized.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import es.home.parameterized.annotations.ParameterOneOf;
+import es.home.parameterized.interfaces.ParameterValidation;
+
+/**
+ * El valor debe pertenecer a un conjunto de valores permitidos. Los valores se guardan en un conjunto
+ * hash o, si se ignoran las mayúsculas, en un árbol ordenado sin distinguirlas, de forma que la
+ * búsqueda no crea objetos
+ */
+public class ParameterOneOfValidation implements ParameterValidation {
+
+	/** Valores permitidos */
+	private final Set<String> allowed;
+
+	/**
+	 * Constructor
+	 * @param annotation Anotación con los valores permitidos
+	 */
+	public ParameterOneOfValidation(ParameterOneOf annotation) {
+		this(annotation.value(), annotation.ignoreCase());
+	}
+
+	/**
+	 * Constructor
+	 * @param values Valores permitidos
+	 * @param ignoreCase Determina si se ignoran las mayúsculas
+	 * @throws IllegalArgumentException Si no hay valores permitidos
+	 */
+	public ParameterOneOfValidation(String[] values, boolean ignoreCase) {
+		if(values.length==0){
+			throw new IllegalArgumentException("No hay valores permitidos");
+		}
+		Set<String> set = ignoreCase ? new TreeSet<String>(String.CASE_INSENSITIVE_ORDER) : new HashSet<String>(values.length*2);
+		set.addAll(Arrays.asList(values));
+		this.allowed = Collections.unmodifiableSet(set);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true si el valor es nulo o es uno de los valores permitidos
+	 */
+	@Override
+	public boolean isParamValid(String paramValue) {
+		return paramValue==null || allowed.contains(paramValue);
+	}
+}
@@ -0,0 +1,20 @@
+package es.home.parameterized.impl;
+
+import java.io.File;
+
+import es.home.parameterized.interfaces.ParameterValidation;
+
+/**
+ * El valor debe ser una ruta existente en el sistema de ficheros
+ */
+public class ParameterPathExistsValidation implements ParameterValidation {
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true si el valor es nulo o la ruta existe
+	 */
+	@Override
+	public boolean isParamValid(String paramValue) {
+		return paramValue==null || new File(paramValue).exists();
+	}
+}
@@ -0,0 +1,78 @@
+package es.home.parameterized.impl;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import es.home.parameterized.annotations.ParameterPattern;
+import es.home.parameterized.interfaces.CharSequenceParameterValidation;
+
+/**
+ * El valor debe cumplir una expresión regular. La expresión se compila una única vez y cada hilo
+ * reutiliza su propio {@link Matcher}, por lo que la validación no crea objetos. Tras cada validación
+ * el comparador se reinicia con un texto vacío para no retener el valor validado
+ */
+public class ParameterPatternValidation implements CharSequenceParameterValidation {
+
+	/** Expresión compilada */
+	private final Pattern pattern;
+
+	/** Comparador de cada hilo */
+	private final ThreadLocal<Matcher> matchers = new ThreadLocal<Matcher>() {
+		@Override
+		protected Matcher initialValue() {
+			return pattern.matcher("");
+		}
+	};
+
+	/**
+	 * Constructor
+	 * @param annotation Anotación con la expresión
+	 */
+	public ParameterPatternValidation(ParameterPattern annotation) {
+		this(annotation.value(), annotation.flags());
+	}
+
+	/**
+	 * Constructor
+	 * @param regex Expresión regular
+	 * @param flags Modificadores de {@link Pattern}
+	 */
+	public ParameterPatternValidation(String regex, int flags) {
+		this.pattern = Pattern.compile(regex, flags);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true si el valor es nulo o cumple la expresión completa
+	 */
+	@Override
+	public boolean isParamValid(String paramValue) {
+		if(paramValue==null){
+			return true;
+		}
+		Matcher matcher = matchers.get();
+		try {
+			return matcher.reset(paramValue).matches();
+		} finally {
+			matcher.reset("");
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true si el fragmento es nulo o cumple la expresión completa, limitando el comparador
+	 * al fragmento
+	 */
+	@Override
+	public boolean isParamValid(CharSequence source, int start, int end) {
+		if(source==null){
+			return true;
+		}
+		Matcher matcher = matchers.get();
+		try {
+			return matcher.reset(source).region(start, end).matches();
+		} finally {
+			matcher.reset("");
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package es.home.parameterized.impl;
+
+import es.home.parameterized.annotations.ParameterRange;
+import es.home.parameterized.interfaces.CharSequenceParameterValidation;
+
+/**
+ * El valor debe ser un número entero dentro de un rango, con los límites incluidos. El número se
+ * interpreta sin crear objetos ni excepciones
+ */
+public class ParameterRangeValidation implements CharSequenceParameterValidation {
+
+	/** Valor mínimo */
+	private final long min;
+
+	/** Valor máximo */
+	private final long max;
+
+	/**
+	 * Constructor
+	 * @param annotation Anotación con los límites
+	 */
+	public ParameterRangeValidation(ParameterRange annotation) {
+		this(annotation.min(), annotation.max());
+	}
+
+	/**
+	 * Constructor
+	 * @param min Valor mínimo
+	 * @param max Valor máximo
+	 * @throws IllegalArgumentException Si el mínimo es mayor que el máximo
+	 */
+	public ParameterRangeValidation(long min, long max) {
+		if(min>max){
+			throw new IllegalArgumentException("El mínimo "+min+" es mayor que el máximo "+max);
+		}
+		this.min = min;
+		this.max = max;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true si el valor es nulo o es un número entero en base diez dentro del rango
+	 */
+	@Override
+	public boolean isParamValid(String paramValue) {
+		return isParamValid(paramValue, 0, paramValue==null ? 0 : paramValue.length());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve true si el fragmento es nulo o es un número entero en base diez dentro del rango
+	 */
+	@Override
+	public boolean isParamValid(CharSequence source, int start, int end) {
+		if(source==null){
+			return true;
+		}
+		if(end==start){
+			return false;
+		}
+
+		// Se acumula en negativo, como Long.parseLong, para admitir Long.MIN_VALUE
+		int i = start;
+		boolean negative = false;
+		char first = source.charAt(start);
+		if(first=='-' || first=='+'){
+			if(end-start==1){
+				return false;
+			}
+			negative = first=='-';
+			i++;
+		}
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multiplyMin = limit/10;
+		long result = 0;
+		for (; i < end; i++) {
+			int digit = Character.digit(source.charAt(i), 10);
+			if(digit<0 || result<multiplyMin){
+				return false;
+			}
+			result *= 10;
+			if(result<limit+digit){
+				return false;
+			}
+			result -= digit;
+		}
+		long value = negative ? result : -result;
+		return value>=min && value<=max;
+	}
+}
@@ -0,0 +1,61 @@
+package es.home.parameterized.impl;
+
+import es.home.parameterized.interfaces.CharSequenceParameterExecutable;
+
+/**
+ * Ejecución de parámetro que convierte el valor en un tipo primitivo. El parseador convierte el valor
+ * directamente desde los caracteres del argumento y lo guarda en su representación de 64 bits, sin
+ * crear subcadenas ni objetos intermedios
+ * */
+public abstract class PrimitiveParameterExecutable implements CharSequenceParameterExecutable {
+
+	/**
+	 * Convierte un fragmento de texto en la representación de 64 bits del valor primitivo
+	 * @param source Texto que contiene el valor o null si la opción no tiene valor
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Representación de 64 bits del valor
+	 * */
+	public abstract long toBits(CharSequence source, int start, int end);
+
+	/**
+	 * Determina, sin lanzar excepciones, si un fragmento de texto se puede convertir con
+	 * {@link #toBits(CharSequence, int, int)}. El parseador lo consulta para informar de los valores
+	 * no válidos en {@link es.home.parameterized.parser.ParseOutcome} sin crear excepciones. Por
+	 * defecto todos los valores son válidos
+	 * @param source Texto que contiene el valor o null si la opción no tiene valor
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return true si el valor se puede convertir
+	 * */
+	public boolean isValid(CharSequence source, int start, int end) {
+		return true;
+	}
+
+	/**
+	 * Obtiene el valor como objeto a partir de su representación de 64 bits
+	 * @param bits Representación de 64 bits del valor
+	 * @return Valor como objeto
+	 * */
+	public abstract Object fromBits(long bits);
+
+	/**
+	 * Devuelve el valor convertido como objeto
+	 * @param value Valor
+	 * @return Devuelve el valor convertido como objeto
+	 * */
+	public Object executeFunction(String value) {
+		return fromBits(toBits(value, 0, value==null ? 0 : value.length()));
+	}
+
+	/**
+	 * Devuelve el valor del fragmento convertido como objeto
+	 * @param source Texto que contiene el valor o null si la opción no tiene valor
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Devuelve el valor convertido como objeto
+	 * */
+	public Object executeFunction(CharSequence source, int start, int end) {
+		return fromBits(toBits(source, start, end));
+	}
+}
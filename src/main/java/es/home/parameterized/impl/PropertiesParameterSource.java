@@ -0,0 +1,45 @@
+package es.home.parameterized.impl;
+
+import java.util.Properties;
+
+import es.home.parameterized.interfaces.ParameterSource;
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Valores de las opciones en unas propiedades cuya clave es el nombre de la opción, con un prefijo opcional
+ * */
+public class PropertiesParameterSource implements ParameterSource {
+
+	/** Propiedades */
+	private final Properties properties;
+
+	/** Prefijo de las claves */
+	private final String prefix;
+
+	/**
+	 * Constructor
+	 * @param properties Propiedades. No se copian
+	 * */
+	public PropertiesParameterSource(Properties properties) {
+		this(properties, "");
+	}
+
+	/**
+	 * Constructor
+	 * @param properties Propiedades. No se copian
+	 * @param prefix Prefijo de las claves, por ejemplo {@code "app."}
+	 * */
+	public PropertiesParameterSource(Properties properties, String prefix) {
+		this.properties = properties;
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Obtiene la propiedad del nombre de la opción
+	 * @param option Opción
+	 * @return Valor de la opción o null si no tiene valor
+	 * */
+	public String getValue(Parameterized option) {
+		return properties.getProperty(prefix.isEmpty() ? option.getName() : prefix+option.getName());
+	}
+}
@@ -0,0 +1,18 @@
+package es.home.parameterized.interfaces;
+
+/**
+ * Ejecución de parámetro que convierte el valor directamente desde un fragmento del texto que lo
+ * contiene, sin crear la cadena del valor salvo que la propia función la necesite. El parseador
+ * utiliza este método en lugar de {@link #executeFunction(String)} siempre que puede
+ * */
+public interface CharSequenceParameterExecutable extends ParameterExecutable {
+
+	/**
+	 * Función a ejecutar para el valor del fragmento [start, end)
+	 * @param source Texto que contiene el valor o null si la opción no tiene valor
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Valor devuelto al usuario
+	 * */
+	public Object executeFunction(CharSequence source, int start, int end);
+}
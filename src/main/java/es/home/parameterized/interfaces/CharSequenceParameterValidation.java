@@ -0,0 +1,18 @@
+package es.home.parameterized.interfaces;
+
+/**
+ * Validación que comprueba el valor directamente sobre un fragmento del texto que lo contiene, como
+ * el argumento {@code --clave=valor} o un búfer, sin crear la cadena del valor. El parseador utiliza
+ * este método en lugar de {@link #isParamValid(String)} siempre que puede
+ */
+public interface CharSequenceParameterValidation extends ParameterValidation {
+
+	/**
+	 * Determina si el valor del fragmento [start, end) es válido
+	 * @param source Texto que contiene el valor o null si la opción no tiene valor
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return true si el valor es válido
+	 * */
+	public boolean isParamValid(CharSequence source, int start, int end);
+}
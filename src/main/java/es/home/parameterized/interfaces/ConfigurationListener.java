@@ -0,0 +1,24 @@
+package es.home.parameterized.interfaces;
+
+import es.home.parameterized.parser.ConfigurationChange;
+
+/**
+ * Receptor de los cambios de una {@link es.home.parameterized.parser.LiveConfiguration}. Cuando se
+ * vigila el fichero de propiedades, se notifica desde el hilo que lo vigila
+ * */
+public interface ConfigurationListener<T extends Enum<? extends Parameterized>> {
+
+	/**
+	 * Notifica una recarga en la que ha cambiado el valor de alguna opción. Si alguna de las opciones
+	 * cambiadas no supera sus validaciones, el cambio no se aplica
+	 * @param change Opciones cambiadas, sus valores y las validaciones no superadas
+	 * */
+	public void configurationChanged(ConfigurationChange<T> change);
+
+	/**
+	 * Notifica una recarga que no se ha podido completar, como un fichero que no se puede leer o una
+	 * función que lanza una excepción. La configuración no cambia
+	 * @param e Excepción producida
+	 * */
+	public void reloadFailed(Exception e);
+}
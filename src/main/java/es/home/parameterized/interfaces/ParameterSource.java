@@ -0,0 +1,16 @@
+package es.home.parameterized.interfaces;
+
+/**
+ * Origen de los valores de las opciones de un registro, como los argumentos de línea de comandos,
+ * un mapa, unas propiedades o las variables de entorno. Permite aplicar las validaciones de las
+ * opciones sin construir un parseador
+ * */
+public interface ParameterSource {
+	
+	/**
+	 * Obtiene el valor de una opción
+	 * @param option Opción
+	 * @return Valor de la opción o null si no tiene valor
+	 * */
+	public String getValue(Parameterized option);
+}
@@ -0,0 +1,18 @@
+package es.home.parameterized.interfaces;
+
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.parser.Parser;
+
+/**
+ * Construcción de parseadores a partir de los argumentos de cada petición del demonio
+ * */
+public interface ParserFactory {
+	
+	/**
+	 * Crea el parseador de una petición
+	 * @param args Argumentos de la petición
+	 * @return Parseador de los argumentos
+	 * @throws ParameterizedParserException
+	 * */
+	public Parser<?> create(String[] args) throws ParameterizedParserException;
+}
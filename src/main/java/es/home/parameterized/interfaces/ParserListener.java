@@ -0,0 +1,38 @@
+package es.home.parameterized.interfaces;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.parser.ParsePhase;
+
+/**
+ * Receptor de las métricas del parseo. Se notifica desde el hilo que realiza cada operación, por lo que
+ * las implementaciones deben poder llamarse desde varios hilos a la vez. Si no se configura ningún
+ * receptor, el parseador no mide tiempos
+ * */
+public interface ParserListener {
+
+	/**
+	 * Notifica el final de una fase del parseo
+	 * @param enumClass Clase del enumerado parseado
+	 * @param phase Fase
+	 * @param nanos Duración en nanosegundos
+	 * */
+	public void phaseCompleted(Class<?> enumClass, ParsePhase phase, long nanos);
+
+	/**
+	 * Notifica la ejecución de una validación
+	 * @param option Opción validada
+	 * @param validation Anotación de la validación
+	 * @param valid Resultado de la validación
+	 * @param nanos Duración en nanosegundos
+	 * */
+	public void validationCompleted(Parameterized option, CustomValidation validation, boolean valid, long nanos);
+
+	/**
+	 * Notifica la ejecución de la función de una opción, incluidas las que lanzan excepciones
+	 * @param option Opción ejecutada
+	 * @param nanos Duración en nanosegundos
+	 * @param allocatedBytes Bytes reservados por el hilo durante la ejecución o -1 si la máquina
+	 * virtual no permite medirlos
+	 * */
+	public void optionExecuted(Parameterized option, long nanos, long allocatedBytes);
+}
@@ -0,0 +1,49 @@
+package es.home.parameterized.parser;
+
+import java.util.Arrays;
+
+import org.apache.commons.cli.ParseException;
+
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.interfaces.ParameterSource;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Valores de las opciones en argumentos de línea de comandos. Los argumentos se procesan con el
+ * tokenizador de {@link ParseMode#NATIVE} al construir el origen, sin ejecutar las funciones de las
+ * opciones, y se obtiene el primer valor de cada opción
+ * */
+public final class ArgumentParameterSource implements ParameterSource {
+
+	/** Esquema de las opciones */
+	private final OptionSchema<?> schema;
+
+	/** Argumentos procesados */
+	private final ParsedArguments parsed;
+
+	/**
+	 * Constructor
+	 * @param schema Esquema de las opciones
+	 * @param args Argumentos de línea de comandos
+	 * @throws ParameterizedParserException Si los argumentos no son correctos
+	 * */
+	public ArgumentParameterSource(OptionSchema<?> schema, String[] args) throws ParameterizedParserException {
+		ArgumentTokenizer tokenizer = new ArgumentTokenizer(schema).tokenize(Arrays.asList(args).iterator());
+		ParseException error = tokenizer.getError();
+		if(error!=null){
+			StringBuilder string = new StringBuilder("Excepción producida al procesar los datos de la línea de comandos: ");
+			throw new ParameterizedParserException(string.toString(), error);
+		}
+		this.schema = schema;
+		this.parsed = tokenizer.getArguments();
+	}
+
+	@Override
+	public String getValue(Parameterized option) {
+		if(!(option instanceof Enum) || ((Enum<?>) option).getDeclaringClass()!=schema.getEnumClass()){
+			return null;
+		}
+		return parsed.getValue(((Enum<?>) option).ordinal());
+	}
+}
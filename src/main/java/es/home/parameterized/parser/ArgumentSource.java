@@ -0,0 +1,121 @@
+package es.home.parameterized.parser;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Argumentos de línea de comandos con los ficheros de argumentos expandidos. Un argumento
+ * {@code @fichero} se sustituye por los argumentos que contiene el fichero y {@code @@texto} por el
+ * argumento literal {@code @texto}. Los ficheros se leen cada vez que se recorren los argumentos,
+ * según se avanza, sin guardar su contenido. Los errores de lectura se lanzan como
+ * {@link IllegalStateException}
+ * */
+final class ArgumentSource implements Iterable<String> {
+
+	/** Argumentos de línea de comandos */
+	private final String[] args;
+
+	/** Determina si se expanden los ficheros de argumentos */
+	private final boolean expand;
+
+	/**
+	 * Constructor
+	 * @param args Argumentos de línea de comandos
+	 * @param expand Determina si se expanden los ficheros de argumentos
+	 * */
+	ArgumentSource(String[] args, boolean expand) {
+		this.args = args;
+		this.expand = expand;
+	}
+
+	/**
+	 * Determina si los argumentos contienen algún fichero de argumentos
+	 * @return true si alguno de los argumentos debe expandirse
+	 */
+	boolean hasResponseFiles() {
+		if(expand){
+			for (String arg : args) {
+				if(arg.startsWith("@")){
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Obtiene todos los argumentos expandidos en un arreglo
+	 * @return Argumentos expandidos
+	 */
+	String[] toArray() {
+		if(!hasResponseFiles()){
+			return args;
+		}
+		List<String> result = new ArrayList<>(args.length);
+		for (String arg : this) {
+			result.add(arg);
+		}
+		return result.toArray(new String[result.size()]);
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		return new Iterator<String>() {
+
+			/** Posición del siguiente argumento */
+			private int index;
+
+			/** Fichero de argumentos en lectura */
+			private Iterator<String> file = Collections.<String>emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while(!file.hasNext()){
+					if(index>=args.length){
+						return false;
+					}
+					if(!expand || args[index].length()<2 || args[index].charAt(0)!='@' || args[index].charAt(1)=='@'){
+						return true;
+					}
+					file = open(args[index++].substring(1));
+				}
+				return true;
+			}
+
+			@Override
+			public String next() {
+				if(!hasNext()){
+					throw new NoSuchElementException();
+				}
+				if(file.hasNext()){
+					return file.next();
+				}
+				String arg = args[index++];
+				return expand && arg.startsWith("@@") ? arg.substring(1) : arg;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Abre un fichero de argumentos
+	 * @param path Ruta del fichero
+	 * @return Argumentos del fichero
+	 */
+	private static Iterator<String> open(String path) {
+		try {
+			return new ResponseFileReader(Paths.get(path));
+		} catch (IOException e) {
+			throw new IllegalStateException("No se puede leer el fichero de argumentos: "+path, e);
+		}
+	}
+}
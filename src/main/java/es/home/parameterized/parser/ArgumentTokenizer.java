@@ -0,0 +1,444 @@
+package es.home.parameterized.parser;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.apache.commons.cli.AmbiguousOptionException;
+import org.apache.commons.cli.MissingArgumentException;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.UnrecognizedOptionException;
+
+import es.home.parameterized.schema.KeyIndex;
+import es.home.parameterized.schema.KeyTrie;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Tokenizador de argumentos de una única pasada para el modo {@link ParseMode#NATIVE}. En el mismo
+ * recorrido detecta la ayuda, resuelve las claves sobre los índices del esquema y guarda la posición
+ * de los valores sin crear subcadenas, salvo para los valores entre comillas. Los errores no interrumpen el recorrido, de forma que la ayuda
+ * se detecta aunque la línea de comandos contenga opciones desconocidas; se guarda el primero de
+ * ellos para lanzarlo cuando se soliciten los valores. Los argumentos se reciben de uno en uno, por
+ * lo que pueden leerse de un fichero de argumentos según se procesan
+ * */
+class ArgumentTokenizer {
+
+	/** Esquema de las opciones */
+	private final OptionSchema<?> schema;
+
+	/** Ordinales de las opciones en el orden en que aparecen */
+	private int[] occurrences = new int[16];
+
+	/** Número de opciones procesadas */
+	private int occurrenceCount;
+
+	/** Argumento que contiene el valor de cada ordinal o null */
+	private final String[] valueSources;
+
+	/** Posición de inicio del valor dentro de su argumento */
+	private final int[] valueStarts;
+
+	/** Determina si los argumentos contienen una opción de ayuda */
+	private boolean help;
+
+	/** Código del primer error encontrado o null si no hay errores */
+	private ParseError errorCode;
+
+	/** Posición del argumento del primer error */
+	private int errorPosition = -1;
+
+	/** Argumento del primer error */
+	private String errorArgument;
+
+	/** Ordinal de la opción del primer error o -1 */
+	private int errorOrdinal = -1;
+
+	/** Excepción del primer error. Se crea la primera vez que se solicita */
+	private ParseException error;
+
+	/** Posición del argumento actual */
+	private int position = -1;
+
+	/** Posición de la opción que espera su valor */
+	private int expectingPosition;
+
+	/** Argumento de la opción que espera su valor */
+	private String expectingArg;
+
+	/** Ordinal de la opción que espera su valor en el siguiente argumento o -1 */
+	private int expecting = -1;
+
+	/** Determina si aún se procesan opciones, es decir, si no se ha encontrado el terminador {@code --} */
+	private boolean parseOptions = true;
+
+	/**
+	 * Constructor
+	 * @param schema Esquema de las opciones
+	 * */
+	ArgumentTokenizer(OptionSchema<?> schema) {
+		this.schema = schema;
+		this.valueSources = new String[schema.size()];
+		this.valueStarts = new int[schema.size()];
+	}
+
+	/**
+	 * Recorre los argumentos. Solo se recorren una vez, por lo que pueden leerse según se procesan
+	 * @param args Argumentos de línea de comandos
+	 * @return El propio tokenizador
+	 */
+	ArgumentTokenizer tokenize(Iterator<String> args) {
+		while(args.hasNext()){
+			accept(args.next());
+		}
+		return finish();
+	}
+
+	/**
+	 * Procesa el siguiente argumento. Se sigue el orden de {@code DefaultParser} de commons cli: el
+	 * separador {@code --}, el valor de la opción anterior, los nombres largos y las claves cortas
+	 * @param arg Argumento
+	 */
+	void accept(String arg) {
+		position++;
+		if(!parseOptions){
+			return;
+		}
+
+		// Una opción pendiente de su valor no lo toma de los argumentos que siguen al separador
+		if("--".equals(arg)){
+			parseOptions = false;
+			finish();
+			return;
+		}
+
+		// Valor de la opción anterior: cualquier argumento que no es una opción o es un número negativo
+		if(expecting>=0 && (!isOption(arg) || isNegativeNumber(arg))){
+			onValue(expecting, unquoted(arg), 0);
+			expecting = -1;
+			return;
+		}
+
+		if(arg.length()<2 || arg.charAt(0)!='-'){
+			return;
+		}
+		if(arg.charAt(1)=='-'){
+			longOption(arg, 2, arg.indexOf('=', 2));
+		}else{
+			shortOption(arg);
+		}
+	}
+
+	/**
+	 * Termina el recorrido de los argumentos
+	 * @return El propio tokenizador
+	 */
+	ArgumentTokenizer finish() {
+		if(expecting>=0){
+			fail(ParseError.MISSING_ARGUMENT, expectingPosition, expectingArg, expecting);
+			expecting = -1;
+		}
+		return this;
+	}
+
+	/**
+	 * Se invoca con cada opción encontrada. Por defecto se guarda en el orden en que aparece
+	 * @param ordinal Ordinal de la opción
+	 */
+	void onOption(int ordinal) {
+		if(occurrenceCount==occurrences.length){
+			occurrences = Arrays.copyOf(occurrences, occurrenceCount*2);
+		}
+		occurrences[occurrenceCount++] = ordinal;
+	}
+
+	/**
+	 * Se invoca con cada valor encontrado. Por defecto solo se guarda el primer valor de cada opción
+	 * @param ordinal Ordinal de la opción
+	 * @param source Argumento que contiene el valor
+	 * @param start Posición de inicio del valor en el argumento
+	 */
+	void onValue(int ordinal, String source, int start) {
+		if(valueSources[ordinal]==null){
+			valueSources[ordinal] = source;
+			valueStarts[ordinal] = start;
+		}
+	}
+
+	/**
+	 * Determina si los argumentos contienen una opción de ayuda
+	 * @return true si alguna de las opciones es de ayuda
+	 */
+	boolean isHelp() {
+		return help;
+	}
+
+	/**
+	 * Obtiene el código del primer error encontrado
+	 * @return Código del error o null si los argumentos son correctos
+	 */
+	ParseError getErrorCode() {
+		return errorCode;
+	}
+
+	/**
+	 * Obtiene la posición del argumento del primer error
+	 * @return Posición del argumento o -1 si no hay errores
+	 */
+	int getErrorPosition() {
+		return errorPosition;
+	}
+
+	/**
+	 * Obtiene el argumento del primer error
+	 * @return Argumento o null si no hay errores
+	 */
+	String getErrorArgument() {
+		return errorArgument;
+	}
+
+	/**
+	 * Obtiene el ordinal de la opción del primer error
+	 * @return Ordinal o -1 si el error no corresponde a una opción conocida
+	 */
+	int getErrorOrdinal() {
+		return errorOrdinal;
+	}
+
+	/**
+	 * Obtiene el primer error encontrado como excepción de commons cli. La excepción solo se crea
+	 * cuando se solicita, de forma que los errores que se consultan por código no la construyen
+	 * @return Error o null si los argumentos son correctos
+	 */
+	ParseException getError() {
+		if(error==null && errorCode!=null){
+			if(errorCode==ParseError.MISSING_ARGUMENT){
+				error = new MissingArgumentException(schema.getOption(schema.getConstant(errorOrdinal)));
+			}else if(errorCode==ParseError.AMBIGUOUS_OPTION){
+				// Como commons cli, la opción no incluye el valor
+				int start = errorArgument.charAt(1)=='-' ? 2 : 1;
+				int equals = errorArgument.indexOf('=', start);
+				String option = equals<0 ? errorArgument : errorArgument.substring(0, equals);
+				error = new AmbiguousOptionException(option, schema.getLongKeyTrie().getMatches(errorArgument, start, option.length()));
+			}else{
+				error = new UnrecognizedOptionException("Unrecognized option: "+errorArgument, errorArgument);
+			}
+		}
+		return error;
+	}
+
+	/**
+	 * Obtiene el resultado del procesado
+	 * @return Opciones y valores procesados
+	 */
+	ParsedArguments getArguments() {
+		return new ParsedArguments(occurrences, occurrenceCount, valueSources, valueStarts);
+	}
+
+	/**
+	 * Procesa un nombre largo, abreviado o no, con el valor opcional tras {@code =}. Solo las opciones
+	 * con argumentos admiten el valor
+	 * @param arg Argumento
+	 * @param start Posición inicial del nombre
+	 * @param equals Posición de {@code =} o -1
+	 */
+	private void longOption(String arg, int start, int equals) {
+		int ordinal = schema.getLongKeyTrie().findPrefix(arg, start, equals<0 ? arg.length() : equals);
+		if(ordinal==KeyTrie.AMBIGUOUS){
+			fail(ParseError.AMBIGUOUS_OPTION, position, arg, -1);
+			return;
+		}
+		if(ordinal<0){
+			fail(ParseError.UNRECOGNIZED_OPTION, position, arg, -1);
+			return;
+		}
+
+		ordinal = schema.getLongKeyTarget(ordinal);
+		if(equals<0){
+			handle(ordinal, arg, -1);
+		}else if(schema.hasArgs(ordinal)){
+			handle(ordinal, arg, equals+1);
+		}else{
+			fail(ParseError.UNRECOGNIZED_OPTION, position, arg, -1);
+		}
+	}
+
+	/**
+	 * Procesa un argumento con un único guión. Sin {@code =} se busca la clave corta exacta, el nombre
+	 * largo, un nombre largo con argumentos seguido de su valor y por último varias claves de un carácter
+	 * agrupadas. Con {@code =} tras un único carácter se busca la clave corta y en otro caso el nombre largo
+	 * @param arg Argumento
+	 */
+	private void shortOption(String arg) {
+		int length = arg.length();
+		int ordinal;
+		if(length==2){
+			ordinal = schema.getShortKeys().find(arg, 1, 2);
+			if(ordinal>=0){
+				handle(ordinal, arg, -1);
+			}else{
+				fail(ParseError.UNRECOGNIZED_OPTION, position, arg, -1);
+			}
+			return;
+		}
+
+		int equals = arg.indexOf('=', 1);
+		if(equals==2){
+			ordinal = singleCharOption(arg, 1);
+			if(ordinal>=0 && schema.hasArgs(ordinal)){
+				handle(ordinal, arg, equals+1);
+			}else{
+				fail(ParseError.UNRECOGNIZED_OPTION, position, arg, -1);
+			}
+			return;
+		}
+		if(equals>=0){
+			longOption(arg, 1, equals);
+			return;
+		}
+
+		ordinal = schema.getShortKeys().find(arg, 1, length);
+		if(ordinal>=0){
+			handle(ordinal, arg, -1);
+			return;
+		}
+		if(schema.getLongKeyTrie().findPrefix(arg, 1, length)!=KeyTrie.NOT_FOUND){
+			longOption(arg, 1, -1);
+			return;
+		}
+
+		// Nombre largo con el valor concatenado
+		int prefix = longPrefix(arg);
+		if(prefix>=0){
+			ordinal = schema.getLongKeyTarget(schema.getLongKeys().find(arg, 1, prefix));
+			if(schema.hasArgs(ordinal)){
+				handle(ordinal, arg, prefix);
+				return;
+			}
+		}
+
+		// Claves de un carácter agrupadas. La primera con argumentos toma el resto como valor
+		for (int i = 1; i < length; i++) {
+			ordinal = singleCharOption(arg, i);
+			if(ordinal<0){
+				fail(ParseError.UNRECOGNIZED_OPTION, position, arg, -1);
+				return;
+			}
+			if(schema.hasArgs(ordinal) && i+1<length){
+				handle(ordinal, arg, i+1);
+				return;
+			}
+			handle(ordinal, arg, -1);
+		}
+	}
+
+	/**
+	 * Procesa una opción encontrada. Si la opción anterior espera su valor se produce un error de
+	 * argumento ausente
+	 * @param ordinal Ordinal de la opción
+	 * @param arg Argumento
+	 * @param valueStart Posición del valor en el argumento o -1 si no lo contiene
+	 */
+	private void handle(int ordinal, String arg, int valueStart) {
+		if(expecting>=0){
+			fail(ParseError.MISSING_ARGUMENT, expectingPosition, expectingArg, expecting);
+			expecting = -1;
+		}
+
+		onOption(ordinal);
+		if(schema.isHelp(ordinal)){
+			help = true;
+		}
+		if(schema.hasArgs(ordinal)){
+			if(valueStart>=0){
+				onValue(ordinal, arg, valueStart);
+			}else{
+				expecting = ordinal;
+				expectingPosition = position;
+				expectingArg = arg;
+			}
+		}
+	}
+
+	/**
+	 * Busca la opción de un carácter de un argumento, primero entre las claves cortas y después entre
+	 * los nombres largos
+	 * @return Ordinal o {@link KeyIndex#NOT_FOUND}
+	 */
+	private int singleCharOption(String arg, int index) {
+		int ordinal = schema.getShortKeys().find(arg, index, index+1);
+		return ordinal>=0 ? ordinal : schema.getLongKeys().find(arg, index, index+1);
+	}
+
+	/**
+	 * Busca el nombre largo más largo por el que empieza un argumento con un único guión, dejando al
+	 * menos un carácter para el valor y con al menos dos caracteres, como {@code getLongPrefix} de commons cli
+	 * @return Posición final del nombre o -1 si no existe
+	 */
+	private int longPrefix(String arg) {
+		for (int end = arg.length()-2; end > 2; end--) {
+			if(schema.getLongKeys().find(arg, 1, end)>=0){
+				return end;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Determina si commons cli considera una opción el argumento: su primer carácter tras el guión es
+	 * una clave corta, su nombre es el inicio de algún nombre largo o, con un único guión, empieza por
+	 * un nombre largo
+	 */
+	private boolean isOption(String arg) {
+		if(arg.length()<2 || arg.charAt(0)!='-'){
+			return false;
+		}
+		if(schema.getShortKeys().find(arg, 1, 2)>=0){
+			return true;
+		}
+		boolean isLong = arg.charAt(1)=='-';
+		int start = isLong ? 2 : 1;
+		int equals = arg.indexOf('=', start);
+		return schema.getLongKeyTrie().findPrefix(arg, start, equals<0 ? arg.length() : equals)!=KeyTrie.NOT_FOUND
+			|| !isLong && longPrefix(arg)>=0;
+	}
+
+	/**
+	 * Determina si un argumento con guión es un número negativo
+	 */
+	private static boolean isNegativeNumber(String arg) {
+		char c = arg.charAt(1);
+		if((c<'0' || c>'9') && c!='.' && c!='I' && c!='N'){
+			return false;
+		}
+		try {
+			Double.parseDouble(arg);
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Obtiene el valor de un argumento. Como commons cli, se eliminan las comillas dobles que rodean el
+	 * valor si no contiene otras
+	 * @return Argumento o subcadena sin comillas
+	 */
+	private static String unquoted(String arg) {
+		int length = arg.length();
+		if(length>1 && arg.charAt(0)=='"' && arg.charAt(length-1)=='"' && arg.indexOf('"', 1)==length-1){
+			return arg.substring(1, length-1);
+		}
+		return arg;
+	}
+
+	/**
+	 * Guarda un error. Solo se guarda el primero
+	 */
+	private void fail(ParseError code, int position, String arg, int ordinal) {
+		if(errorCode==null){
+			errorCode = code;
+			errorPosition = position;
+			errorArgument = arg;
+			errorOrdinal = ordinal;
+		}
+	}
+}
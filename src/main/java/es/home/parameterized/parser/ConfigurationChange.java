@@ -0,0 +1,92 @@
+package es.home.parameterized.parser;
+
+import java.util.List;
+import java.util.Map;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Diferencia entre dos recargas de una {@link LiveConfiguration}: las opciones cuyo valor ha cambiado,
+ * sus valores anterior y nuevo, y las validaciones no superadas de esas opciones
+ * */
+public final class ConfigurationChange<T extends Enum<? extends Parameterized>> {
+
+	/** Opciones cuyo valor ha cambiado */
+	private final List<T> changed;
+
+	/** Valores anteriores por ordinal */
+	private final String[] previous;
+
+	/** Valores nuevos por ordinal */
+	private final String[] current;
+
+	/** Validaciones no superadas de las opciones cambiadas */
+	private final Map<T, List<CustomValidation>> failedValidations;
+
+	/**
+	 * Constructor
+	 * */
+	ConfigurationChange(List<T> changed, String[] previous, String[] current, Map<T, List<CustomValidation>> failedValidations) {
+		this.changed = changed;
+		this.previous = previous;
+		this.current = current;
+		this.failedValidations = failedValidations;
+	}
+
+	/**
+	 * Obtiene las opciones cuyo valor ha cambiado
+	 * @return Lista no modificable de opciones en orden de ordinal
+	 * */
+	public List<T> getChanged() {
+		return changed;
+	}
+
+	/**
+	 * Obtiene el valor anterior de una opción
+	 * @param option Opción
+	 * @return Valor o null si no tenía valor
+	 * */
+	public String getPreviousValue(T option) {
+		return previous[option.ordinal()];
+	}
+
+	/**
+	 * Obtiene el valor nuevo de una opción
+	 * @param option Opción
+	 * @return Valor o null si ya no tiene valor
+	 * */
+	public String getValue(T option) {
+		return current[option.ordinal()];
+	}
+
+	/**
+	 * Obtiene las validaciones no superadas de las opciones cambiadas
+	 * @return Mapa no modificable, vacío si se superan todas
+	 * */
+	public Map<T, List<CustomValidation>> getFailedValidations() {
+		return failedValidations;
+	}
+
+	/**
+	 * Determina si el cambio se ha aplicado, es decir, si las opciones cambiadas superan sus validaciones
+	 * @return true si se ha aplicado
+	 * */
+	public boolean isApplied() {
+		return failedValidations.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder string = new StringBuilder("ConfigurationChange(");
+		for (int i = 0; i < changed.size(); i++) {
+			T option = changed.get(i);
+			string.append(i==0 ? "" : ", ").append(option.name()).append(": ")
+				.append(previous[option.ordinal()]).append(" -> ").append(current[option.ordinal()]);
+		}
+		if(!failedValidations.isEmpty()){
+			string.append(", failedValidations=").append(failedValidations.keySet());
+		}
+		return string.append(')').toString();
+	}
+}
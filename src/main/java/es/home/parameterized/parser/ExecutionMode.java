@@ -0,0 +1,30 @@
+package es.home.parameterized.parser;
+
+/**
+ * Momento en el que el parseador ejecuta los {@link es.home.parameterized.interfaces.ParameterExecutable}
+ * de las opciones presentes en la línea de comandos
+ * */
+public enum ExecutionMode {
+
+	/**
+	 * Se ejecutan todos en cuanto se solicita cualquier valor. Es el modo por defecto
+	 */
+	EAGER,
+
+	/**
+	 * Cada ejecutable se ejecuta la primera vez que se solicita el valor de su opción con
+	 * {@link Parser#getValue(es.home.parameterized.interfaces.Parameterized)} y el resultado se
+	 * reutiliza en las siguientes llamadas. {@link Parser#materializeAll()}, {@link Parser#getValues()}
+	 * y {@link Parser#getResult()} ejecutan los pendientes
+	 */
+	LAZY,
+
+	/**
+	 * Se ejecutan todos a la vez en cuanto se solicita cualquier valor, en el ejecutor devuelto por
+	 * {@link Parser#getExecutor()}. Cada opción espera a las de
+	 * {@link es.home.parameterized.annotations.ParameterOption#dependsOn()} presentes en la línea de
+	 * comandos. Si alguna función falla, no se ejecutan las que dependen de ella y se lanza una única
+	 * excepción con todos los fallos. Las funciones deben poder ejecutarse desde cualquier hilo
+	 */
+	PARALLEL
+}
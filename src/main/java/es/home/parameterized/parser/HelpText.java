@@ -0,0 +1,195 @@
+package es.home.parameterized.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.cli.HelpFormatter;
+
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Texto de ayuda renderizado. La ayuda de cada enumerado se renderiza una única vez por nombre de
+ * aplicación, cabecera, pie y ancho, y se guarda codificada para escribirse directamente en el flujo
+ * de salida. Si el recurso {@link #resourceName(Class)} de un parseador existe, por ejemplo porque lo
+ * ha generado el objetivo {@code render-help} durante la construcción, se utiliza en su lugar
+ * */
+public final class HelpText {
+
+	/** Codificación de los recursos de ayuda */
+	public static final Charset RESOURCE_CHARSET = Charset.forName("UTF-8");
+
+	/** Ayuda renderizada por enumerado */
+	private static final ClassValue<ConcurrentMap<HelpKey, byte[]>> RENDERED = new ClassValue<ConcurrentMap<HelpKey, byte[]>>() {
+		@Override
+		protected ConcurrentMap<HelpKey, byte[]> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/** Ayuda generada durante la construcción por clase de parseador. Vacía si no existe el recurso */
+	private static final ClassValue<byte[]> RESOURCES = new ClassValue<byte[]>() {
+		@Override
+		protected byte[] computeValue(Class<?> type) {
+			return readResource(type);
+		}
+	};
+
+	/**
+	 * Constructor privado
+	 * */
+	private HelpText() {
+	}
+
+	/**
+	 * Obtiene la ayuda de un esquema en la codificación por defecto, renderizándola la primera vez
+	 * @param schema Esquema de las opciones
+	 * @param appName Nombre de la aplicación
+	 * @param header Cabecera
+	 * @param footer Pie
+	 * @param width Ancho en caracteres
+	 * @return Ayuda codificada. No debe modificarse
+	 * */
+	public static byte[] get(OptionSchema<?> schema, String appName, String header, String footer, int width) {
+		ConcurrentMap<HelpKey, byte[]> rendered = RENDERED.get(schema.getEnumClass());
+		HelpKey key = new HelpKey(appName, header, footer, width);
+		byte[] help = rendered.get(key);
+		if(help==null){
+			help = render(schema, appName, header, footer, width).getBytes(Charset.defaultCharset());
+			rendered.putIfAbsent(key, help);
+		}
+		return help;
+	}
+
+	/**
+	 * Obtiene la ayuda generada durante la construcción para una clase de parseador
+	 * @param parserClass Clase del parseador
+	 * @return Ayuda en la codificación por defecto o null si no existe el recurso. No debe modificarse
+	 * */
+	public static byte[] getResource(Class<?> parserClass) {
+		byte[] help = RESOURCES.get(parserClass);
+		return help.length==0 ? null : help;
+	}
+
+	/**
+	 * Renderiza la ayuda de un esquema sin utilizar la caché
+	 * @param schema Esquema de las opciones
+	 * @param appName Nombre de la aplicación
+	 * @param header Cabecera
+	 * @param footer Pie
+	 * @param width Ancho en caracteres
+	 * @return Texto de la ayuda
+	 * */
+	public static String render(OptionSchema<?> schema, String appName, String header, String footer, int width) {
+		HelpFormatter formatter = new HelpFormatter();
+		StringWriter text = new StringWriter();
+		PrintWriter writer = new PrintWriter(text);
+		formatter.printHelp(
+			writer,
+			width,
+			appName,
+			header,
+			schema.getOptions(),
+			formatter.getLeftPadding(),
+			formatter.getDescPadding(),
+			footer,
+			true
+		);
+		writer.flush();
+		return text.toString();
+	}
+
+	/**
+	 * Obtiene el nombre del recurso de la ayuda de un parseador
+	 * @param parserClass Clase del parseador
+	 * @return Nombre del recurso, relativo a la raíz del classpath
+	 * */
+	public static String resourceName(Class<?> parserClass) {
+		return "META-INF/parameterized/help/"+parserClass.getName()+".txt";
+	}
+
+	/**
+	 * Lee el recurso de la ayuda de un parseador
+	 * @return Ayuda en la codificación por defecto o un arreglo vacío si no existe
+	 */
+	private static byte[] readResource(Class<?> parserClass) {
+		ClassLoader loader = parserClass.getClassLoader();
+		if(loader==null){
+			return new byte[0];
+		}
+		try (InputStream in = loader.getResourceAsStream(resourceName(parserClass))) {
+			if(in==null){
+				return new byte[0];
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while((read = in.read(buffer))>=0){
+				bytes.write(buffer, 0, read);
+			}
+			if(RESOURCE_CHARSET.equals(Charset.defaultCharset())){
+				return bytes.toByteArray();
+			}
+			return new String(bytes.toByteArray(), RESOURCE_CHARSET).getBytes(Charset.defaultCharset());
+		} catch (IOException e) {
+			return new byte[0];
+		}
+	}
+
+	/**
+	 * Clave de la ayuda renderizada de un enumerado
+	 * */
+	private static final class HelpKey {
+
+		/** Nombre de la aplicación */
+		private final String appName;
+
+		/** Cabecera */
+		private final String header;
+
+		/** Pie */
+		private final String footer;
+
+		/** Ancho en caracteres */
+		private final int width;
+
+		/**
+		 * Constructor
+		 * */
+		private HelpKey(String appName, String header, String footer, int width) {
+			this.appName = appName;
+			this.header = header;
+			this.footer = footer;
+			this.width = width;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof HelpKey)){
+				return false;
+			}
+			HelpKey other = (HelpKey) obj;
+			return width==other.width && equals(appName, other.appName) && equals(header, other.header) && equals(footer, other.footer);
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = width;
+			hash = 31*hash+(appName==null ? 0 : appName.hashCode());
+			hash = 31*hash+(header==null ? 0 : header.hashCode());
+			return 31*hash+(footer==null ? 0 : footer.hashCode());
+		}
+
+		/**
+		 * Compara dos cadenas que pueden ser nulas
+		 */
+		private static boolean equals(String a, String b) {
+			return a==null ? b==null : a.equals(b);
+		}
+	}
+}
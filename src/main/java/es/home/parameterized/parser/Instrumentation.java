@@ -0,0 +1,44 @@
+package es.home.parameterized.parser;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Medición de la memoria reservada por el hilo actual para {@link es.home.parameterized.interfaces.ParserListener}
+ * */
+final class Instrumentation {
+
+	/** Bean de hilos de HotSpot o null si la máquina virtual no permite medir la memoria reservada */
+	private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+	/**
+	 * Constructor privado
+	 * */
+	private Instrumentation() {
+	}
+
+	/**
+	 * Obtiene los bytes reservados por el hilo actual desde su creación
+	 * @return Bytes reservados o -1 si no se pueden medir
+	 */
+	static long allocatedBytes() {
+		return THREADS==null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Obtiene el bean de hilos si permite medir la memoria reservada
+	 */
+	private static com.sun.management.ThreadMXBean threads() {
+		try {
+			Object bean = ManagementFactory.getThreadMXBean();
+			if(bean instanceof com.sun.management.ThreadMXBean){
+				com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+				if(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()){
+					return threads;
+				}
+			}
+		} catch (LinkageError e) {
+			// Máquina virtual sin com.sun.management
+		}
+		return null;
+	}
+}
@@ -0,0 +1,423 @@
+package es.home.parameterized.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.impl.EnvironmentParameterSource;
+import es.home.parameterized.impl.LayeredParameterSource;
+import es.home.parameterized.impl.PropertiesParameterSource;
+import es.home.parameterized.interfaces.ConfigurationListener;
+import es.home.parameterized.interfaces.ParameterSource;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+import es.home.parameterized.schema.ValidationPlan;
+
+/**
+ * Configuración de larga duración cuyos valores proceden de varios orígenes con precedencia: los
+ * argumentos de línea de comandos, las variables de entorno y un fichero de propiedades, en ese orden.
+ * El fichero puede recargarse o vigilarse con un {@link WatchService}; en cada recarga solo se validan
+ * y se ejecutan las opciones cuyo valor ha cambiado, y los receptores reciben la diferencia. Solo se
+ * configuran las opciones con argumentos. Los métodos están sincronizados
+ * */
+public final class LiveConfiguration<T extends Enum<? extends Parameterized>> implements Closeable {
+
+	/** Esquema de las opciones */
+	private final OptionSchema<T> schema;
+
+	/** Plan de validación */
+	private final ValidationPlan<T> plan;
+
+	/** Opciones con argumentos */
+	private final List<T> options;
+
+	/** Valores de los argumentos de línea de comandos o null */
+	private final ParameterSource arguments;
+
+	/** Valores de las variables de entorno o null */
+	private final ParameterSource environment;
+
+	/** Fichero de propiedades o null */
+	private final Path file;
+
+	/** Prefijo de las claves del fichero de propiedades */
+	private final String prefix;
+
+	/** Receptores de los cambios */
+	private final List<ConfigurationListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+	/** Valores actuales por ordinal */
+	private String[] values;
+
+	/** Resultados de las funciones por ordinal */
+	private Object[] results;
+
+	/** Servicio de vigilancia del fichero o null si no se vigila */
+	private WatchService watchService;
+
+	/**
+	 * Constructor
+	 * */
+	private LiveConfiguration(Builder<T> builder) throws ParameterizedParserException {
+		this.schema = builder.schema;
+		this.plan = schema.getValidationPlan();
+		this.arguments = builder.args==null ? null : new ArgumentParameterSource(schema, builder.args);
+		this.environment = builder.environment;
+		this.file = builder.file;
+		this.prefix = builder.prefix;
+		this.listeners.addAll(builder.listeners);
+
+		List<T> withArgs = new ArrayList<>();
+		for (T constant : schema.getConstants()) {
+			if(schema.hasArgs(constant.ordinal())){
+				withArgs.add(constant);
+			}
+		}
+		this.options = Collections.unmodifiableList(withArgs);
+		load();
+	}
+
+	/**
+	 * Crea un constructor de configuraciones
+	 * @param schema Esquema de las opciones
+	 * @return Constructor
+	 * */
+	public static <T extends Enum<? extends Parameterized>> Builder<T> builder(OptionSchema<T> schema) {
+		return new Builder<>(schema);
+	}
+
+	/**
+	 * Carga todos los valores, los valida y ejecuta sus funciones
+	 * @throws ParameterizedParserException Si algún valor no supera sus validaciones o alguna función lanza una excepción
+	 */
+	private void load() throws ParameterizedParserException {
+		ParameterSource source = source();
+		String[] loaded = new String[schema.size()];
+		Map<T, List<CustomValidation>> failed = new HashMap<>();
+		for (T option : options) {
+			loaded[option.ordinal()] = source.getValue((Parameterized) option);
+			List<CustomValidation> failures = plan.validate(option, loaded[option.ordinal()]);
+			if(!failures.isEmpty()){
+				failed.put(option, failures);
+			}
+		}
+		if(!failed.isEmpty()){
+			StringBuilder string = new StringBuilder("Excepción producida al validar la configuración: ");
+			string.append(failed.keySet());
+			throw new ParameterizedParserException(string.toString());
+		}
+
+		Object[] executed = new Object[schema.size()];
+		for (T option : options) {
+			executed[option.ordinal()] = execute(option, loaded[option.ordinal()]);
+		}
+		this.values = loaded;
+		this.results = executed;
+	}
+
+	/**
+	 * Vuelve a leer los orígenes y aplica los cambios. Solo se validan las opciones cuyo valor ha
+	 * cambiado; si todas las validaciones se superan, se ejecutan sus funciones y se notifica a los
+	 * receptores. Si alguna no se supera, la configuración no cambia y también se notifica
+	 * @return Diferencia con la configuración anterior. Si no ha cambiado ninguna opción, no se notifica
+	 * @throws ParameterizedParserException Si no se puede leer el fichero o alguna función lanza una excepción
+	 * */
+	public synchronized ConfigurationChange<T> reload() throws ParameterizedParserException {
+		ParameterSource source = source();
+		String[] next = values.clone();
+		List<T> changed = new ArrayList<>();
+		Map<T, List<CustomValidation>> failed = new HashMap<>();
+		for (T option : options) {
+			String value = source.getValue((Parameterized) option);
+			String previous = values[option.ordinal()];
+			if(value==null ? previous!=null : !value.equals(previous)){
+				next[option.ordinal()] = value;
+				changed.add(option);
+				List<CustomValidation> failures = plan.validate(option, value);
+				if(!failures.isEmpty()){
+					failed.put(option, failures);
+				}
+			}
+		}
+
+		ConfigurationChange<T> change = new ConfigurationChange<>(Collections.unmodifiableList(changed), values, next, Collections.unmodifiableMap(failed));
+		if(changed.isEmpty()){
+			return change;
+		}
+		if(change.isApplied()){
+			Object[] executed = results.clone();
+			for (T option : changed) {
+				executed[option.ordinal()] = execute(option, next[option.ordinal()]);
+			}
+			this.values = next;
+			this.results = executed;
+		}
+		for (ConfigurationListener<T> listener : listeners) {
+			listener.configurationChanged(change);
+		}
+		return change;
+	}
+
+	/**
+	 * Vigila el fichero de propiedades desde un hilo demonio y lo recarga cada vez que se modifica.
+	 * Los errores de las recargas se notifican a los receptores. Se detiene con {@link #close()}
+	 * @throws ParameterizedParserException Si no hay fichero de propiedades o no se puede vigilar su directorio
+	 * */
+	public synchronized void watch() throws ParameterizedParserException {
+		if(file==null){
+			throw new ParameterizedParserException("La configuración no tiene fichero de propiedades");
+		}
+		if(watchService!=null){
+			return;
+		}
+
+		final Path directory = file.toAbsolutePath().getParent();
+		final WatchService service;
+		try {
+			service = directory.getFileSystem().newWatchService();
+			directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e) {
+			StringBuilder string = new StringBuilder("Excepción producida al vigilar el fichero de propiedades: ");
+			string.append(file);
+			throw new ParameterizedParserException(string.toString(), e);
+		}
+		this.watchService = service;
+
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					while(true){
+						WatchKey key = service.take();
+						boolean modified = false;
+						for (WatchEvent<?> event : key.pollEvents()) {
+							if(file.getFileName().equals(event.context())){
+								modified = true;
+							}
+						}
+						key.reset();
+						if(modified){
+							try {
+								reload();
+							} catch (ParameterizedParserException | RuntimeException e) {
+								for (ConfigurationListener<T> listener : listeners) {
+									listener.reloadFailed(e);
+								}
+							}
+						}
+					}
+				} catch (InterruptedException | ClosedWatchServiceException e) {
+					// Se ha cerrado la configuración
+				}
+			}
+		}, "parameterized-config-"+file.getFileName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Deja de vigilar el fichero de propiedades
+	 * */
+	@Override
+	public synchronized void close() throws IOException {
+		if(watchService!=null){
+			watchService.close();
+			watchService = null;
+		}
+	}
+
+	/**
+	 * Añade un receptor de los cambios
+	 * @param listener Receptor
+	 * */
+	public void addListener(ConfigurationListener<T> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Elimina un receptor de los cambios
+	 * @param listener Receptor
+	 * */
+	public void removeListener(ConfigurationListener<T> listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Obtiene el resultado de la función de una opción con su valor actual
+	 * @param option Opción
+	 * @return Resultado o null si la opción no tiene valor
+	 * */
+	public synchronized Object get(T option) {
+		return results[option.ordinal()];
+	}
+
+	/**
+	 * Obtiene el valor actual de una opción, sin ejecutar su función
+	 * @param option Opción
+	 * @return Valor o null si ningún origen lo contiene
+	 * */
+	public synchronized String getValue(T option) {
+		return values[option.ordinal()];
+	}
+
+	/**
+	 * Obtiene el esquema de las opciones
+	 * @return Esquema
+	 * */
+	public OptionSchema<T> getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Ejecuta la función de una opción
+	 * @return Resultado o null si la opción no tiene valor
+	 */
+	private Object execute(T option, String value) throws ParameterizedParserException {
+		if(value==null){
+			return null;
+		}
+		try {
+			return ((Parameterized) option).getParameterExecutable().executeFunction(value);
+		} catch (RuntimeException e) {
+			StringBuilder string = new StringBuilder("Excepción producida al ejecutar la función de la opción: ");
+			string.append(option.name());
+			throw new ParameterizedParserException(string.toString(), e);
+		}
+	}
+
+	/**
+	 * Crea el origen de los valores, leyendo de nuevo el fichero de propiedades
+	 * @return Origen con los argumentos, las variables de entorno y el fichero, en ese orden
+	 */
+	private ParameterSource source() throws ParameterizedParserException {
+		List<ParameterSource> sources = new ArrayList<>(3);
+		if(arguments!=null){
+			sources.add(arguments);
+		}
+		if(environment!=null){
+			sources.add(environment);
+		}
+		if(file!=null){
+			Properties properties = new Properties();
+			try (InputStream in = Files.newInputStream(file)) {
+				properties.load(in);
+			} catch (NoSuchFileException e) {
+				// Sin fichero no hay valores
+			} catch (IOException e) {
+				StringBuilder string = new StringBuilder("Excepción producida al leer el fichero de propiedades: ");
+				string.append(file);
+				throw new ParameterizedParserException(string.toString(), e);
+			}
+			sources.add(new PropertiesParameterSource(properties, prefix));
+		}
+		return new LayeredParameterSource(sources.toArray(new ParameterSource[sources.size()]));
+	}
+
+	/**
+	 * Constructor de configuraciones
+	 * */
+	public static final class Builder<T extends Enum<? extends Parameterized>> {
+
+		/** Esquema de las opciones */
+		private final OptionSchema<T> schema;
+
+		/** Argumentos de línea de comandos */
+		private String[] args;
+
+		/** Valores de las variables de entorno */
+		private ParameterSource environment;
+
+		/** Fichero de propiedades */
+		private Path file;
+
+		/** Prefijo de las claves del fichero de propiedades */
+		private String prefix = "";
+
+		/** Receptores de los cambios */
+		private final List<ConfigurationListener<T>> listeners = new ArrayList<>();
+
+		/**
+		 * Constructor
+		 * */
+		private Builder(OptionSchema<T> schema) {
+			this.schema = schema;
+		}
+
+		/**
+		 * Define los argumentos de línea de comandos, que tienen la mayor precedencia
+		 * @param args Argumentos de línea de comandos
+		 * @return El propio constructor
+		 * */
+		public Builder<T> arguments(String[] args) {
+			this.args = args;
+			return this;
+		}
+
+		/**
+		 * Define las variables de entorno del proceso, que tienen precedencia sobre el fichero
+		 * @param prefix Prefijo de las variables. Ver {@link EnvironmentParameterSource}
+		 * @return El propio constructor
+		 * */
+		public Builder<T> environment(String prefix) {
+			return environment(new EnvironmentParameterSource(prefix));
+		}
+
+		/**
+		 * Define el origen de las variables de entorno, que tienen precedencia sobre el fichero
+		 * @param environment Origen de las variables
+		 * @return El propio constructor
+		 * */
+		public Builder<T> environment(ParameterSource environment) {
+			this.environment = environment;
+			return this;
+		}
+
+		/**
+		 * Define el fichero de propiedades, que tiene la menor precedencia y se lee en cada recarga
+		 * @param file Fichero de propiedades. Si no existe, no aporta valores
+		 * @param prefix Prefijo de las claves, por ejemplo {@code "app."}
+		 * @return El propio constructor
+		 * */
+		public Builder<T> propertiesFile(Path file, String prefix) {
+			this.file = file;
+			this.prefix = prefix;
+			return this;
+		}
+
+		/**
+		 * Añade un receptor de los cambios
+		 * @param listener Receptor
+		 * @return El propio constructor
+		 * */
+		public Builder<T> listener(ConfigurationListener<T> listener) {
+			this.listeners.add(listener);
+			return this;
+		}
+
+		/**
+		 * Construye la configuración, cargando, validando y ejecutando todas las opciones
+		 * @return Configuración
+		 * @throws ParameterizedParserException Si los argumentos no son correctos, algún valor no supera sus validaciones o alguna función lanza una excepción
+		 * */
+		public LiveConfiguration<T> build() throws ParameterizedParserException {
+			return new LiveConfiguration<>(this);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package es.home.parameterized.parser;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Valores de todas las apariciones de una opción, en el orden en que aparecen. Cada recorrido
+ * vuelve a procesar los argumentos según avanza, por lo que solo se crean los valores de la opción
+ * y de uno en uno
+ * */
+final class OptionValues implements Iterable<String> {
+
+	/** Esquema de las opciones */
+	private final OptionSchema<?> schema;
+
+	/** Ordinal de la opción */
+	private final int ordinal;
+
+	/** Argumentos */
+	private final Iterable<String> source;
+
+	/**
+	 * Constructor
+	 * @param schema Esquema de las opciones
+	 * @param ordinal Ordinal de la opción
+	 * @param source Argumentos
+	 * */
+	OptionValues(OptionSchema<?> schema, int ordinal, Iterable<String> source) {
+		this.schema = schema;
+		this.ordinal = ordinal;
+		this.source = source;
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		final Iterator<String> args = source.iterator();
+		return new Iterator<String>() {
+
+			/** Siguiente valor o null si aún no se ha encontrado */
+			private String next;
+
+			/** Tokenizador que solo guarda los valores de la opción */
+			private final ArgumentTokenizer tokenizer = new ArgumentTokenizer(schema) {
+				@Override
+				void onOption(int option) {
+				}
+
+				@Override
+				void onValue(int option, String value, int start) {
+					if(option==ordinal){
+						next = start==0 ? value : value.substring(start);
+					}
+				}
+			};
+
+			@Override
+			public boolean hasNext() {
+				while(next==null && args.hasNext()){
+					tokenizer.accept(args.next());
+				}
+				return next!=null;
+			}
+
+			@Override
+			public String next() {
+				if(!hasNext()){
+					throw new NoSuchElementException();
+				}
+				String result = next;
+				next = null;
+				return result;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}
@@ -0,0 +1,278 @@
+package es.home.parameterized.parser;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Ejecución en paralelo de las funciones de las opciones presentes en la línea de comandos para el
+ * modo {@link ExecutionMode#PARALLEL}. Cada opción se ejecuta una vez, cuando han terminado las
+ * opciones de las que depende; las que no tienen dependencias pendientes se ejecutan a la vez. Si
+ * una función falla, no se ejecutan las opciones que dependen de ella y se lanza una única excepción
+ * con todos los fallos. Si el ejecutor rechaza una opción, se trata como fallida y la excepción tiene
+ * como causa el rechazo
+ * */
+final class ParallelExecution<T extends Enum<? extends Parameterized>> {
+
+	/** Método de creación de ejecutores de hilos virtuales o null si la máquina virtual no los admite */
+	private static final Method VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutorFactory();
+
+	/** Ejecutor por defecto si no hay hilos virtuales. Se crea la primera vez que se necesita */
+	private static ExecutorService sharedExecutor;
+
+	/** Esquema de las opciones */
+	private final OptionSchema<T> schema;
+
+	/** Tabla de valores en la que se guardan los resultados */
+	private final ValueTable<T> table;
+
+	/** Argumentos procesados */
+	private final ParsedArguments parsed;
+
+	/** Ejecutor de las funciones */
+	private final Executor executor;
+
+	/** Dependencias pendientes de cada ordinal */
+	private final AtomicInteger[] pending;
+
+	/** Ordinales que dependen de cada ordinal */
+	private final List<List<Integer>> dependents;
+
+	/** Opciones pendientes de terminar o descartar */
+	private CountDownLatch remaining;
+
+	/** Fallos de las funciones */
+	private final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+
+	/** Primer rechazo del ejecutor o null si ha aceptado todas las opciones */
+	private volatile RejectedExecutionException rejection;
+
+	/**
+	 * Constructor
+	 * */
+	private ParallelExecution(OptionSchema<T> schema, ValueTable<T> table, ParsedArguments parsed, Executor executor) {
+		this.schema = schema;
+		this.table = table;
+		this.parsed = parsed;
+		this.executor = executor;
+		this.pending = new AtomicInteger[schema.size()];
+		this.dependents = new ArrayList<>(schema.size());
+		for (int i = 0; i < schema.size(); i++) {
+			dependents.add(new ArrayList<Integer>());
+		}
+	}
+
+	/**
+	 * Ejecuta en paralelo las opciones presentes que aún no se han ejecutado y espera a que terminen
+	 * @param schema Esquema de las opciones
+	 * @param table Tabla de valores
+	 * @param parsed Argumentos procesados
+	 * @param executor Ejecutor o null para utilizar hilos virtuales si están disponibles
+	 * @throws ParameterizedParserException Si alguna función falla o se interrumpe la espera
+	 */
+	static <T extends Enum<? extends Parameterized>> void run(OptionSchema<T> schema, ValueTable<T> table, ParsedArguments parsed, Executor executor) throws ParameterizedParserException {
+		ExecutorService owned = null;
+		if(executor==null){
+			owned = newVirtualThreadExecutor();
+			executor = owned!=null ? owned : sharedExecutor();
+		}
+		try {
+			new ParallelExecution<>(schema, table, parsed, executor).run();
+		} finally {
+			if(owned!=null){
+				owned.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Ejecuta las opciones
+	 * @throws ParameterizedParserException
+	 */
+	private void run() throws ParameterizedParserException {
+
+		// Opciones a ejecutar y dependencias entre ellas
+		List<Integer> ordinals = new ArrayList<>();
+		for (int ordinal = 0; ordinal < schema.size(); ordinal++) {
+			if(parsed.contains(ordinal) && !table.isExecuted(ordinal)){
+				ordinals.add(ordinal);
+			}
+		}
+		for (int ordinal : ordinals) {
+			int count = 0;
+			for (int dependency : schema.getDependencies(ordinal)) {
+				if(parsed.contains(dependency) && !table.isExecuted(dependency)){
+					dependents.get(dependency).add(ordinal);
+					count++;
+				}
+			}
+			pending[ordinal] = new AtomicInteger(count);
+		}
+
+		remaining = new CountDownLatch(ordinals.size());
+		for (int ordinal : ordinals) {
+			if(pending[ordinal].get()==0){
+				submit(ordinal);
+			}
+		}
+
+		try {
+			remaining.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ParameterizedParserException("Excepción producida al procesar los datos de la línea de comandos: ejecución interrumpida", e);
+		}
+
+		if(rejection!=null){
+			StringBuilder string = new StringBuilder("Excepción producida al procesar los datos de la línea de comandos: ");
+			string.append("el ejecutor ha rechazado las funciones de las opciones");
+			ParameterizedParserException exception = new ParameterizedParserException(string.toString(), rejection);
+			for (Throwable failure : failures) {
+				if(failure!=rejection){
+					exception.addSuppressed(failure);
+				}
+			}
+			throw exception;
+		}
+
+		if(!failures.isEmpty()){
+			StringBuilder string = new StringBuilder("Excepción producida al procesar los datos de la línea de comandos: ");
+			string.append(failures.size()).append(" opciones fallidas");
+			ParameterizedParserException exception = new ParameterizedParserException(string.toString(), asException(failures.get(0)));
+			for (int i = 1; i < failures.size(); i++) {
+				exception.addSuppressed(failures.get(i));
+			}
+			throw exception;
+		}
+	}
+
+	/**
+	 * Envía una opción al ejecutor. Si la rechaza, se marca como terminada sin éxito para que la espera
+	 * no quede bloqueada
+	 * @param ordinal Ordinal de la opción
+	 */
+	private void submit(final int ordinal) {
+		try {
+			execute(ordinal);
+		} catch (RejectedExecutionException e) {
+			if(rejection==null){
+				rejection = e;
+			}
+			failures.add(e);
+			complete(ordinal, false);
+		}
+	}
+
+	/**
+	 * Ejecuta una opción en el ejecutor
+	 * @param ordinal Ordinal de la opción
+	 */
+	private void execute(final int ordinal) {
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				boolean success = false;
+				try {
+					table.execute(ordinal, parsed);
+					success = true;
+				} catch (Throwable t) {
+					failures.add(t);
+				} finally {
+					complete(ordinal, success);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Marca una opción como terminada y libera o descarta las opciones que dependen de ella
+	 * @param ordinal Ordinal de la opción
+	 * @param success Determina si la función terminó correctamente
+	 */
+	private void complete(int ordinal, boolean success) {
+		remaining.countDown();
+		for (int dependent : dependents.get(ordinal)) {
+			if(!success){
+				skip(dependent);
+			}else if(pending[dependent].decrementAndGet()==0){
+				submit(dependent);
+			}
+		}
+	}
+
+	/**
+	 * Descarta una opción cuya dependencia ha fallado, junto con las que dependen de ella
+	 * @param ordinal Ordinal de la opción
+	 */
+	private void skip(int ordinal) {
+		// Solo se descarta una vez aunque fallen varias de sus dependencias
+		if(pending[ordinal].getAndSet(-1)>=0){
+			complete(ordinal, false);
+		}
+	}
+
+	/**
+	 * Convierte un fallo en excepción
+	 */
+	private static Exception asException(Throwable t) {
+		return t instanceof Exception ? (Exception) t : new ExecutionException(t);
+	}
+
+	/**
+	 * Busca el método de creación de ejecutores de hilos virtuales
+	 */
+	private static Method virtualThreadExecutorFactory() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Crea un ejecutor de hilos virtuales
+	 * @return Ejecutor o null si la máquina virtual no los admite
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		if(VIRTUAL_THREAD_EXECUTOR==null){
+			return null;
+		}
+		try {
+			return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invoke(null);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Obtiene el ejecutor compartido de hilos demonio
+	 */
+	private static synchronized ExecutorService sharedExecutor() {
+		if(sharedExecutor==null){
+			sharedExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "parameterized-"+count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return sharedExecutor;
+	}
+}
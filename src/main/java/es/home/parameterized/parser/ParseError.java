@@ -0,0 +1,53 @@
+package es.home.parameterized.parser;
+
+/**
+ * Códigos de los errores de entrada de un {@link ParseOutcome}
+ * */
+public enum ParseError {
+
+	/**
+	 * Un argumento con guión no corresponde a ninguna opción
+	 */
+	UNRECOGNIZED_OPTION,
+
+	/**
+	 * Un argumento con guión es una abreviatura de varios nombres largos
+	 */
+	AMBIGUOUS_OPTION,
+
+	/**
+	 * Una opción con argumentos no tiene valor
+	 */
+	MISSING_ARGUMENT,
+
+	/**
+	 * Otro error de sintaxis detectado por commons cli
+	 */
+	INVALID_SYNTAX,
+
+	/**
+	 * No se puede leer un fichero de argumentos
+	 */
+	UNREADABLE_ARGUMENTS,
+
+	/**
+	 * Algún valor no supera sus validaciones
+	 */
+	INVALID_VALUES,
+
+	/**
+	 * Alguna validación ha lanzado una excepción
+	 */
+	VALIDATION_FAILED,
+
+	/**
+	 * El valor de una opción {@link es.home.parameterized.impl.PrimitiveParameterExecutable} no se
+	 * puede convertir a su tipo, como un texto en una opción numérica
+	 */
+	INVALID_CONVERSION,
+
+	/**
+	 * La función de alguna opción ha lanzado una excepción
+	 */
+	EXECUTION_FAILED
+}
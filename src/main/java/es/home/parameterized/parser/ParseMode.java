@@ -0,0 +1,22 @@
+package es.home.parameterized.parser;
+
+/**
+ * Motor utilizado por el parseador para procesar los argumentos de línea de comandos
+ * */
+public enum ParseMode {
+
+	/**
+	 * Procesa los argumentos con el {@code DefaultParser} de commons cli. Es el modo por defecto y
+	 * admite toda la sintaxis de commons cli
+	 */
+	COMMONS_CLI,
+
+	/**
+	 * Procesa los argumentos en una única pasada, detectando la ayuda y resolviendo las claves sobre
+	 * los índices del esquema sin crear objetos intermedios. Resuelve las opciones en el mismo orden que
+	 * el {@code DefaultParser} de commons cli, incluidas las claves cortas agrupadas, las abreviaturas de
+	 * nombres largos, los valores concatenados y el separador {@code --}, y produce los mismos valores y
+	 * errores
+	 */
+	NATIVE
+}
@@ -0,0 +1,219 @@
+package es.home.parameterized.parser;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Resultado de {@link ParserEngine#tryParse(String[])}, que informa de los errores de entrada sin
+ * lanzar excepciones. Si el parseo es correcto contiene el resultado; si no, el código del error y,
+ * según el error, el argumento y su posición, la opción, las validaciones no superadas o la causa
+ * */
+public final class ParseOutcome<T extends Enum<? extends Parameterized>> {
+
+	/** Resultado del parseo de los argumentos o null si no se han podido leer */
+	private final ParsedCommandLine<T> commandLine;
+
+	/** Código del error o null si el parseo es correcto */
+	private final ParseError error;
+
+	/** Posición del argumento del error o -1 */
+	private final int position;
+
+	/** Argumento del error */
+	private final String argument;
+
+	/** Opción del error */
+	private final T option;
+
+	/** Validaciones no superadas */
+	private final BitSet failedValidations;
+
+	/** Causa del error */
+	private final Throwable cause;
+
+	/**
+	 * Constructor
+	 * */
+	private ParseOutcome(ParsedCommandLine<T> commandLine, ParseError error, int position, String argument, T option, BitSet failedValidations, Throwable cause) {
+		this.commandLine = commandLine;
+		this.error = error;
+		this.position = position;
+		this.argument = argument;
+		this.option = option;
+		this.failedValidations = failedValidations;
+		this.cause = cause;
+	}
+
+	/**
+	 * Crea un resultado correcto
+	 */
+	static <T extends Enum<? extends Parameterized>> ParseOutcome<T> success(ParsedCommandLine<T> commandLine) {
+		return new ParseOutcome<>(commandLine, null, -1, null, null, null, null);
+	}
+
+	/**
+	 * Crea un resultado con un error de sintaxis
+	 */
+	static <T extends Enum<? extends Parameterized>> ParseOutcome<T> syntaxError(ParsedCommandLine<T> commandLine, ParseError error, int position, String argument, T option) {
+		return new ParseOutcome<>(commandLine, error, position, argument, option, null, null);
+	}
+
+	/**
+	 * Crea un resultado con validaciones no superadas
+	 */
+	static <T extends Enum<? extends Parameterized>> ParseOutcome<T> invalid(ParsedCommandLine<T> commandLine, BitSet failedValidations) {
+		return new ParseOutcome<>(commandLine, ParseError.INVALID_VALUES, -1, null, null, failedValidations, null);
+	}
+
+	/**
+	 * Crea un resultado con un error causado por una excepción
+	 */
+	static <T extends Enum<? extends Parameterized>> ParseOutcome<T> failure(ParsedCommandLine<T> commandLine, ParseError error, Throwable cause) {
+		return new ParseOutcome<>(commandLine, error, -1, null, null, null, cause);
+	}
+
+	/**
+	 * Determina si el parseo es correcto
+	 * @return true si no hay errores
+	 * */
+	public boolean isSuccess() {
+		return error==null;
+	}
+
+	/**
+	 * Determina si los argumentos contienen una opción de ayuda. La ayuda no es un error, por lo que
+	 * el resultado es correcto si el resto de argumentos lo son
+	 * @return true si alguna de las opciones es de ayuda
+	 * */
+	public boolean isHelp() {
+		return commandLine!=null && commandLine.isHelp();
+	}
+
+	/**
+	 * Obtiene el código del error
+	 * @return Código o null si el parseo es correcto
+	 * */
+	public ParseError getError() {
+		return error;
+	}
+
+	/**
+	 * Obtiene la posición del argumento del error. Con ficheros de argumentos, la posición es la del
+	 * argumento después de expandirlos
+	 * @return Posición del argumento o -1 si el error no corresponde a un argumento o se desconoce
+	 * */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Obtiene el argumento del error
+	 * @return Argumento o null si el error no corresponde a un argumento
+	 * */
+	public String getArgument() {
+		return argument;
+	}
+
+	/**
+	 * Obtiene la opción del error, como la opción sin valor de {@link ParseError#MISSING_ARGUMENT} o la
+	 * opción cuyo valor no se puede convertir de {@link ParseError#INVALID_CONVERSION}
+	 * @return Opción o null si el error no corresponde a una opción conocida
+	 * */
+	public T getOption() {
+		return option;
+	}
+
+	/**
+	 * Obtiene las validaciones no superadas en los errores {@link ParseError#INVALID_VALUES}, como
+	 * bits que se interpretan con {@link es.home.parameterized.schema.ValidationPlan#getOption(int)}
+	 * y {@link es.home.parameterized.schema.ValidationPlan#getValidation(int)}
+	 * @return Bits de las validaciones no superadas o null si el error es de otro tipo
+	 * */
+	public BitSet getFailedValidations() {
+		return failedValidations==null ? null : (BitSet) failedValidations.clone();
+	}
+
+	/**
+	 * Obtiene las opciones más parecidas al argumento de un error {@link ParseError#UNRECOGNIZED_OPTION},
+	 * o las opciones que coinciden con la abreviatura de un error {@link ParseError#AMBIGUOUS_OPTION}.
+	 * Se calculan cada vez que se solicitan
+	 * @return Opciones tal como se escriben en la línea de comandos, vacía si el error es de otro tipo
+	 * */
+	public List<String> getSuggestions() {
+		if(error==ParseError.UNRECOGNIZED_OPTION && argument!=null){
+			return commandLine.suggest(argument);
+		}
+		if(error==ParseError.AMBIGUOUS_OPTION && argument!=null){
+			int start = argument.startsWith("--") ? 2 : 1;
+			int equals = argument.indexOf('=', start);
+			List<String> names = commandLine.getSchema().getLongKeyTrie().getMatches(argument, start, equals<0 ? argument.length() : equals);
+			List<String> result = new ArrayList<>(names.size());
+			for (String name : names) {
+				result.add("--"+name);
+			}
+			return Collections.unmodifiableList(result);
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Obtiene la causa de los errores {@link ParseError#UNREADABLE_ARGUMENTS},
+	 * {@link ParseError#INVALID_SYNTAX}, {@link ParseError#VALIDATION_FAILED} y {@link ParseError#EXECUTION_FAILED}
+	 * @return Causa o null si el error es de otro tipo
+	 * */
+	public Throwable getCause() {
+		return cause;
+	}
+
+	/**
+	 * Obtiene el resultado del parseo de los argumentos
+	 * @return Resultado o null si no se han podido leer los argumentos
+	 * */
+	public ParsedCommandLine<T> getCommandLine() {
+		return commandLine;
+	}
+
+	/**
+	 * Obtiene los valores de las opciones
+	 * @return Valores de las opciones
+	 * @throws IllegalStateException Si el parseo no es correcto
+	 * */
+	public ParseResult<T> getResult() {
+		if(error!=null){
+			throw new IllegalStateException("El parseo no es correcto: "+error);
+		}
+		try {
+			return commandLine.getResult();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		if(error==null){
+			return "ParseOutcome(SUCCESS)";
+		}
+		StringBuilder string = new StringBuilder("ParseOutcome(").append(error);
+		if(position>=0){
+			string.append(", position=").append(position);
+		}
+		if(argument!=null){
+			string.append(", argument=").append(argument);
+		}
+		if(option!=null){
+			string.append(", option=").append(option.name());
+		}
+		if(failedValidations!=null){
+			string.append(", failedValidations=").append(failedValidations);
+		}
+		if(cause!=null){
+			string.append(", cause=").append(cause);
+		}
+		return string.append(')').toString();
+	}
+}
@@ -0,0 +1,25 @@
+package es.home.parameterized.parser;
+
+/**
+ * Fases del parseo de unos argumentos que se notifican a
+ * {@link es.home.parameterized.interfaces.ParserListener}
+ * */
+public enum ParsePhase {
+
+	/**
+	 * Procesado de los argumentos, con el tokenizador nativo o con commons cli, incluida la lectura
+	 * de los ficheros de argumentos
+	 */
+	PARSE,
+
+	/**
+	 * Ejecución de las validaciones
+	 */
+	VALIDATE,
+
+	/**
+	 * Ejecución de las funciones de todas las opciones presentes. En el modo
+	 * {@link ExecutionMode#LAZY} las funciones que se ejecutan de una en una solo se notifican por opción
+	 */
+	EXECUTE
+}
@@ -0,0 +1,207 @@
+package es.home.parameterized.parser;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import es.home.parameterized.impl.BooleanParameterExecutable;
+import es.home.parameterized.impl.DoubleParameterExecutable;
+import es.home.parameterized.impl.IntParameterExecutable;
+import es.home.parameterized.impl.LongParameterExecutable;
+import es.home.parameterized.impl.PrimitiveParameterExecutable;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Valores inmutables de un parseo, indexados por el ordinal de las opciones. Las consultas son de
+ * coste constante y no reservan memoria, y la instancia puede compartirse entre hilos sin copiarla.
+ * Los valores de las opciones con {@link PrimitiveParameterExecutable} se guardan sin encapsular y
+ * se obtienen con los métodos tipados, como {@link #getInt(Parameterized)}
+ * */
+public final class ParseResult<T extends Enum<? extends Parameterized>> {
+
+	/** Clase del enumerado */
+	private final Class<T> enumClass;
+
+	/** Valores por ordinal */
+	private final Object[] values;
+
+	/** Opciones con valor por ordinal */
+	private final boolean[] present;
+
+	/** Valores primitivos por ordinal */
+	private final long[] primitives;
+
+	/** Conversores de los valores primitivos por ordinal. Es nulo en las opciones sin valor primitivo */
+	private final PrimitiveParameterExecutable[] converters;
+
+	/** Esquema de las opciones */
+	private final OptionSchema<T> schema;
+
+	/** Vista de los valores como mapa. Se construye la primera vez que se solicita */
+	private volatile Map<T, Object> map;
+
+	/**
+	 * Constructor. Los arreglos pasan a ser propiedad del resultado y no deben modificarse
+	 * @param schema Esquema de las opciones
+	 * @param values Valores por ordinal
+	 * @param present Opciones con valor por ordinal
+	 * @param primitives Valores primitivos por ordinal
+	 * @param converters Conversores de los valores primitivos por ordinal
+	 * */
+	ParseResult(OptionSchema<T> schema, Object[] values, boolean[] present, long[] primitives, PrimitiveParameterExecutable[] converters) {
+		this.schema = schema;
+		this.enumClass = schema.getEnumClass();
+		this.values = values;
+		this.present = present;
+		this.primitives = primitives;
+		this.converters = converters;
+	}
+
+	/**
+	 * Obtiene el valor de una opción
+	 * @param parameter Opción
+	 * @return Valor de la opción o null si no tiene valor o no pertenece al enumerado del resultado
+	 * */
+	public Object get(Parameterized parameter) {
+		return contains(parameter) ? value(((Enum<?>) parameter).ordinal()) : null;
+	}
+
+	/**
+	 * Obtiene el valor int de una opción con {@link IntParameterExecutable}
+	 * @param parameter Opción
+	 * @return Valor de la opción
+	 * @throws IllegalArgumentException Si la opción no tiene valor primitivo
+	 * */
+	public int getInt(Parameterized parameter) {
+		return (int) primitive(parameter);
+	}
+
+	/**
+	 * Obtiene el valor int de una opción con {@link IntParameterExecutable}
+	 * @param parameter Opción
+	 * @param defaultValue Valor devuelto si la opción no tiene valor primitivo
+	 * @return Valor de la opción
+	 * */
+	public int getInt(Parameterized parameter, int defaultValue) {
+		return hasPrimitive(parameter) ? (int) primitives[((Enum<?>) parameter).ordinal()] : defaultValue;
+	}
+
+	/**
+	 * Obtiene el valor long de una opción con {@link LongParameterExecutable}
+	 * @param parameter Opción
+	 * @return Valor de la opción
+	 * @throws IllegalArgumentException Si la opción no tiene valor primitivo
+	 * */
+	public long getLong(Parameterized parameter) {
+		return primitive(parameter);
+	}
+
+	/**
+	 * Obtiene el valor long de una opción con {@link LongParameterExecutable}
+	 * @param parameter Opción
+	 * @param defaultValue Valor devuelto si la opción no tiene valor primitivo
+	 * @return Valor de la opción
+	 * */
+	public long getLong(Parameterized parameter, long defaultValue) {
+		return hasPrimitive(parameter) ? primitives[((Enum<?>) parameter).ordinal()] : defaultValue;
+	}
+
+	/**
+	 * Obtiene el valor double de una opción con {@link DoubleParameterExecutable}
+	 * @param parameter Opción
+	 * @return Valor de la opción
+	 * @throws IllegalArgumentException Si la opción no tiene valor primitivo
+	 * */
+	public double getDouble(Parameterized parameter) {
+		return Double.longBitsToDouble(primitive(parameter));
+	}
+
+	/**
+	 * Obtiene el valor double de una opción con {@link DoubleParameterExecutable}
+	 * @param parameter Opción
+	 * @param defaultValue Valor devuelto si la opción no tiene valor primitivo
+	 * @return Valor de la opción
+	 * */
+	public double getDouble(Parameterized parameter, double defaultValue) {
+		return hasPrimitive(parameter) ? Double.longBitsToDouble(primitives[((Enum<?>) parameter).ordinal()]) : defaultValue;
+	}
+
+	/**
+	 * Obtiene el valor boolean de una opción con {@link BooleanParameterExecutable}. Las opciones
+	 * booleanas sin argumentos que no aparecen en la línea de comandos valen false
+	 * @param parameter Opción
+	 * @return Valor de la opción
+	 * */
+	public boolean getBoolean(Parameterized parameter) {
+		return hasPrimitive(parameter) && primitives[((Enum<?>) parameter).ordinal()]!=0;
+	}
+
+	/**
+	 * Determina si una opción tiene valor primitivo
+	 * @param parameter Opción
+	 * @return true si la opción tiene {@link PrimitiveParameterExecutable} y aparece en la línea de comandos
+	 * */
+	public boolean hasPrimitive(Parameterized parameter) {
+		return belongs(parameter) && converters[((Enum<?>) parameter).ordinal()]!=null;
+	}
+
+	/**
+	 * Determina si una opción tiene valor
+	 * @param parameter Opción
+	 * @return true si la opción está en el resultado
+	 * */
+	public boolean contains(Parameterized parameter) {
+		return belongs(parameter) && present[((Enum<?>) parameter).ordinal()];
+	}
+
+	/**
+	 * Obtiene los valores como mapa no modificable. Se construye la primera vez que se solicita y
+	 * después siempre devuelve la misma instancia
+	 * @return Valores indexados por opción
+	 * */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Map<T, Object> asMap() {
+		Map<T, Object> result = map;
+		if(result==null){
+			Map values = new EnumMap(enumClass);
+			for (int ordinal = 0; ordinal < present.length; ordinal++) {
+				if(present[ordinal]){
+					values.put(schema.getConstant(ordinal), value(ordinal));
+				}
+			}
+			result = Collections.unmodifiableMap(values);
+			map = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Determina si una opción pertenece al enumerado del resultado
+	 */
+	private boolean belongs(Parameterized parameter) {
+		return parameter instanceof Enum && ((Enum<?>) parameter).getDeclaringClass()==enumClass;
+	}
+
+	/**
+	 * Obtiene el valor de un ordinal, encapsulando los valores primitivos
+	 */
+	private Object value(int ordinal) {
+		return converters[ordinal]!=null ? converters[ordinal].fromBits(primitives[ordinal]) : values[ordinal];
+	}
+
+	/**
+	 * Obtiene el valor primitivo de una opción
+	 */
+	private long primitive(Parameterized parameter) {
+		if(!hasPrimitive(parameter)){
+			throw new IllegalArgumentException("La opción no tiene valor primitivo: "+parameter);
+		}
+		return primitives[((Enum<?>) parameter).ordinal()];
+	}
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+}
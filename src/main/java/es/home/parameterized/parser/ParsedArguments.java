@@ -0,0 +1,150 @@
+package es.home.parameterized.parser;
+
+/**
+ * Resultado de procesar los argumentos de línea de comandos, independiente del motor utilizado.
+ * Guarda las opciones en el orden en que aparecen y, por ordinal, el argumento que contiene el
+ * primer valor de cada opción y su posición. Los valores se materializan la primera vez que se solicitan
+ * */
+final class ParsedArguments {
+
+	/** Ordinales de las opciones en el orden en que aparecen */
+	private final int[] occurrences;
+
+	/** Número de opciones procesadas */
+	private final int occurrenceCount;
+
+	/** Argumento que contiene el valor de cada ordinal o null */
+	private final String[] valueSources;
+
+	/** Posición de inicio del valor dentro de su argumento */
+	private final int[] valueStarts;
+
+	/** Valores materializados por ordinal */
+	private final String[] values;
+
+	/** Posición final del valor por ordinal. Se calcula la primera vez que se solicita */
+	private int[] valueEnds;
+
+	/** Opciones presentes por ordinal. Se calcula la primera vez que se solicita */
+	private boolean[] contained;
+
+	/**
+	 * Constructor
+	 * */
+	ParsedArguments(int[] occurrences, int occurrenceCount, String[] valueSources, int[] valueStarts) {
+		this.occurrences = occurrences;
+		this.occurrenceCount = occurrenceCount;
+		this.valueSources = valueSources;
+		this.valueStarts = valueStarts;
+		this.values = new String[valueSources.length];
+	}
+
+	/**
+	 * Crea el resultado a partir de valores ya materializados
+	 * @param occurrences Ordinales de las opciones en el orden en que aparecen
+	 * @param occurrenceCount Número de opciones procesadas
+	 * @param values Valores por ordinal
+	 * @return Resultado del procesado
+	 */
+	static ParsedArguments ofValues(int[] occurrences, int occurrenceCount, String[] values) {
+		return new ParsedArguments(occurrences, occurrenceCount, values, new int[values.length]);
+	}
+
+	/**
+	 * Obtiene el número de opciones procesadas, incluidas las repeticiones
+	 * @return Número de opciones procesadas
+	 */
+	int size() {
+		return occurrenceCount;
+	}
+
+	/**
+	 * Obtiene el ordinal de la opción procesada en una posición
+	 * @param index Posición de la opción en la línea de comandos
+	 * @return Ordinal de la opción
+	 */
+	int getOccurrence(int index) {
+		return occurrences[index];
+	}
+
+	/**
+	 * Determina si una opción aparece en la línea de comandos
+	 * @param ordinal Ordinal de la opción
+	 * @return true si la opción aparece al menos una vez
+	 */
+	boolean contains(int ordinal) {
+		if(contained==null){
+			boolean[] result = new boolean[values.length];
+			for (int i = 0; i < occurrenceCount; i++) {
+				result[occurrences[i]] = true;
+			}
+			contained = result;
+		}
+		return contained[ordinal];
+	}
+
+	/**
+	 * Obtiene el texto que contiene el primer valor de una opción, sin crear la subcadena del valor
+	 * @param ordinal Ordinal de la opción
+	 * @return Argumento o valor que contiene el valor de la opción o null si no tiene valor
+	 */
+	String getValueSource(int ordinal) {
+		return valueSources[ordinal];
+	}
+
+	/**
+	 * Obtiene la posición del primer valor de una opción dentro de {@link #getValueSource(int)}
+	 * @param ordinal Ordinal de la opción
+	 * @return Posición de inicio del valor
+	 */
+	int getValueOffset(int ordinal) {
+		return valueStarts[ordinal];
+	}
+
+	/**
+	 * Obtiene el texto que contiene el primer valor de cada opción
+	 * @return Argumentos o valores por ordinal, null si la opción no tiene valor. No debe modificarse
+	 */
+	String[] getValueSources() {
+		return valueSources;
+	}
+
+	/**
+	 * Obtiene la posición inicial del primer valor de cada opción dentro de su texto
+	 * @return Posiciones por ordinal. No debe modificarse
+	 */
+	int[] getValueStarts() {
+		return valueStarts;
+	}
+
+	/**
+	 * Obtiene la posición final del primer valor de cada opción dentro de su texto, que es el final
+	 * del argumento
+	 * @return Posiciones por ordinal, excluidas. No debe modificarse
+	 */
+	int[] getValueEnds() {
+		if(valueEnds==null){
+			int[] ends = new int[valueSources.length];
+			for (int ordinal = 0; ordinal < ends.length; ordinal++) {
+				ends[ordinal] = valueSources[ordinal]==null ? 0 : valueSources[ordinal].length();
+			}
+			valueEnds = ends;
+		}
+		return valueEnds;
+	}
+
+	/**
+	 * Obtiene el primer valor de una opción
+	 * @param ordinal Ordinal de la opción
+	 * @return Valor de la opción o null si no tiene valor
+	 */
+	String getValue(int ordinal) {
+		String value = values[ordinal];
+		if(value==null && valueSources[ordinal]!=null){
+			String arg = valueSources[ordinal];
+			value = valueStarts[ordinal]==0 ? arg : arg.substring(valueStarts[ordinal]);
+			values[ordinal] = value;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,529 @@
+package es.home.parameterized.parser;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.cli.AmbiguousOptionException;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.MissingArgumentException;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.UnrecognizedOptionException;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.impl.PrimitiveParameterExecutable;
+import es.home.parameterized.interfaces.ParameterExecutable;
+import es.home.parameterized.interfaces.ParserListener;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+import es.home.parameterized.schema.ValidationPlan;
+
+/**
+ * Resultado del parseo de unos argumentos con {@link ParserEngine}. Las validaciones y los valores se
+ * calculan la primera vez que se solicitan y se reutilizan en las siguientes llamadas. Cada instancia
+ * tiene su propio estado, y sus métodos están sincronizados, por lo que también puede compartirse
+ * entre hilos
+ * */
+public final class ParsedCommandLine<T extends Enum<? extends Parameterized>> {
+
+	/** Motor de parseo */
+	private final ParserEngine<T> engine;
+
+	/** Esquema compilado de las opciones */
+	private final OptionSchema<T> schema;
+
+	/** Argumentos pasados por línea de comandos */
+	private String[] args;
+
+	/** Argumentos con los ficheros de argumentos expandidos */
+	private ArgumentSource source;
+
+	/** Tokenizador del modo {@link ParseMode#NATIVE} */
+	private ArgumentTokenizer tokenizer;
+
+	/** Determina si los argumentos contienen una opción de ayuda */
+	private final boolean help;
+
+	/** Valores parseados */
+	private ParseResult<T> parsedValues;
+
+	/** Argumentos procesados */
+	private ParsedArguments arguments;
+
+	/** Validaciones no superadas */
+	private Map<T, List<CustomValidation>> failedValidations;
+
+	/** Resultado de la validación rápida */
+	private Boolean valid;
+
+	/** Valores de las opciones ya ejecutadas */
+	private ValueTable<T> valueTable;
+
+	/**
+	 * Constructor. Procesa los argumentos hasta detectar la ayuda
+	 * @param engine Motor de parseo
+	 * @param args Argumentos de línea de comandos
+	 * @throws ParameterizedParserException Si no se pueden leer los ficheros de argumentos
+	 * */
+	ParsedCommandLine(ParserEngine<T> engine, String[] args) throws ParameterizedParserException {
+		this.engine = engine;
+		this.schema = engine.getSchema();
+		this.args = args;
+		try {
+			source = new ArgumentSource(args, engine.isResponseFileEnabled());
+			if(engine.getParseMode()==ParseMode.NATIVE){
+
+				// Los ficheros de argumentos se leen según se procesan, sin guardar su contenido
+				long start = startPhase();
+				tokenizer = new ArgumentTokenizer(schema).tokenize(source.iterator());
+				help = tokenizer.isHelp();
+				endPhase(ParsePhase.PARSE, start);
+			}else{
+
+				// commons cli necesita todos los argumentos en un arreglo
+				if(source.hasResponseFiles()){
+					this.args = source.toArray();
+					source = new ArgumentSource(this.args, false);
+				}
+				help = containsHelp();
+			}
+		} catch (RuntimeException e) {
+			StringBuilder string = new StringBuilder("Excepción producida al leer los argumentos: ");
+			throw new ParameterizedParserException(string.toString(), e);
+		}
+	}
+
+	/**
+	 * Obtiene el esquema de las opciones
+	 * @return Esquema
+	 * */
+	public OptionSchema<T> getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Determina si los argumentos contienen una opción de ayuda
+	 * @return true si alguna de las opciones es de ayuda
+	 * */
+	public boolean isHelp() {
+		return help;
+	}
+
+	/**
+	 * Obtiene las validaciones no superadas por los valores de los argumentos
+	 * @return Validaciones no superadas por opción. Si no hay fallos, se devuelve un mapa vacío. No es modificable
+	 * @throws ParameterizedParserException
+	 * */
+	public synchronized Map<T, List<CustomValidation>> getFailedValidations() throws ParameterizedParserException {
+		if(failedValidations==null){
+			ValidationPlan<T> plan = engine.getValidationPlan();
+			ParsedArguments parsed = getArguments();
+			long start = startPhase();
+			try{
+				failedValidations = Collections.unmodifiableMap(plan.validate(parsed.getValueSources(), parsed.getValueStarts(), parsed.getValueEnds()));
+			}catch(Exception e){
+				StringBuilder string = new StringBuilder("Excepción producida al obtener las validaciones: ");
+				throw new ParameterizedParserException(string.toString(), e);
+			}
+			endPhase(ParsePhase.VALIDATE, start);
+		}
+		return failedValidations;
+	}
+
+	/**
+	 * Determina si los valores de los argumentos superan todas las validaciones. Si las validaciones
+	 * no se han ejecutado previamente con {@link #getFailedValidations()}, se detienen en el primer fallo
+	 * @return true si se superan todas las validaciones
+	 * @throws ParameterizedParserException
+	 * */
+	public synchronized boolean validParams() throws ParameterizedParserException {
+		if(failedValidations!=null){
+			return failedValidations.isEmpty();
+		}
+
+		if(valid==null){
+			ValidationPlan<T> plan = engine.getValidationPlan();
+			ParsedArguments parsed = getArguments();
+			long start = startPhase();
+			try{
+				valid = plan.isValid(parsed.getValueSources(), parsed.getValueStarts(), parsed.getValueEnds());
+			}catch(Exception e){
+				StringBuilder string = new StringBuilder("Excepción producida al obtener las validaciones: ");
+				throw new ParameterizedParserException(string.toString(), e);
+			}
+			endPhase(ParsePhase.VALIDATE, start);
+		}
+		return valid;
+	}
+
+	/**
+	 * Obtiene el resultado inmutable del parseo, ejecutando las funciones pendientes la primera vez
+	 * que se solicita
+	 * @return Valores de las opciones
+	 * @throws ParameterizedParserException
+	 * */
+	public synchronized ParseResult<T> getResult() throws ParameterizedParserException {
+		if(parsedValues==null){
+			generateValues();
+		}
+		return parsedValues;
+	}
+
+	/**
+	 * Obtiene el valor de una opción. En el modo {@link ExecutionMode#LAZY} solo se ejecuta la función
+	 * de la opción solicitada
+	 * @param parameter Opción
+	 * @return Valor de la opción o null si no tiene valor
+	 * @throws ParameterizedParserException
+	 * */
+	public synchronized Object getValue(Parameterized parameter) throws ParameterizedParserException {
+		if(parsedValues==null && engine.getExecutionMode()==ExecutionMode.LAZY){
+			return getLazyValue(parameter);
+		}
+		return getResult().get(parameter);
+	}
+
+	/**
+	 * Obtiene los valores de todas las apariciones de una opción en el orden en que aparecen, sin
+	 * ejecutar su función. Cada recorrido vuelve a procesar los argumentos, incluidos los ficheros de
+	 * argumentos, y crea los valores de uno en uno. Los errores de lectura de los ficheros se lanzan
+	 * como {@link IllegalStateException}
+	 * @param parameter Opción
+	 * @return Valores de la opción. Si no aparece o no pertenece al enumerado, no contiene ningún valor
+	 * */
+	public Iterable<String> getAllValues(Parameterized parameter) {
+		if(!belongs(parameter)){
+			return Collections.emptyList();
+		}
+		return new OptionValues(schema, ((Enum<?>) parameter).ordinal(), source);
+	}
+
+	/**
+	 * Comprueba la sintaxis de los argumentos y, si no contienen ayuda, ejecuta las validaciones y las
+	 * funciones de las opciones, informando del primer error sin lanzar excepciones. Con
+	 * {@link ParseMode#NATIVE} los errores de sintaxis no crean ninguna excepción
+	 * @return Resultado del parseo
+	 */
+	synchronized ParseOutcome<T> outcome() {
+
+		// Errores de sintaxis
+		if(tokenizer!=null){
+			if(tokenizer.getErrorCode()!=null){
+				return syntaxError(tokenizer.getErrorCode(), null, null);
+			}
+		}else if(arguments==null){
+			try {
+				arguments = parseCommandLine();
+			} catch (AmbiguousOptionException e) {
+				return syntaxError(ParseError.AMBIGUOUS_OPTION, e.getOption(), null);
+			} catch (UnrecognizedOptionException e) {
+				return syntaxError(ParseError.UNRECOGNIZED_OPTION, e.getOption(), null);
+			} catch (MissingArgumentException e) {
+				return syntaxError(ParseError.MISSING_ARGUMENT, null, schema.findByName(e.getOption().getLongOpt()));
+			} catch (ParseException e) {
+				return ParseOutcome.failure(this, ParseError.INVALID_SYNTAX, e);
+			}
+		}
+		if(help){
+			return ParseOutcome.success(this);
+		}
+
+		// Validaciones
+		try {
+			ParsedArguments parsed = getArguments();
+			ValidationPlan<T> plan = engine.getValidationPlan();
+			long start = startPhase();
+			BitSet failures = plan.failures(parsed.getValueSources(), parsed.getValueStarts(), parsed.getValueEnds());
+			endPhase(ParsePhase.VALIDATE, start);
+			if(!failures.isEmpty()){
+				return ParseOutcome.invalid(this, failures);
+			}
+		} catch (ParameterizedParserException e) {
+			return ParseOutcome.failure(this, ParseError.VALIDATION_FAILED, e.getCause()!=null ? e.getCause() : e);
+		} catch (RuntimeException e) {
+
+			// Excepción lanzada por la propia validación
+			return ParseOutcome.failure(this, ParseError.VALIDATION_FAILED, e);
+		}
+
+		// Valores de las opciones primitivas, que se comprueban sin crear excepciones
+		try {
+			ParsedArguments parsed = getArguments();
+			String[] sources = parsed.getValueSources();
+			int[] starts = parsed.getValueStarts();
+			int[] ends = parsed.getValueEnds();
+			for (int i = 0; i < parsed.size(); i++) {
+				int ordinal = parsed.getOccurrence(i);
+				ParameterExecutable function = ((Parameterized) schema.getConstant(ordinal)).getParameterExecutable();
+				if(function instanceof PrimitiveParameterExecutable && schema.hasArgs(ordinal)
+					&& !((PrimitiveParameterExecutable) function).isValid(sources[ordinal], starts[ordinal], ends[ordinal])){
+					String arg = resolve().getArguments().getValueSources()[ordinal];
+					return ParseOutcome.syntaxError(this, ParseError.INVALID_CONVERSION, position(arg), arg, schema.getConstant(ordinal));
+				}
+			}
+		} catch (ParameterizedParserException e) {
+			return ParseOutcome.failure(this, ParseError.EXECUTION_FAILED, e.getCause()!=null ? e.getCause() : e);
+		}
+
+		// Funciones de las opciones
+		try {
+			getResult();
+		} catch (ParameterizedParserException e) {
+			return ParseOutcome.failure(this, ParseError.EXECUTION_FAILED, e.getCause()!=null ? e.getCause() : e);
+		}
+		return ParseOutcome.success(this);
+	}
+
+	/**
+	 * Obtiene los argumentos procesados
+	 * @return Devuelve los argumentos procesados
+	 * @throws ParameterizedParserException Si los argumentos no son correctos
+	 */
+	private ParsedArguments getArguments() throws ParameterizedParserException {
+
+		if(arguments==null){
+			try {
+				if(tokenizer!=null){
+					if(tokenizer.getError()!=null){
+						throw tokenizer.getError();
+					}
+					arguments = tokenizer.getArguments();
+				}else{
+					arguments = parseCommandLine();
+				}
+			} catch (ParseException e) {
+				
+				// Error de entrada del usuario, sin traza
+				StringBuilder string = new StringBuilder("Excepción producida al procesar los datos de la línea de comandos: ");
+				if(e instanceof AmbiguousOptionException){
+					string.append("opción ambigua ").append(((AmbiguousOptionException) e).getOption())
+						.append(", coincide con ").append(((AmbiguousOptionException) e).getMatchingOptions());
+				}else if(e instanceof UnrecognizedOptionException){
+					String option = ((UnrecognizedOptionException) e).getOption();
+					string.append("opción desconocida ").append(option);
+					List<String> suggestions = suggest(option);
+					for (int i = 0; i < suggestions.size(); i++) {
+						string.append(i==0 ? ", ¿quiso decir " : " o ").append(suggestions.get(i));
+					}
+					if(!suggestions.isEmpty()){
+						string.append('?');
+					}
+				}
+				throw new ParameterizedParserException(string.toString(), e, false);
+			}
+		}
+		return arguments;
+	}
+
+	/**
+	 * Busca las opciones más parecidas a un argumento desconocido
+	 * @param arg Argumento con guiones y, opcionalmente, con su valor tras {@code =}
+	 * @return Opciones parecidas, de la más parecida a la menos
+	 */
+	List<String> suggest(String arg) {
+		int start = arg.startsWith("--") ? 2 : arg.startsWith("-") ? 1 : 0;
+		int equals = arg.indexOf('=', start);
+		return schema.suggest(arg.substring(start, equals<0 ? arg.length() : equals));
+	}
+
+	/**
+	 * Procesa los argumentos con commons cli
+	 * @return Devuelve los argumentos procesados
+	 * @throws ParseException
+	 */
+	private ParsedArguments parseCommandLine() throws ParseException {
+
+		// Parseador
+		long start = startPhase();
+		CommandLine cmd = schema.parse(args);
+
+		int[] occurrences = new int[cmd.getOptions().length];
+		String[] values = new String[schema.size()];
+		int count = 0;
+
+		// El primer valor de cada opción es el de su primera aparición. CommandLine.getOptionValue recorre
+		// todas las apariciones en cada llamada, por lo que no se utiliza
+		Iterator<Option> itertor  = cmd.iterator();
+		while(itertor.hasNext()){
+			Option option = itertor.next();
+			T executable = schema.findByName(option.getLongOpt());
+			if(executable!=null){
+				occurrences[count++] = executable.ordinal();
+				if(values[executable.ordinal()]==null){
+					values[executable.ordinal()] = option.getValue();
+				}
+			}
+		}
+		endPhase(ParsePhase.PARSE, start);
+		return ParsedArguments.ofValues(occurrences, count, values);
+	}
+
+	/**
+	 * Genera los valores de las opciones
+	 * @throws ParameterizedParserException
+	 */
+	private void generateValues() throws ParameterizedParserException{
+		ParsedArguments parsed = getArguments();
+		long start = startPhase();
+
+		// En modo paralelo los fallos ya se agregan en una única excepción
+		if(engine.getExecutionMode()==ExecutionMode.PARALLEL){
+			ValueTable<T> table = getValueTable();
+			ParallelExecution.run(schema, table, parsed, engine.getExecutor());
+			parsedValues = table.toResult();
+			endPhase(ParsePhase.EXECUTE, start);
+			return;
+		}
+
+		try {
+
+			// En modo perezoso no se repiten las opciones ya ejecutadas
+			ValueTable<T> table = getValueTable();
+			boolean lazy = engine.getExecutionMode()==ExecutionMode.LAZY;
+
+			for (int i = 0; i < parsed.size(); i++) {
+				int ordinal = parsed.getOccurrence(i);
+				if(!lazy || !table.isExecuted(ordinal)){
+					table.execute(ordinal, parsed);
+				}
+			}
+
+			parsedValues = table.toResult();
+			endPhase(ParsePhase.EXECUTE, start);
+
+		}catch(Exception e){
+			StringBuilder string = new StringBuilder("Excepción producida al procesar los datos de la línea de comandos: ");
+			throw new ParameterizedParserException(string.toString(), e);
+		}
+	}
+
+	/**
+	 * Obtiene el valor de una opción en el modo {@link ExecutionMode#LAZY}, ejecutando su función
+	 * si aún no se ha ejecutado
+	 * @param parameter Opción
+	 * @return Valor de la opción o null si no tiene valor
+	 * @throws ParameterizedParserException
+	 */
+	private Object getLazyValue(Parameterized parameter) throws ParameterizedParserException {
+		if(!belongs(parameter)){
+			return null;
+		}
+
+		int ordinal = ((Enum<?>) parameter).ordinal();
+		ParsedArguments parsed = getArguments();
+		ValueTable<T> table = getValueTable();
+		if(!table.isExecuted(ordinal) && parsed.contains(ordinal)){
+			try {
+				table.execute(ordinal, parsed);
+			}catch(Exception e){
+				StringBuilder string = new StringBuilder("Excepción producida al procesar los datos de la línea de comandos: ");
+				throw new ParameterizedParserException(string.toString(), e);
+			}
+		}
+		return table.get(ordinal);
+	}
+
+	/**
+	 * Obtiene la tabla de valores de las opciones ejecutadas
+	 * @return Tabla de valores
+	 */
+	private ValueTable<T> getValueTable() {
+		if(valueTable==null){
+			valueTable = new ValueTable<>(schema, engine.getListener());
+		}
+		return valueTable;
+	}
+
+	/**
+	 * Obtiene el inicio de una fase si hay receptor de métricas
+	 * @return Nanosegundos del inicio o 0 si no se miden tiempos
+	 */
+	private long startPhase() {
+		return engine.getListener()!=null ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Notifica el final de una fase al receptor de métricas, si existe
+	 * @param phase Fase
+	 * @param start Nanosegundos del inicio
+	 */
+	private void endPhase(ParsePhase phase, long start) {
+		ParserListener listener = engine.getListener();
+		if(listener!=null){
+			listener.phaseCompleted(schema.getEnumClass(), phase, System.nanoTime()-start);
+		}
+	}
+
+	/**
+	 * Crea el resultado de un error de sintaxis con la posición y el argumento del modo
+	 * {@link ParseMode#NATIVE}, ya que commons cli no informa de la posición de los errores ni del
+	 * argumento de las opciones sin valor
+	 * @param code Código del error
+	 * @param argument Argumento del error según commons cli, si el tokenizador no detecta el mismo error
+	 * @param option Opción del error según commons cli, si el tokenizador no detecta el mismo error
+	 * @return Resultado del parseo
+	 */
+	private ParseOutcome<T> syntaxError(ParseError code, String argument, T option) {
+		ArgumentTokenizer resolved = resolve();
+		if(resolved.getErrorCode()!=code){
+			return ParseOutcome.syntaxError(this, code, Arrays.asList(args).indexOf(argument), argument, option);
+		}
+		int ordinal = resolved.getErrorOrdinal();
+		return ParseOutcome.syntaxError(this, code, resolved.getErrorPosition(), resolved.getErrorArgument(), ordinal>=0 ? schema.getConstant(ordinal) : null);
+	}
+
+	/**
+	 * Obtiene el tokenizador de los argumentos. En el modo {@link ParseMode#COMMONS_CLI} se crea en
+	 * cada llamada, ya que solo se utiliza para informar de los errores
+	 * @return Tokenizador con los argumentos procesados
+	 */
+	private ArgumentTokenizer resolve() {
+		return tokenizer!=null ? tokenizer : new ArgumentTokenizer(schema).tokenize(source.iterator());
+	}
+
+	/**
+	 * Obtiene la posición de un argumento
+	 * @param arg Argumento, que se compara por identidad
+	 * @return Posición o -1 si no es uno de los argumentos, como los valores entre comillas
+	 */
+	private int position(String arg) {
+		for (int i = 0; arg!=null && i < args.length; i++) {
+			if(args[i]==arg){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Determina si una opción pertenece al enumerado del esquema
+	 */
+	private boolean belongs(Parameterized parameter) {
+		return parameter instanceof Enum && ((Enum<?>) parameter).getDeclaringClass()==schema.getEnumClass();
+	}
+
+	/**
+	 * Determina si los argumentos contienen ayuda. Se resuelven con el tokenizador del modo
+	 * {@link ParseMode#NATIVE}, sin guardar las opciones ni los valores, de forma que los valores de
+	 * las opciones con argumentos y los argumentos que siguen a {@code --} no se toman como ayuda y
+	 * los dos modos detectan la misma ayuda
+	 * @return true si alguno de los argumentos es una opción de ayuda
+	 */
+	private boolean containsHelp() {
+		ArgumentTokenizer tokenizer = new ArgumentTokenizer(schema) {
+			@Override
+			void onOption(int ordinal) {
+			}
+
+			@Override
+			void onValue(int ordinal, String source, int start) {
+			}
+		};
+		return tokenizer.tokenize(source.iterator()).isHelp();
+	}
+}
@@ -0,0 +1,84 @@
+package es.home.parameterized.parser;
+
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Resultado del parseo de unos argumentos con {@link SubcommandEngine}: las opciones globales, el
+ * subcomando seleccionado y sus opciones
+ * */
+public final class ParsedSubcommand<T extends Enum<? extends Parameterized>> {
+
+	/** Resultado del parseo de las opciones globales */
+	private final ParsedCommandLine<T> global;
+
+	/** Subcomando seleccionado o null */
+	private final T command;
+
+	/** Resultado del parseo de las opciones del subcomando o null */
+	private final ParsedCommandLine<?> commandLine;
+
+	/**
+	 * Constructor
+	 * */
+	ParsedSubcommand(ParsedCommandLine<T> global, T command, ParsedCommandLine<?> commandLine) {
+		this.global = global;
+		this.command = command;
+		this.commandLine = commandLine;
+	}
+
+	/**
+	 * Obtiene el resultado del parseo de las opciones globales, anteriores al subcomando
+	 * @return Resultado del parseo
+	 * */
+	public ParsedCommandLine<T> getGlobal() {
+		return global;
+	}
+
+	/**
+	 * Obtiene el subcomando seleccionado
+	 * @return Subcomando o null si los argumentos no contienen ninguno
+	 * */
+	public T getCommand() {
+		return command;
+	}
+
+	/**
+	 * Obtiene el resultado del parseo de las opciones del subcomando, posteriores a su nombre
+	 * @return Resultado del parseo o null si los argumentos no contienen ningún subcomando
+	 * */
+	public ParsedCommandLine<?> getCommandLine() {
+		return commandLine;
+	}
+
+	/**
+	 * Determina si las opciones globales o las del subcomando contienen una opción de ayuda
+	 * @return true si alguna de las opciones es de ayuda
+	 * */
+	public boolean isHelp() {
+		return global.isHelp() || commandLine!=null && commandLine.isHelp();
+	}
+
+	/**
+	 * Ejecuta las funciones de las opciones globales y de las del subcomando y, después, la función del
+	 * subcomando con su nombre como valor
+	 * @return Valor devuelto por la función del subcomando
+	 * @throws ParameterizedParserException Si los argumentos no son correctos, no hay subcomando o su función lanza una excepción
+	 * */
+	public Object execute() throws ParameterizedParserException {
+		if(command==null){
+			throw new ParameterizedParserException("Los argumentos no contienen ningún subcomando");
+		}
+
+		global.getResult();
+		commandLine.getResult();
+		String name = ((Parameterized) command).getName();
+		try {
+			return ((Parameterized) command).getParameterExecutable().executeFunction(name);
+		} catch (Exception e) {
+			StringBuilder string = new StringBuilder("Excepción producida al ejecutar el subcomando: ");
+			string.append(name);
+			throw new ParameterizedParserException(string.toString(), e);
+		}
+	}
+}
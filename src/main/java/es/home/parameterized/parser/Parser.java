@@ -1,129 +1,161 @@
 package es.home.parameterized.parser;
 
+import java.io.PrintStream;
 import java.lang.reflect.ParameterizedType;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
-import org.apache.commons.cli.CommandLine;
-import org.apache.commons.cli.CommandLineParser;
-import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
-import org.apache.commons.cli.Option;
-import org.apache.commons.cli.ParseException;
 
 import es.home.parameterized.annotations.CustomValidation;
-import es.home.parameterized.annotations.ParameterOption;
 import es.home.parameterized.exception.ParameterizedParserException;
-import es.home.parameterized.impl.HelpParameterExecutable;
-import es.home.parameterized.interfaces.ParameterValidation;
+import es.home.parameterized.interfaces.ParserListener;
 import es.home.parameterized.interfaces.Parameterized;
-import es.home.parameterized.utils.Util;
+import es.home.parameterized.schema.OptionSchema;
 
 /**
  * Parseador de opciones de línea de comandos. Tiene implementada por defecto la opción
  * HELP de shortName "h". Su funcionalidad es la de mostrar todas las opciones pasdas en el 
- * constructor y terminar la ejecución del programa
+ * constructor y terminar la ejecución del programa.
+ * <p>
+ * Los argumentos se procesan en el constructor, por lo que los métodos que configuran el motor y, si
+ * se muestra la ayuda, los de la ayuda se invocan antes de que se inicialicen los campos de la
+ * subclase. Deben devolver constantes o valores estáticos
  * */
 public abstract class Parser <T extends Enum<? extends Parameterized>> {
 	
-	/** Argumetnos pasados por línea de comandos */
-	private String[] args = null;
+	/** Esquema compilado de las opciones */
+	private OptionSchema<T> schema = null;
 	
-	/** Opciones */
-	private T[] options = null;
-	
-	/** Valores parseados */
-	private Map<T, Object> parsedValues = null;
-	
-	/** Instancia de la línea de comeandos */
-	private CommandLine cmd;
+	/** Resultado del parseo de los argumentos */
+	private ParsedCommandLine<T> commandLine;
 	
 	/**
-	 * Constructor
+	 * Constructor. Invoca los métodos de configuración antes de que se inicialicen los campos de la
+	 * subclase
 	 * @param args Argumetnos pasados por línea de comandos
 	 * @throws ParameterizedParserException 
 	 * */
 	@SuppressWarnings("unchecked")
 	public Parser(String[] args) throws ParameterizedParserException {
-		this.args = args;
 		if(((ParameterizedType) this.getClass().getGenericSuperclass()).getActualTypeArguments().length>0){
-			Class<?> parametericedOptionsClass = (Class<?>)((ParameterizedType) this.getClass().getGenericSuperclass()).getActualTypeArguments()[0];
-			this.options = (T[]) parametericedOptionsClass.getEnumConstants();
+			Class<T> parametericedOptionsClass = (Class<T>)((ParameterizedType) this.getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+			this.schema = OptionSchema.forEnum(parametericedOptionsClass);
 		}
+		parse(args);
+	}
+	
+	/**
+	 * Constructor a partir de un esquema ya compilado. No utiliza reflexión para resolver las opciones,
+	 * por lo que es el que emplean los parseadores generados por el procesador de anotaciones. Como el
+	 * otro constructor, invoca los métodos de configuración antes de que se inicialicen los campos de la
+	 * subclase
+	 * @param args Argumetnos pasados por línea de comandos
+	 * @param schema Esquema de las opciones
+	 * @throws ParameterizedParserException 
+	 * */
+	protected Parser(String[] args, OptionSchema<T> schema) throws ParameterizedParserException {
+		this.schema = schema;
+		parse(args);
+	}
+	
+	/**
+	 * Procesa los argumentos con un motor configurado según los métodos del parseador. Si los
+	 * argumentos contienen ayuda, se imprime la ayuda y se finaliza el programa
+	 * @param args Argumentos pasados por línea de comandos
+	 * @throws ParameterizedParserException
+	 */
+	private void parse(String[] args) throws ParameterizedParserException {
+		ParserEngine<T> engine = ParserEngine.builder(schema)
+			.parseMode(getParseMode())
+			.executionMode(getExecutionMode())
+			.executor(getExecutor())
+			.responseFiles(isResponseFileEnabled())
+			.listener(getListener())
+			.build();
+		commandLine = engine.parse(args);
 		
-		// Si los argumentos contienen ayuda, se imprime la ayuda y se finaliza el programa
-		if(containsHelp()){
+		if(commandLine.isHelp()){
 			help();
-			System.exit(0);
+			if(isExitOnHelp()){
+				System.exit(0);
+			}
 		}
 	}
 	
 	/**
-	 * Obtiene la lista de valdiaciones que no son válidas para lso parámetros pasados por el usuario
-	 * @return Si no hay fallos, se devuevle una lista vacía, en caso contrario, se devuelve la lista de validaciones que no fueron superadas
+	 * Determina si los argumentos contienen una opción de ayuda. Solo puede ser true si
+	 * {@link #isExitOnHelp()} devuelve false, ya que en otro caso el constructor termina el programa
+	 * @return true si se ha mostrado la ayuda
+	 */
+	public boolean isHelp() {
+		return commandLine.isHelp();
+	}
+	
+	/**
+	 * Obtiene el resultado del parseo de los argumentos sobre el que trabaja el parseador
+	 * @return Resultado del parseo
+	 */
+	public ParsedCommandLine<T> getCommandLine() {
+		return commandLine;
+	}
+	
+	/**
+	 * Obtiene el resultado del parseo sin lanzar excepciones por los errores de entrada. Ver
+	 * {@link ParserEngine#tryParse(String[])}
+	 * @return Resultado del parseo con el primer error encontrado
+	 */
+	public ParseOutcome<T> getOutcome() {
+		return commandLine.outcome();
+	}
+	
+	/**
+	 * Obtiene la lista de valdiaciones que no son válidas para lso parámetros pasados por el usuario.
+	 * Las validaciones se ejecutan una única vez por parseador y el resultado se reutiliza en las
+	 * siguientes llamadas
+	 * @return Si no hay fallos, se devuevle un mapa vacío, en caso contrario, se devuelve la lista de validaciones que no fueron superadas.
+	 * El mapa devuelto no es modificable
 	 * @throws ParameterizedParserException 
 	 */
 	public Map<T, List<CustomValidation>> getFailedValidations() throws ParameterizedParserException{
-		
-		Map<T, List<CustomValidation>> result = new HashMap<>();
-		try{
-			
-			// Se recorren las ocpiones
-			for (T option : options) {
-				
-				// Lista de validaciones no psuperadas para una opción
-				List<CustomValidation> validationInOption = new ArrayList<>();
-				
-				// Se obtiene el valor asociado a cada opción
-				String value = getCmd().getOptionValue(((Parameterized)option).getName());
-				
-				// Se recorren las validaciones
-				List<CustomValidation> validations = Util.getValdiations(option);
-				for (CustomValidation customValidation : validations) {
-					ParameterValidation validationClass = customValidation.validationClass().getConstructor().newInstance();
-					if(!validationClass.isParamValid(value)){
-						validationInOption.add(customValidation);
-					}
-				}
-				
-				// En caso de existan validaciones no superadas, se añaden al resultado
-				if(!validationInOption.isEmpty()){
-					result.put(option, validationInOption);
-				}
-			}
-			return result;
-		
-		}catch(ParameterizedParserException pe){
-			throw pe;
-		}catch(Exception e){
-			StringBuilder string = new StringBuilder("Excepción producida al obtener las validaciones: ");
-			throw new ParameterizedParserException(string.toString(), e);
-		}
+		return commandLine.getFailedValidations();
 	}
 	
 	/**
-	 * Determina si los valores introducidos en la línea de comandos son valores válidos
+	 * Determina si los valores introducidos en la línea de comandos son valores válidos. Si las validaciones
+	 * no se han ejecutado previamente con {@link #getFailedValidations()}, se detienen en el primer fallo
 	 * @return true si los valores cumplen todos los requerimientos. false en caso contrario
 	 */
 	public boolean validParams() throws ParameterizedParserException {
-		return getFailedValidations().isEmpty();
+		return commandLine.validParams();
 	}
 
 	/**
-	 * Devuelve una copia de los valores asignados en el parseador
+	 * Obtiene el resultado inmutable del parseo, generándolo la primera vez que se solicita
+	 * @return Valores asignados en el parseador
+	 * @throws ParameterizedParserException 
+	 * */
+	public ParseResult<T> getResult() throws ParameterizedParserException {
+		return commandLine.getResult();
+	}
+
+	/**
+	 * Ejecuta todas las opciones pendientes y obtiene el resultado del parseo. En el modo
+	 * {@link ExecutionMode#LAZY} permite recuperar el comportamiento de {@link ExecutionMode#EAGER}
+	 * @return Valores asignados en el parseador
+	 * @throws ParameterizedParserException 
+	 * */
+	public ParseResult<T> materializeAll() throws ParameterizedParserException {
+		return getCommandLine().getResult();
+	}
+
+	/**
+	 * Devuelve los valores asignados en el parseador. El mapa no es modificable y no se copia en cada llamada
 	 * @throws ParameterizedParserException 
 	 * */
 	public Map<T, Object> getValues() throws ParameterizedParserException {
-		
-		// Si no hay datos, se generan
-		if(parsedValues==null){
-			generateValues();
-		}
-		
-		return new HashMap<>(parsedValues);
+		return getResult().asMap();
 	}
 
 	/**
@@ -133,11 +165,19 @@ public abstract class Parser <T extends Enum<? extends Parameterized>> {
 	 * @throws ParameterizedParserException 
 	 */
 	public Object getValue(Parameterized parameter) throws ParameterizedParserException{
-		Map<T, Object> values = getValues();
-		if(values!=null){
-			return values.get(parameter);
-		}
-		return null;
+		return commandLine.getValue(parameter);
+	}
+
+	/**
+	 * Obtiene los valores de todas las apariciones de una opción en el orden en que aparecen, sin
+	 * ejecutar su función. Cada recorrido vuelve a procesar los argumentos, incluidos los ficheros de
+	 * argumentos, y crea los valores de uno en uno, por lo que es adecuado para opciones repetidas
+	 * muchas veces. Los errores de lectura de los ficheros se lanzan como {@link IllegalStateException}
+	 * @param parameter Opción
+	 * @return Valores de la opción. Si no aparece o no pertenece al parseador, no contiene ningún valor
+	 */
+	public Iterable<String> getAllValues(Parameterized parameter) {
+		return commandLine.getAllValues(parameter);
 	}
 
 	/**
@@ -159,144 +199,127 @@ public abstract class Parser <T extends Enum<? extends Parameterized>> {
 	public abstract String getAppName();
 
 	/**
-	 * Permite obtener un parámetro ejecutable por nombre
-	 * @param name Nombre a buscar
-	 * @return Devuelve la opción ejecutable o null si no se encuntra ninguan coincidencia para
-	 * ese nombre
+	 * Obtiene el motor con el que se procesan los argumentos. Por defecto se utiliza commons cli; los
+	 * parseadores pueden sobrescribir el método para utilizar el tokenizador de una única pasada.
+	 * Se invoca desde el constructor, ver {@link Parser}
+	 * @return Motor de procesado de los argumentos
 	 * */
-	private T getElementByName(String name) {
-		for (T option : options) {
-			if(((Parameterized) option).getName().equals(name)){
-				return option;
-			}
-		}
+	protected ParseMode getParseMode() {
+		return ParseMode.COMMONS_CLI;
+	}
+
+	/**
+	 * Obtiene el momento en el que se ejecutan las funciones de las opciones. Por defecto se ejecutan
+	 * todas en cuanto se solicita cualquier valor; los parseadores pueden sobrescribir el método para
+	 * ejecutar cada una solo cuando se solicita su valor. Se invoca desde el constructor, ver {@link Parser}
+	 * @return Modo de ejecución
+	 * */
+	protected ExecutionMode getExecutionMode() {
+		return ExecutionMode.EAGER;
+	}
+
+	/**
+	 * Determina si los argumentos {@code @fichero} se sustituyen por los argumentos que contiene el
+	 * fichero. Por defecto no se sustituyen; los parseadores pueden sobrescribir el método para
+	 * admitir más argumentos de los que permite el sistema operativo. En el modo {@link ParseMode#NATIVE}
+	 * los ficheros se leen según se procesan, sin guardar su contenido en memoria. Se invoca
+	 * desde el constructor, ver {@link Parser}
+	 * @return true si se expanden los ficheros de argumentos
+	 * */
+	protected boolean isResponseFileEnabled() {
+		return false;
+	}
+
+	/**
+	 * Obtiene el receptor de las métricas de cada fase del parseo, de cada validación y de cada función.
+	 * Por defecto no hay receptor y no se miden tiempos; los parseadores pueden sobrescribir el método,
+	 * por ejemplo con {@link es.home.parameterized.impl.JfrParserListener}.
+	 * Se invoca desde el constructor, ver {@link Parser}
+	 * @return Receptor de las métricas o null
+	 * */
+	protected ParserListener getListener() {
 		return null;
 	}
 
 	/**
-	 * Imprime la ayuda al usuario
-	 * y termina la ejecución del programa
+	 * Obtiene el ejecutor de las funciones en el modo {@link ExecutionMode#PARALLEL}. Por defecto es
+	 * null y se utilizan hilos virtuales si la máquina virtual los admite o, si no, un grupo compartido
+	 * de hilos demonio. Se invoca desde el constructor, ver {@link Parser}
+	 * @return Ejecutor o null para utilizar el de por defecto
 	 * */
-	private void help() {
-		HelpFormatter formater = new HelpFormatter();
-		try {
-			if(getAppName()==null || getAppName().length()<=0){
-				System.err.println(
-					"Para mostrar la ayuda, el nombre de la aplicación no puede ser nulo ni vacío. "
-					+ "Implemente correctamente el método "+Parser.class.getCanonicalName()+".getAppName(java.lang.String)"
-				);
-			}else{
-				formater.printHelp(
-					getAppName(),
-					getHelpHeader(),
-					Util.getParameterOptions(options),
-					getHelpFooter(),
-					true
-				);
-			}
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+	protected Executor getExecutor() {
+		return null;
 	}
-	
+
 	/**
-	 * Obtiene la instancia de {@link CommandLine} a partir de la que ejecutar el resto de oeprativas
-	 * @return Devuelv la isntancia de {@link CommandLine} asociada al parseador
-	 * @throws ParameterizedParserException
-	 */
-	private CommandLine getCmd() throws ParameterizedParserException {
-		
-		if(cmd==null){
-			
-			// Parseador
-			CommandLineParser parser = new DefaultParser();
-			
-			try {
-				cmd = parser.parse(Util.getParameterOptions(options),args);
-			} catch (ParseException e) {
-				StringBuilder string = new StringBuilder("Excepción producida al procesar los datos de la línea de comandos: ");
-				throw new ParameterizedParserException(string.toString(), e);
-			}
-		}
-		return cmd;
+	 * Determina si el constructor termina el programa después de mostrar la ayuda. Por defecto lo
+	 * termina, salvo dentro de una petición de {@link RequestScope}, como las del demonio; los parseadores pueden
+	 * sobrescribir el método para consultar {@link #isHelp()} en su lugar. Se invoca desde el
+	 * constructor, ver {@link Parser}
+	 * @return true si se termina el programa
+	 * */
+	protected boolean isExitOnHelp() {
+		return !RequestScope.isActive();
 	}
-	
+
 	/**
-	 * Genera los valores del parseador
-	 * @throws ParameterizedParserException
-	 */
-	private void generateValues() throws ParameterizedParserException{
-		try {
-			
-			// Resultado
-			Map<T, Object> values = new HashMap<>();
-				
-			Iterator<Option> itertor  = getCmd().iterator();
-			while(itertor.hasNext()){
-				Option option = itertor.next();
-				T executable = getElementByName(option.getLongOpt());
-				
-				// Ayuda
-				processOption(option, executable, getCmd(), values);
-			}
-			
-			parsedValues = values;
-		
-		}catch(ParameterizedParserException pe){
-			throw pe;
-		}catch(Exception e){
-			StringBuilder string = new StringBuilder("Excepción producida al procesar los datos de la línea de comandos: ");
-			throw new ParameterizedParserException(string.toString(), e);
-		}
+	 * Obtiene el flujo en el que se imprime la ayuda. Por defecto la salida estándar. Se invoca desde el
+	 * constructor si se muestra la ayuda, ver {@link Parser}
+	 * @return Flujo de salida
+	 * */
+	protected PrintStream getOut() {
+		return System.out;
 	}
-	
+
 	/**
-	 * Determina si los argumentos pasados por parámetros contienen ayuda
-	 * @param options
-	 * @param args
-	 * @return
-	 * @throws ParameterizedParserException
-	 */
-	private boolean containsHelp() throws ParameterizedParserException {
-		
-		// Se recorren los argumentos
-		for (String arg : args) {
-			for (T option : options) {
-				ParameterOption paramOption = Util.getParameterOptionsFromEnum(option);
-				if((paramOption.shortKey().equals(Util.pruneArg(arg)) || ((Parameterized)option).getName().equals(Util.pruneArg(arg))) && ((Parameterized)option).getParameterExecutable() instanceof HelpParameterExecutable){
-					return true;
-				}
-			}
-		}
-		return false;
+	 * Obtiene el flujo en el que se imprimen los errores de la ayuda. Por defecto la salida de errores. Se
+	 * invoca desde el constructor si se muestra la ayuda, ver {@link Parser}
+	 * @return Flujo de errores
+	 * */
+	protected PrintStream getErr() {
+		return System.err;
 	}
-	
+
 	/**
-	 * Procesa una opión de forma individual
-	 * @param option
-	 * @param executable
-	 * @param cmd
-	 * @param values
-	 */
-	private void processOption(Option option, T executable, CommandLine cmd, Map<T, Object> values) {
-		
-		if(executable==null){
-			return;
+	 * Obtiene el ancho en caracteres de la ayuda. Por defecto el de commons cli. Se invoca desde el
+	 * constructor si se muestra la ayuda, ver {@link Parser}
+	 * @return Ancho de la ayuda
+	 * */
+	public int getHelpWidth() {
+		return HelpFormatter.DEFAULT_WIDTH;
+	}
+
+	/**
+	 * Obtiene la ayuda codificada en la codificación por defecto. Si existe el recurso generado durante
+	 * la construcción para la clase del parseador, se utiliza; en otro caso se renderiza la primera vez
+	 * y se reutiliza en todos los parseadores del mismo enumerado con la misma configuración
+	 * @return Ayuda. No debe modificarse
+	 * */
+	public byte[] getHelp() {
+		byte[] help = HelpText.getResource(getClass());
+		if(help==null){
+			help = HelpText.get(schema, getAppName(), getHelpHeader(), getHelpFooter(), getHelpWidth());
 		}
-		
-		// La opción es de las registradas
-		if(option.hasArgs() || option.hasArg()){
-			String value = cmd.getOptionValue(option.getOpt());
-			if(value==null && option.isRequired()){
-				System.err.println("El campo: "+option.getOpt()+"("+option.getLongOpt()+") es obligatorio");
-				help();
+		return help;
+	}
+
+	/**
+	 * Imprime la ayuda al usuario
+	 * */
+	private void help() {
+		try {
+			if(getAppName()==null || getAppName().length()<=0){
+				getErr().println(
+					"Para mostrar la ayuda, el nombre de la aplicación no puede ser nulo ni vacío. "
+					+ "Implemente correctamente el método "+Parser.class.getCanonicalName()+".getAppName(java.lang.String)"
+				);
+			}else{
+				PrintStream out = getOut();
+				out.write(getHelp());
+				out.flush();
 			}
-			values.put(
-				executable,
-				((Parameterized) executable).getParameterExecutable().executeFunction(value)
-			);
-		}else{
-			((Parameterized) executable).getParameterExecutable().executeFunction(null);
+		} catch (Exception e) {
+			e.printStackTrace(getErr());
 		}
 	}
 }
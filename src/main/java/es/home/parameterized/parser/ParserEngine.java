@@ -0,0 +1,268 @@
+package es.home.parameterized.parser;
+
+import java.util.concurrent.Executor;
+
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.interfaces.ParserListener;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+import es.home.parameterized.schema.ValidationPlan;
+
+/**
+ * Motor de parseo inmutable de un enumerado {@link Parameterized}. Se construye una vez y puede
+ * utilizarse desde varios hilos a la vez: cada llamada a {@link #parse(String[])} devuelve un
+ * {@link ParsedCommandLine} independiente que no comparte estado mutable con los demás. A diferencia de
+ * {@link Parser}, no muestra la ayuda ni termina el programa
+ * */
+public final class ParserEngine<T extends Enum<? extends Parameterized>> {
+
+	/** Esquema de las opciones */
+	private final OptionSchema<T> schema;
+
+	/** Motor de procesado de los argumentos */
+	private final ParseMode parseMode;
+
+	/** Modo de ejecución de las funciones */
+	private final ExecutionMode executionMode;
+
+	/** Ejecutor del modo {@link ExecutionMode#PARALLEL} o null para el de por defecto */
+	private final Executor executor;
+
+	/** Determina si se expanden los ficheros de argumentos */
+	private final boolean responseFiles;
+
+	/** Receptor de las métricas o null */
+	private final ParserListener listener;
+
+	/** Plan de validación, instrumentado si hay receptor. Se obtiene la primera vez que se solicita */
+	private volatile ValidationPlan<T> validationPlan;
+
+	/**
+	 * Constructor
+	 * */
+	private ParserEngine(Builder<T> builder) {
+		this.schema = builder.schema;
+		this.parseMode = builder.parseMode;
+		this.executionMode = builder.executionMode;
+		this.executor = builder.executor;
+		this.responseFiles = builder.responseFiles;
+		this.listener = builder.listener;
+	}
+
+	/**
+	 * Crea un motor con la configuración por defecto
+	 * @param enumClass Clase del enumerado
+	 * @return Motor de parseo
+	 * @throws ParameterizedParserException Si las anotaciones del enumerado no son correctas
+	 * */
+	public static <T extends Enum<? extends Parameterized>> ParserEngine<T> forEnum(Class<T> enumClass) throws ParameterizedParserException {
+		return builder(OptionSchema.forEnum(enumClass)).build();
+	}
+
+	/**
+	 * Crea un constructor de motores
+	 * @param schema Esquema de las opciones
+	 * @return Constructor
+	 * */
+	public static <T extends Enum<? extends Parameterized>> Builder<T> builder(OptionSchema<T> schema) {
+		return new Builder<>(schema);
+	}
+
+	/**
+	 * Procesa unos argumentos. Los errores de sintaxis se lanzan cuando se solicitan los valores o las
+	 * validaciones del resultado
+	 * @param args Argumentos de línea de comandos
+	 * @return Resultado independiente del parseo
+	 * @throws ParameterizedParserException Si no se pueden leer los ficheros de argumentos
+	 * */
+	public ParsedCommandLine<T> parse(String[] args) throws ParameterizedParserException {
+		return new ParsedCommandLine<>(this, args);
+	}
+
+	/**
+	 * Procesa unos argumentos informando de los errores de entrada sin lanzar excepciones: comprueba la
+	 * sintaxis y, si los argumentos no contienen ayuda, ejecuta las validaciones y, si se superan, las
+	 * funciones de las opciones. Las excepciones se reservan para los errores de programación, como las
+	 * anotaciones incorrectas
+	 * @param args Argumentos de línea de comandos
+	 * @return Resultado del parseo con el primer error encontrado
+	 * */
+	public ParseOutcome<T> tryParse(String[] args) {
+		ParsedCommandLine<T> commandLine;
+		try {
+			commandLine = new ParsedCommandLine<>(this, args);
+		} catch (ParameterizedParserException e) {
+			return ParseOutcome.failure(null, ParseError.UNREADABLE_ARGUMENTS, e.getCause());
+		}
+		return commandLine.outcome();
+	}
+
+	/**
+	 * Crea un motor con la misma configuración para otro esquema
+	 * @param schema Esquema de las opciones
+	 * @return Motor de parseo
+	 * */
+	<S extends Enum<? extends Parameterized>> ParserEngine<S> derive(OptionSchema<S> schema) {
+		return builder(schema)
+			.parseMode(parseMode)
+			.executionMode(executionMode)
+			.executor(executor)
+			.responseFiles(responseFiles)
+			.listener(listener)
+			.build();
+	}
+
+	/**
+	 * Obtiene el esquema de las opciones
+	 * @return Esquema
+	 * */
+	public OptionSchema<T> getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Obtiene el motor de procesado de los argumentos
+	 * @return Motor de procesado
+	 * */
+	public ParseMode getParseMode() {
+		return parseMode;
+	}
+
+	/**
+	 * Obtiene el modo de ejecución de las funciones
+	 * @return Modo de ejecución
+	 * */
+	public ExecutionMode getExecutionMode() {
+		return executionMode;
+	}
+
+	/**
+	 * Obtiene el ejecutor del modo {@link ExecutionMode#PARALLEL}
+	 * @return Ejecutor o null para el de por defecto
+	 * */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Determina si se expanden los ficheros de argumentos
+	 * @return true si los argumentos {@code @fichero} se sustituyen por su contenido
+	 * */
+	public boolean isResponseFileEnabled() {
+		return responseFiles;
+	}
+
+	/**
+	 * Obtiene el receptor de las métricas
+	 * @return Receptor o null si no se miden tiempos
+	 * */
+	public ParserListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Obtiene el plan de validación del esquema, que notifica cada validación al receptor de las métricas
+	 * @return Plan de validación
+	 * @throws ParameterizedParserException Si alguna de las validaciones no se puede instanciar
+	 * */
+	ValidationPlan<T> getValidationPlan() throws ParameterizedParserException {
+		ValidationPlan<T> plan = validationPlan;
+		if(plan==null){
+			plan = schema.getValidationPlan();
+			if(listener!=null){
+				plan = plan.withListener(listener);
+			}
+			validationPlan = plan;
+		}
+		return plan;
+	}
+
+	/**
+	 * Constructor de motores de parseo
+	 * */
+	public static final class Builder<T extends Enum<? extends Parameterized>> {
+
+		/** Esquema de las opciones */
+		private final OptionSchema<T> schema;
+
+		/** Motor de procesado de los argumentos */
+		private ParseMode parseMode = ParseMode.COMMONS_CLI;
+
+		/** Modo de ejecución de las funciones */
+		private ExecutionMode executionMode = ExecutionMode.EAGER;
+
+		/** Ejecutor del modo paralelo */
+		private Executor executor;
+
+		/** Determina si se expanden los ficheros de argumentos */
+		private boolean responseFiles;
+
+		/** Receptor de las métricas */
+		private ParserListener listener;
+
+		/**
+		 * Constructor
+		 * */
+		private Builder(OptionSchema<T> schema) {
+			this.schema = schema;
+		}
+
+		/**
+		 * Define el motor de procesado de los argumentos. Por defecto commons cli
+		 * @param parseMode Motor de procesado
+		 * @return El propio constructor
+		 * */
+		public Builder<T> parseMode(ParseMode parseMode) {
+			this.parseMode = parseMode;
+			return this;
+		}
+
+		/**
+		 * Define el modo de ejecución de las funciones. Por defecto {@link ExecutionMode#EAGER}
+		 * @param executionMode Modo de ejecución
+		 * @return El propio constructor
+		 * */
+		public Builder<T> executionMode(ExecutionMode executionMode) {
+			this.executionMode = executionMode;
+			return this;
+		}
+
+		/**
+		 * Define el ejecutor del modo {@link ExecutionMode#PARALLEL}
+		 * @param executor Ejecutor o null para el de por defecto
+		 * @return El propio constructor
+		 * */
+		public Builder<T> executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Determina si se expanden los ficheros de argumentos. Por defecto no se expanden
+		 * @param responseFiles true para sustituir los argumentos {@code @fichero} por su contenido
+		 * @return El propio constructor
+		 * */
+		public Builder<T> responseFiles(boolean responseFiles) {
+			this.responseFiles = responseFiles;
+			return this;
+		}
+
+		/**
+		 * Define el receptor de las métricas de cada fase, validación y función. Por defecto no se miden tiempos
+		 * @param listener Receptor o null para no medir tiempos
+		 * @return El propio constructor
+		 * */
+		public Builder<T> listener(ParserListener listener) {
+			this.listener = listener;
+			return this;
+		}
+
+		/**
+		 * Construye el motor
+		 * @return Motor de parseo
+		 * */
+		public ParserEngine<T> build() {
+			return new ParserEngine<>(this);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package es.home.parameterized.parser;
+
+/**
+ * Ámbito de una petición atendida por un proceso de larga duración, como el demonio. Mientras el hilo
+ * actual está dentro de una petición, {@link Parser} no termina el programa al mostrar la ayuda. Lo
+ * establece quien atiende la petición, de forma que el parseador no depende de él
+ * */
+public final class RequestScope {
+
+	/** Determina si el hilo actual atiende una petición */
+	private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+	/**
+	 * Constructor privado
+	 * */
+	private RequestScope() {
+	}
+
+	/**
+	 * Marca el inicio de una petición en el hilo actual
+	 * */
+	public static void enter() {
+		ACTIVE.set(Boolean.TRUE);
+	}
+
+	/**
+	 * Marca el fin de la petición del hilo actual
+	 * */
+	public static void leave() {
+		ACTIVE.remove();
+	}
+
+	/**
+	 * Determina si el hilo actual atiende una petición
+	 * @return true si el hilo está dentro de una petición
+	 * */
+	public static boolean isActive() {
+		return ACTIVE.get()!=null;
+	}
+}
@@ -0,0 +1,177 @@
+package es.home.parameterized.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lector de los argumentos de un fichero de argumentos ({@code @fichero}). El fichero se proyecta en
+ * memoria con {@link FileChannel#map} y se decodifica en UTF-8 por bloques, de forma que cada argumento
+ * se crea cuando se solicita y la memoria utilizada no depende del tamaño del fichero.
+ * <p>
+ * Los argumentos se separan por espacios en blanco. Las comillas simples y dobles agrupan argumentos
+ * con espacios, la barra invertida escapa el siguiente carácter fuera de las comillas simples y
+ * {@code #} al principio de un argumento comenta el resto de la línea
+ * */
+final class ResponseFileReader implements Iterator<String> {
+
+	/** Tamaño máximo de cada proyección del fichero */
+	private static final long WINDOW = 1L<<27;
+
+	/** Fichero */
+	private final Path file;
+
+	/** Tamaño del fichero */
+	private final long size;
+
+	/** Decodificador de los bytes del fichero */
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+		.onMalformedInput(CodingErrorAction.REPLACE)
+		.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	/** Proyección actual del fichero */
+	private ByteBuffer bytes;
+
+	/** Posición en el fichero del inicio de la proyección actual */
+	private long windowStart;
+
+	/** Caracteres decodificados pendientes de leer */
+	private final CharBuffer chars = CharBuffer.allocate(4096);
+
+	/** Determina si se ha decodificado todo el fichero */
+	private boolean eof;
+
+	/** Argumento en construcción. Se reutiliza entre argumentos */
+	private final StringBuilder token = new StringBuilder();
+
+	/** Siguiente argumento o null si no quedan */
+	private String next;
+
+	/**
+	 * Constructor
+	 * @param file Fichero de argumentos
+	 * @throws IOException Si el fichero no se puede leer
+	 * */
+	ResponseFileReader(Path file) throws IOException {
+		this.file = file;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			this.size = channel.size();
+		}
+		map(0);
+		chars.flip();
+		next = readToken();
+	}
+
+	@Override
+	public boolean hasNext() {
+		return next!=null;
+	}
+
+	@Override
+	public String next() {
+		if(next==null){
+			throw new NoSuchElementException();
+		}
+		String result = next;
+		try {
+			next = readToken();
+		} catch (IOException e) {
+			throw new IllegalStateException("No se puede leer el fichero de argumentos: "+file, e);
+		}
+		return result;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Lee el siguiente argumento
+	 * @return Argumento o null si no quedan
+	 * @throws IOException
+	 */
+	private String readToken() throws IOException {
+		int c = read();
+
+		// Espacios y comentarios anteriores al argumento
+		while(c>=0 && (Character.isWhitespace(c) || c=='#')){
+			if(c=='#'){
+				while(c>=0 && c!='\n'){
+					c = read();
+				}
+			}
+			c = read();
+		}
+		if(c<0){
+			return null;
+		}
+
+		token.setLength(0);
+		char quote = 0;
+		while(c>=0 && (quote!=0 || !Character.isWhitespace(c))){
+			if(quote!=0 && c==quote){
+				quote = 0;
+			}else if(quote==0 && (c=='"' || c=='\'')){
+				quote = (char) c;
+			}else if(c=='\\' && quote!='\''){
+				c = read();
+				if(c<0){
+					break;
+				}
+				token.append((char) c);
+			}else{
+				token.append((char) c);
+			}
+			c = read();
+		}
+		return token.toString();
+	}
+
+	/**
+	 * Lee el siguiente carácter, decodificando el siguiente bloque del fichero si es necesario
+	 * @return Carácter o -1 al final del fichero
+	 * @throws IOException
+	 */
+	private int read() throws IOException {
+		while(!chars.hasRemaining()){
+			if(eof){
+				return -1;
+			}
+			chars.clear();
+			boolean last = windowStart+bytes.limit()==size;
+			decoder.decode(bytes, chars, last);
+			if(!bytes.hasRemaining() || bytes.remaining()<4 && !last && chars.position()==0){
+				if(last){
+					decoder.flush(chars);
+					eof = true;
+				}else{
+					// Los bytes de un carácter incompleto se leen en la siguiente proyección
+					map(windowStart+bytes.position());
+				}
+			}
+			chars.flip();
+		}
+		return chars.get();
+	}
+
+	/**
+	 * Proyecta en memoria el siguiente bloque del fichero
+	 * @param position Posición de inicio del bloque
+	 * @throws IOException
+	 */
+	private void map(long position) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, size-position));
+			windowStart = position;
+		}
+	}
+}
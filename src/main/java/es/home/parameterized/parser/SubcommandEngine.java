@@ -0,0 +1,106 @@
+package es.home.parameterized.parser;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.CommandSchema;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Motor de parseo inmutable de un enumerado con subcomandos. Los argumentos anteriores al nombre del
+ * subcomando se procesan con las opciones globales y los posteriores con las opciones del subcomando,
+ * cuyo enumerado solo se carga y se compila cuando se selecciona. Los motores de los subcomandos
+ * tienen la misma configuración que el de las opciones globales
+ * */
+public final class SubcommandEngine<T extends Enum<? extends Parameterized>> {
+
+	/** Esquema de los subcomandos */
+	private final CommandSchema<T> schema;
+
+	/** Motor de las opciones globales */
+	private final ParserEngine<T> engine;
+
+	/** Motores de los subcomandos por ordinal. Se crean la primera vez que se selecciona cada subcomando */
+	private final AtomicReferenceArray<ParserEngine<?>> subcommandEngines;
+
+	/**
+	 * Constructor
+	 * @param engine Motor de las opciones globales, cuya configuración se aplica a los subcomandos
+	 * @throws ParameterizedParserException Si las anotaciones de los subcomandos no son correctas
+	 * */
+	public SubcommandEngine(ParserEngine<T> engine) throws ParameterizedParserException {
+		this.schema = CommandSchema.forEnum(engine.getSchema().getEnumClass());
+		this.engine = engine;
+		this.subcommandEngines = new AtomicReferenceArray<>(engine.getSchema().size());
+	}
+
+	/**
+	 * Crea un motor con la configuración por defecto
+	 * @param enumClass Clase del enumerado con los subcomandos
+	 * @return Motor de parseo
+	 * @throws ParameterizedParserException Si las anotaciones del enumerado no son correctas
+	 * */
+	public static <T extends Enum<? extends Parameterized>> SubcommandEngine<T> forEnum(Class<T> enumClass) throws ParameterizedParserException {
+		return new SubcommandEngine<>(ParserEngine.forEnum(enumClass));
+	}
+
+	/**
+	 * Procesa unos argumentos. Los errores de sintaxis se lanzan cuando se solicitan los valores o las
+	 * validaciones del resultado
+	 * @param args Argumentos de línea de comandos
+	 * @return Resultado independiente del parseo
+	 * @throws ParameterizedParserException Si no se pueden leer los ficheros de argumentos o cargar el subcomando
+	 * */
+	public ParsedSubcommand<T> parse(String[] args) throws ParameterizedParserException {
+		int index = schema.indexOf(args);
+		if(index<0){
+			return new ParsedSubcommand<>(engine.parse(args), null, null);
+		}
+
+		T command = schema.findByName(args[index]);
+		ParsedCommandLine<T> global = engine.parse(Arrays.copyOfRange(args, 0, index));
+		ParsedCommandLine<?> commandLine = getEngine(command).parse(Arrays.copyOfRange(args, index+1, args.length));
+		return new ParsedSubcommand<>(global, command, commandLine);
+	}
+
+	/**
+	 * Obtiene el esquema de los subcomandos
+	 * @return Esquema
+	 * */
+	public CommandSchema<T> getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Obtiene el motor de las opciones globales
+	 * @return Motor de parseo
+	 * */
+	public ParserEngine<T> getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Obtiene el motor de un subcomando, cargando su enumerado la primera vez que se solicita
+	 * @param command Subcomando
+	 * @return Motor de parseo de las opciones del subcomando
+	 * @throws ParameterizedParserException Si el elemento no es un subcomando o no se puede cargar su enumerado
+	 * */
+	public ParserEngine<?> getEngine(T command) throws ParameterizedParserException {
+		ParserEngine<?> subcommandEngine = subcommandEngines.get(command.ordinal());
+		if(subcommandEngine==null){
+			subcommandEngine = derive(schema.getSubcommandSchema(command));
+			subcommandEngines.compareAndSet(command.ordinal(), null, subcommandEngine);
+		}
+		return subcommandEngine;
+	}
+
+	/**
+	 * Crea el motor de un subcomando con la configuración del motor de las opciones globales
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ParserEngine<?> derive(OptionSchema<?> subcommandSchema) {
+		return engine.derive((OptionSchema) subcommandSchema);
+	}
+}
@@ -0,0 +1,143 @@
+package es.home.parameterized.parser;
+
+import es.home.parameterized.impl.PrimitiveParameterExecutable;
+import es.home.parameterized.interfaces.CharSequenceParameterExecutable;
+import es.home.parameterized.interfaces.ParameterExecutable;
+import es.home.parameterized.interfaces.ParserListener;
+import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
+
+/**
+ * Valores de las opciones de un parseo, indexados por ordinal, que se van rellenando según se
+ * ejecutan los {@link ParameterExecutable}. Al terminar se convierte en un {@link ParseResult}
+ * que pasa a ser propietario de los arreglos
+ * */
+final class ValueTable<T extends Enum<? extends Parameterized>> {
+
+	/** Esquema de las opciones */
+	private final OptionSchema<T> schema;
+
+	/** Valores por ordinal */
+	private final Object[] values;
+
+	/** Opciones con valor por ordinal */
+	private final boolean[] present;
+
+	/** Valores primitivos por ordinal */
+	private final long[] primitives;
+
+	/** Conversores de los valores primitivos por ordinal */
+	private final PrimitiveParameterExecutable[] converters;
+
+	/** Opciones ya ejecutadas por ordinal */
+	private final boolean[] executed;
+
+	/** Receptor de las métricas o null */
+	private final ParserListener listener;
+
+	/**
+	 * Constructor
+	 * @param schema Esquema de las opciones
+	 * @param listener Receptor de las métricas o null
+	 * */
+	ValueTable(OptionSchema<T> schema, ParserListener listener) {
+		this.schema = schema;
+		this.listener = listener;
+		this.values = new Object[schema.size()];
+		this.present = new boolean[schema.size()];
+		this.primitives = new long[schema.size()];
+		this.converters = new PrimitiveParameterExecutable[schema.size()];
+		this.executed = new boolean[schema.size()];
+	}
+
+	/**
+	 * Ejecuta la función de una opción y guarda su resultado. La opción solo se marca como ejecutada
+	 * si la función termina sin errores, de forma que una función que falla vuelve a ejecutarse y a
+	 * fallar en cada acceso
+	 * @param ordinal Ordinal de la opción
+	 * @param parsed Argumentos procesados
+	 */
+	void execute(int ordinal, ParsedArguments parsed) {
+		if(listener==null){
+			apply(ordinal, parsed);
+			executed[ordinal] = true;
+			return;
+		}
+
+		long allocated = Instrumentation.allocatedBytes();
+		long start = System.nanoTime();
+		try {
+			apply(ordinal, parsed);
+			executed[ordinal] = true;
+		} finally {
+			long nanos = System.nanoTime()-start;
+			listener.optionExecuted((Parameterized) schema.getConstant(ordinal), nanos, allocated<0 ? -1 : Instrumentation.allocatedBytes()-allocated);
+		}
+	}
+
+	/**
+	 * Ejecuta la función de una opción sin medirla
+	 * @param ordinal Ordinal de la opción
+	 * @param parsed Argumentos procesados
+	 */
+	private void apply(int ordinal, ParsedArguments parsed) {
+		ParameterExecutable function = ((Parameterized) schema.getConstant(ordinal)).getParameterExecutable();
+
+		// Los valores primitivos se convierten directamente desde el argumento
+		if(function instanceof PrimitiveParameterExecutable){
+			PrimitiveParameterExecutable converter = (PrimitiveParameterExecutable) function;
+			String source = schema.hasArgs(ordinal) ? parsed.getValueSource(ordinal) : null;
+			int offset = source==null ? 0 : parsed.getValueOffset(ordinal);
+			primitives[ordinal] = converter.toBits(source, offset, source==null ? 0 : source.length());
+			converters[ordinal] = converter;
+			present[ordinal] = schema.hasArgs(ordinal);
+			return;
+		}
+
+		// Las funciones que admiten fragmentos reciben el valor dentro de su argumento
+		if(function instanceof CharSequenceParameterExecutable && schema.hasArgs(ordinal)){
+			String source = parsed.getValueSource(ordinal);
+			int offset = source==null ? 0 : parsed.getValueOffset(ordinal);
+			values[ordinal] = ((CharSequenceParameterExecutable) function).executeFunction(source, offset, source==null ? 0 : source.length());
+			present[ordinal] = true;
+			return;
+		}
+
+		// La opción es de las registradas
+		if(schema.hasArgs(ordinal)){
+			values[ordinal] = function.executeFunction(parsed.getValue(ordinal));
+			present[ordinal] = true;
+		}else{
+			function.executeFunction(null);
+		}
+	}
+
+	/**
+	 * Determina si la función de una opción ya se ha ejecutado sin errores
+	 * @param ordinal Ordinal de la opción
+	 * @return true si se ha ejecutado
+	 */
+	boolean isExecuted(int ordinal) {
+		return executed[ordinal];
+	}
+
+	/**
+	 * Obtiene el valor de una opción, encapsulando los valores primitivos
+	 * @param ordinal Ordinal de la opción
+	 * @return Valor o null si la opción no tiene valor
+	 */
+	Object get(int ordinal) {
+		if(!present[ordinal]){
+			return null;
+		}
+		return converters[ordinal]!=null ? converters[ordinal].fromBits(primitives[ordinal]) : values[ordinal];
+	}
+
+	/**
+	 * Crea el resultado inmutable. La tabla no debe modificarse después
+	 * @return Resultado del parseo
+	 */
+	ParseResult<T> toResult() {
+		return new ParseResult<>(schema, values, present, primitives, converters);
+	}
+}
@@ -0,0 +1,202 @@
+package es.home.parameterized.schema;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import es.home.parameterized.annotations.ParameterOption;
+import es.home.parameterized.annotations.ParameterSubcommand;
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Esquema de los subcomandos de un enumerado parametrizado. Los elementos con {@link ParameterSubcommand}
+ * son subcomandos y los elementos con {@link ParameterOption} son las opciones globales, que preceden
+ * al nombre del subcomando. Las clases de los enumerados de los subcomandos no se cargan al compilar el
+ * esquema: cada una se carga y se compila la primera vez que se solicita su esquema
+ * */
+public final class CommandSchema<T extends Enum<? extends Parameterized>> {
+
+	/** Esquemas compilados por clase de enumerado */
+	private static final ClassValue<CommandSchema<?>> SCHEMAS = new ClassValue<CommandSchema<?>>() {
+		@Override
+		protected CommandSchema<?> computeValue(Class<?> type) {
+			return compile(type);
+		}
+	};
+
+	/** Esquema de las opciones globales */
+	private final OptionSchema<T> options;
+
+	/** Subcomandos por ordinal o null si el elemento no es un subcomando */
+	private final ParameterSubcommand[] subcommands;
+
+	/** Subcomandos por nombre */
+	private final Map<String, T> byName;
+
+	/** Esquemas de los subcomandos por ordinal. Se compilan la primera vez que se solicitan */
+	private final AtomicReferenceArray<OptionSchema<?>> subcommandSchemas;
+
+	/**
+	 * Constructor
+	 * */
+	private CommandSchema(OptionSchema<T> options, ParameterSubcommand[] subcommands) {
+		this.options = options;
+		this.subcommands = subcommands;
+		this.subcommandSchemas = new AtomicReferenceArray<>(subcommands.length);
+
+		Map<String, T> names = new HashMap<>();
+		for (T constant : options.getConstants()) {
+			if(subcommands[constant.ordinal()]!=null){
+				names.put(((Parameterized) constant).getName(), constant);
+			}
+		}
+		this.byName = Collections.unmodifiableMap(names);
+	}
+
+	/**
+	 * Obtiene el esquema compilado para una clase de enumerado
+	 * @param enumClass Clase del enumerado parametrizado
+	 * @return Devuelve el esquema asociado a la clase. Siempre es la misma instancia para una misma clase
+	 * @throws ParameterizedParserException Si la clase no es un enumerado parametrizado o no se pueden leer sus anotaciones
+	 * */
+	@SuppressWarnings("unchecked")
+	public static <T extends Enum<? extends Parameterized>> CommandSchema<T> forEnum(Class<T> enumClass) throws ParameterizedParserException {
+		try {
+			return (CommandSchema<T>) SCHEMAS.get(enumClass);
+		} catch (RuntimeException e) {
+			StringBuilder string = new StringBuilder("Excepción producida durante la compilación del esquema de subcomandos: ");
+			string.append(enumClass.getName());
+			throw new ParameterizedParserException(string.toString(), e);
+		}
+	}
+
+	/**
+	 * Compila el esquema de una clase leyendo las anotaciones de sus elementos, sin cargar las clases
+	 * de los subcomandos
+	 * @param type Clase del enumerado
+	 * @return Esquema compilado
+	 * */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static CommandSchema<?> compile(Class<?> type) {
+		OptionSchema<?> options;
+		try {
+			options = OptionSchema.forEnum((Class) type);
+		} catch (ParameterizedParserException e) {
+			throw new IllegalArgumentException(e.getMessage(), e.getCause());
+		}
+
+		Enum[] constants = options.getConstants();
+		ParameterSubcommand[] subcommands = new ParameterSubcommand[constants.length];
+		for (Enum constant : constants) {
+			try {
+				Field field = type.getField(constant.name());
+				subcommands[constant.ordinal()] = field.getAnnotation(ParameterSubcommand.class);
+				if(subcommands[constant.ordinal()]!=null && field.isAnnotationPresent(ParameterOption.class)){
+					throw new IllegalArgumentException("El elemento "+constant.name()+" no puede ser a la vez opción y subcomando");
+				}
+			} catch (NoSuchFieldException e) {
+				throw new IllegalStateException("No se puede acceder a la opción: "+constant.name(), e);
+			}
+		}
+		return new CommandSchema(options, subcommands);
+	}
+
+	/**
+	 * Obtiene el esquema de las opciones globales
+	 * @return Esquema de las opciones globales
+	 * */
+	public OptionSchema<T> getOptions() {
+		return options;
+	}
+
+	/**
+	 * Busca un subcomando por su nombre
+	 * @param name Nombre del subcomando
+	 * @return Devuelve el elemento o null si no existe
+	 * */
+	public T findByName(String name) {
+		return byName.get(name);
+	}
+
+	/**
+	 * Obtiene los subcomandos por nombre
+	 * @return Mapa no modificable de nombres a elementos
+	 * */
+	public Map<String, T> getSubcommands() {
+		return byName;
+	}
+
+	/**
+	 * Obtiene la anotación de un subcomando
+	 * @param command Subcomando
+	 * @return Anotación o null si el elemento no es un subcomando
+	 * */
+	public ParameterSubcommand getSubcommand(T command) {
+		return subcommands[command.ordinal()];
+	}
+
+	/**
+	 * Obtiene el esquema de las opciones de un subcomando. La clase de su enumerado se carga con el
+	 * cargador de clases del enumerado de los subcomandos la primera vez que se solicita
+	 * @param command Subcomando
+	 * @return Esquema de las opciones del subcomando
+	 * @throws ParameterizedParserException Si el elemento no es un subcomando o no se puede cargar o compilar su enumerado
+	 * */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public OptionSchema<?> getSubcommandSchema(T command) throws ParameterizedParserException {
+		OptionSchema<?> schema = subcommandSchemas.get(command.ordinal());
+		if(schema==null){
+			ParameterSubcommand subcommand = subcommands[command.ordinal()];
+			if(subcommand==null){
+				throw new ParameterizedParserException("El elemento "+command.name()+" no es un subcomando");
+			}
+			try {
+				schema = OptionSchema.forEnum((Class) Class.forName(subcommand.options(), true, options.getEnumClass().getClassLoader()));
+			} catch (ClassNotFoundException e) {
+				StringBuilder string = new StringBuilder("Excepción producida al cargar las opciones del subcomando: ");
+				string.append(subcommand.options());
+				throw new ParameterizedParserException(string.toString(), e);
+			}
+			subcommandSchemas.compareAndSet(command.ordinal(), null, schema);
+		}
+		return schema;
+	}
+
+	/**
+	 * Busca la posición del nombre del subcomando en unos argumentos. Se omiten las opciones globales y
+	 * sus valores, y la búsqueda termina en el terminador {@code --}
+	 * @param args Argumentos de línea de comandos
+	 * @return Posición del subcomando o -1 si los argumentos no contienen ninguno
+	 * */
+	public int indexOf(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if("--".equals(arg)){
+				return -1;
+			}
+			if(arg.length()<2 || arg.charAt(0)!='-'){
+				if(byName.containsKey(arg)){
+					return i;
+				}
+				continue;
+			}
+
+			// Las opciones globales con argumentos sin valor en el propio argumento consumen el siguiente
+			int start = arg.charAt(1)=='-' ? 2 : 1;
+			if(arg.indexOf('=', start)>=0){
+				continue;
+			}
+			int ordinal = start==1 ? options.getShortKeys().find(arg, start, arg.length()) : KeyIndex.NOT_FOUND;
+			if(ordinal<0){
+				ordinal = options.getLongKeyTrie().findPrefix(arg, start, arg.length());
+			}
+			if(ordinal>=0 && options.hasArgs(ordinal)){
+				i++;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,84 @@
+package es.home.parameterized.schema;
+
+import java.util.Map;
+
+/**
+ * Índice inmutable de claves de opciones a ordinales con direccionamiento abierto. Permite buscar
+ * un fragmento de una cadena sin crear la subcadena, de forma que el tokenizador puede resolver
+ * claves como {@code --clave=valor} directamente sobre el argumento
+ * */
+public final class KeyIndex {
+
+	/** Valor devuelto cuando no se encuentra la clave */
+	public static final int NOT_FOUND = -1;
+
+	/** Claves de la tabla. Las posiciones libres contienen null */
+	private final String[] keys;
+
+	/** Ordinales de la tabla */
+	private final int[] ordinals;
+
+	/** Máscara para obtener la posición a partir del hash */
+	private final int mask;
+
+	/**
+	 * Constructor
+	 * @param entries Claves y ordinales a indexar
+	 * */
+	KeyIndex(Map<String, Integer> entries) {
+		int capacity = Integer.highestOneBit(Math.max(2, entries.size()*2)-1)<<1;
+		this.keys = new String[capacity];
+		this.ordinals = new int[capacity];
+		this.mask = capacity-1;
+
+		for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+			String key = entry.getKey();
+			int slot = hash(key, 0, key.length()) & mask;
+			while(keys[slot]!=null){
+				slot = (slot+1) & mask;
+			}
+			keys[slot] = key;
+			ordinals[slot] = entry.getValue();
+		}
+	}
+
+	/**
+	 * Busca una clave completa
+	 * @param key Clave
+	 * @return Ordinal asociado o {@link #NOT_FOUND}
+	 * */
+	public int find(String key) {
+		return find(key, 0, key.length());
+	}
+
+	/**
+	 * Busca el fragmento [start, end) de una cadena
+	 * @param source Cadena que contiene la clave
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Ordinal asociado o {@link #NOT_FOUND}
+	 * */
+	public int find(String source, int start, int end) {
+		int length = end-start;
+		int slot = hash(source, start, end) & mask;
+		String key;
+		while((key = keys[slot])!=null){
+			if(key.length()==length && key.regionMatches(0, source, start, length)){
+				return ordinals[slot];
+			}
+			slot = (slot+1) & mask;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Calcula el hash de un fragmento de cadena
+	 * */
+	private static int hash(String source, int start, int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31*h + source.charAt(i);
+		}
+		return h ^ (h>>>16);
+	}
+}
@@ -0,0 +1,223 @@
+package es.home.parameterized.schema;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Árbol de prefijos inmutable de los nombres largos de las opciones para resolver abreviaturas sin
+ * ambigüedad, como {@code --verb} para {@code --verbose}. Los nodos se guardan en arreglos, con los
+ * hijos de cada nodo contiguos y ordenados, y las ramas con una única clave se reducen a una hoja que
+ * se compara con la clave completa, por lo que el árbol solo contiene los prefijos compartidos. La
+ * búsqueda recorre el fragmento una vez, sin crear subcadenas
+ * */
+public final class KeyTrie {
+
+	/** Valor devuelto cuando ninguna clave empieza por el fragmento */
+	public static final int NOT_FOUND = KeyIndex.NOT_FOUND;
+
+	/** Valor devuelto cuando varias claves empiezan por el fragmento y ninguna coincide exactamente */
+	public static final int AMBIGUOUS = -2;
+
+	/** Claves ordenadas */
+	private final String[] keys;
+
+	/** Ordinales de las claves ordenadas */
+	private final int[] keyOrdinals;
+
+	/** Carácter de cada nodo */
+	private final char[] labels;
+
+	/** Primer hijo de cada nodo */
+	private final int[] firstChild;
+
+	/** Número de hijos de cada nodo */
+	private final int[] childCount;
+
+	/** Ordinal de la clave que termina en cada nodo o -1 */
+	private final int[] terminal;
+
+	/** Primera clave ordenada de cada nodo, incluida */
+	private final int[] from;
+
+	/** Última clave ordenada de cada nodo, excluida */
+	private final int[] to;
+
+	/**
+	 * Constructor
+	 * @param entries Claves y ordinales a indexar
+	 * */
+	KeyTrie(Map<String, Integer> entries) {
+		this.keys = entries.keySet().toArray(new String[entries.size()]);
+		Arrays.sort(keys);
+		this.keyOrdinals = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			keyOrdinals[i] = entries.get(keys[i]);
+		}
+
+		// Se construye por niveles para que los hijos de cada nodo queden contiguos
+		NodeList nodes = new NodeList();
+		nodes.add('\0', 0, keys.length, 0);
+		for (int node = 0; node < nodes.size; node++) {
+			int start = nodes.from[node];
+			int end = nodes.to[node];
+			int depth = nodes.depth[node];
+			if(end-start<=1){
+				continue;
+			}
+
+			int i = start;
+			if(keys[i].length()==depth){
+				nodes.terminal[node] = keyOrdinals[i++];
+			}
+			nodes.firstChild[node] = nodes.size;
+			while(i<end){
+				char c = keys[i].charAt(depth);
+				int j = i+1;
+				while(j<end && keys[j].charAt(depth)==c){
+					j++;
+				}
+				nodes.add(c, i, j, depth+1);
+				nodes.childCount[node]++;
+				i = j;
+			}
+		}
+
+		this.labels = Arrays.copyOf(nodes.labels, nodes.size);
+		this.firstChild = Arrays.copyOf(nodes.firstChild, nodes.size);
+		this.childCount = Arrays.copyOf(nodes.childCount, nodes.size);
+		this.terminal = Arrays.copyOf(nodes.terminal, nodes.size);
+		this.from = Arrays.copyOf(nodes.from, nodes.size);
+		this.to = Arrays.copyOf(nodes.to, nodes.size);
+	}
+
+	/**
+	 * Busca la clave que coincide exactamente con el fragmento [start, end) de una cadena o, si no
+	 * existe, la única clave que empieza por él
+	 * @param source Cadena que contiene el fragmento
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Ordinal asociado, {@link #NOT_FOUND} o {@link #AMBIGUOUS}
+	 * */
+	public int findPrefix(String source, int start, int end) {
+		int node = find(source, start, end);
+		if(node<0){
+			return NOT_FOUND;
+		}
+		if(terminal[node]>=0){
+			return terminal[node];
+		}
+		return to[node]-from[node]==1 ? keyOrdinals[from[node]] : AMBIGUOUS;
+	}
+
+	/**
+	 * Obtiene las claves que empiezan por el fragmento [start, end) de una cadena
+	 * @param source Cadena que contiene el fragmento
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Claves ordenadas alfabéticamente
+	 * */
+	public List<String> getMatches(String source, int start, int end) {
+		int node = find(source, start, end);
+		if(node<0){
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(keys, from[node], to[node])));
+	}
+
+	/**
+	 * Busca el nodo que contiene las claves que empiezan por un fragmento
+	 * @return Nodo o -1 si ninguna clave empieza por el fragmento
+	 */
+	private int find(String source, int start, int end) {
+		if(keys.length==0 || start==end){
+			return -1;
+		}
+
+		int node = 0;
+		for (int i = start, depth = 0; ; i++, depth++) {
+
+			// Rama con una única clave: se compara el resto del fragmento
+			if(to[node]-from[node]==1){
+				String key = keys[from[node]];
+				int remaining = end-i;
+				return key.length()-depth>=remaining && key.regionMatches(depth, source, i, remaining) ? node : -1;
+			}
+			if(i==end){
+				return node;
+			}
+
+			char c = source.charAt(i);
+			int low = firstChild[node];
+			int high = low+childCount[node]-1;
+			node = -1;
+			while(low<=high){
+				int middle = (low+high)>>>1;
+				if(labels[middle]<c){
+					low = middle+1;
+				}else if(labels[middle]>c){
+					high = middle-1;
+				}else{
+					node = middle;
+					break;
+				}
+			}
+			if(node<0){
+				return -1;
+			}
+		}
+	}
+
+	/**
+	 * Nodos del árbol durante su construcción
+	 * */
+	private static final class NodeList {
+
+		/** Número de nodos */
+		private int size;
+
+		/** Carácter de cada nodo */
+		private char[] labels = new char[16];
+
+		/** Primer hijo de cada nodo */
+		private int[] firstChild = new int[16];
+
+		/** Número de hijos de cada nodo */
+		private int[] childCount = new int[16];
+
+		/** Ordinal de la clave que termina en cada nodo o -1 */
+		private int[] terminal = new int[16];
+
+		/** Primera clave de cada nodo */
+		private int[] from = new int[16];
+
+		/** Última clave de cada nodo, excluida */
+		private int[] to = new int[16];
+
+		/** Profundidad de cada nodo */
+		private int[] depth = new int[16];
+
+		/**
+		 * Añade un nodo
+		 */
+		private void add(char label, int start, int end, int level) {
+			if(size==labels.length){
+				int capacity = size*2;
+				labels = Arrays.copyOf(labels, capacity);
+				firstChild = Arrays.copyOf(firstChild, capacity);
+				childCount = Arrays.copyOf(childCount, capacity);
+				terminal = Arrays.copyOf(terminal, capacity);
+				from = Arrays.copyOf(from, capacity);
+				to = Arrays.copyOf(to, capacity);
+				depth = Arrays.copyOf(depth, capacity);
+			}
+			labels[size] = label;
+			terminal[size] = -1;
+			from[size] = start;
+			to[size] = end;
+			depth[size] = level;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,852 @@
+package es.home.parameterized.schema;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.annotations.ParameterOption;
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.impl.HelpParameterExecutable;
+import es.home.parameterized.interfaces.ParameterValidation;
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Esquema compilado e inmutable de las opciones de un enumerado {@link Parameterized}. Se construye
+ * una única vez por clase de enumerado, la primera vez que se solicita, y se comparte entre el
+ * parseador, las utilidades y la ayuda, de forma que la reflexión sobre las anotaciones solo se
+ * realiza una vez
+ * */
+public final class OptionSchema<T extends Enum<? extends Parameterized>> {
+
+	/** Esquemas compilados por clase de enumerado */
+	private static final ClassValue<OptionSchema<?>> SCHEMAS = new ClassValue<OptionSchema<?>>() {
+		@Override
+		protected OptionSchema<?> computeValue(Class<?> type) {
+			return compile(type);
+		}
+	};
+
+	/** Clase del enumerado */
+	private final Class<T> enumClass;
+
+	/** Elementos del enumerado ordenados por ordinal */
+	private final T[] constants;
+
+	/** Anotaciones {@link ParameterOption} por ordinal. Puede contener nulos */
+	private final ParameterOption[] parameterOptions;
+
+	/** Opciones de commons cli por ordinal. Puede contener nulos */
+	private final Option[] cliOptions;
+
+	/** Validaciones por ordinal */
+	private final List<List<CustomValidation>> validations;
+
+	/** Instancias de las validaciones por ordinal. Contiene nulos para las validaciones sin configuración */
+	private final List<List<ParameterValidation>> validators;
+
+	/** Elementos indexados por nombre largo */
+	private final Map<String, T> byName;
+
+	/** Elementos indexados por clave corta */
+	private final Map<String, T> byShortKey;
+
+	/** Claves, cortas y largas, que corresponden a opciones de ayuda */
+	private final Set<String> helpKeys;
+
+	/** Índice de nombres largos de las opciones con {@link ParameterOption} */
+	private final KeyIndex longKeys;
+
+	/** Índice de claves cortas de las opciones con {@link ParameterOption} */
+	private final KeyIndex shortKeys;
+
+	/** Árbol de prefijos de nombres largos a ordinales */
+	private final KeyTrie longKeyTrie;
+
+	/** Opción que commons cli resuelve para el nombre largo de cada ordinal */
+	private final int[] longKeyTargets;
+
+	/** Opciones de ayuda por ordinal */
+	private final boolean[] help;
+
+	/** Opciones con argumentos por ordinal */
+	private final boolean[] hasArgs;
+
+	/** Ordinales de las dependencias de cada ordinal */
+	private final int[][] dependencies;
+
+	/** Opciones de commons cli. No debe modificarse ni publicarse */
+	private final Options options;
+
+	/** Plan de validación. Se compila la primera vez que se solicita */
+	private volatile ValidationPlan<T> validationPlan;
+
+	/** Índice de sugerencias. Se construye la primera vez que se solicita */
+	private volatile SuggestionIndex suggestionIndex;
+
+	/**
+	 * Constructor
+	 * */
+	private OptionSchema(Class<T> enumClass, T[] constants, ParameterOption[] parameterOptions, List<List<CustomValidation>> validations, List<List<ParameterValidation>> validators) {
+		this.enumClass = enumClass;
+		this.constants = constants;
+		this.parameterOptions = parameterOptions;
+		this.validations = validations;
+		this.validators = validators;
+		this.cliOptions = new Option[constants.length];
+
+		Map<String, T> names = new HashMap<>();
+		Map<String, T> shortKeys = new HashMap<>();
+		Set<String> help = new HashSet<>();
+		Map<String, Integer> longKeyOrdinals = new HashMap<>();
+		Map<String, Integer> shortKeyOrdinals = new HashMap<>();
+		Options cli = new Options();
+		this.help = new boolean[constants.length];
+		this.hasArgs = new boolean[constants.length];
+		this.dependencies = new int[constants.length][];
+
+		Map<String, Integer> constantOrdinals = new HashMap<>();
+		for (T constant : constants) {
+			constantOrdinals.put(constant.name(), constant.ordinal());
+		}
+
+		for (T constant : constants) {
+			Parameterized parameterized = (Parameterized) constant;
+			names.put(parameterized.getName(), constant);
+			dependencies[constant.ordinal()] = new int[0];
+
+			ParameterOption parameterOption = parameterOptions[constant.ordinal()];
+			if(parameterOption!=null){
+				dependencies[constant.ordinal()] = resolveDependencies(constant, parameterOption.dependsOn(), constantOrdinals);
+				Option option = Option.builder(parameterOption.shortKey())
+					.longOpt(parameterized.getName())
+					.desc(parameterOption.description())
+					.hasArg(parameterOption.hasArgs())
+					.build();
+				cliOptions[constant.ordinal()] = option;
+				cli.addOption(option);
+				shortKeys.put(parameterOption.shortKey(), constant);
+				longKeyOrdinals.put(parameterized.getName(), constant.ordinal());
+				shortKeyOrdinals.put(parameterOption.shortKey(), constant.ordinal());
+				this.hasArgs[constant.ordinal()] = parameterOption.hasArgs();
+
+				if(parameterized.getParameterExecutable() instanceof HelpParameterExecutable){
+					help.add(parameterOption.shortKey());
+					help.add(parameterized.getName());
+					this.help[constant.ordinal()] = true;
+				}
+			}
+		}
+
+		this.byName = Collections.unmodifiableMap(names);
+		this.byShortKey = Collections.unmodifiableMap(shortKeys);
+		this.helpKeys = Collections.unmodifiableSet(help);
+		this.longKeys = new KeyIndex(longKeyOrdinals);
+		this.shortKeys = new KeyIndex(shortKeyOrdinals);
+		this.longKeyTrie = new KeyTrie(longKeyOrdinals);
+		this.longKeyTargets = new int[constants.length];
+		for (Map.Entry<String, Integer> entry : longKeyOrdinals.entrySet()) {
+			Integer target = shortKeyOrdinals.get(entry.getKey());
+			longKeyTargets[entry.getValue()] = target!=null ? target : entry.getValue();
+		}
+		this.options = cli;
+		checkCycles();
+	}
+
+	/**
+	 * Resuelve los ordinales de las dependencias de una opción
+	 * @param constant Opción
+	 * @param dependsOn Nombres de los elementos de los que depende
+	 * @param constantOrdinals Ordinales por nombre de elemento
+	 * @return Ordinales de las dependencias
+	 * @throws IllegalArgumentException Si alguna dependencia no existe
+	 */
+	private static int[] resolveDependencies(Enum<?> constant, String[] dependsOn, Map<String, Integer> constantOrdinals) {
+		int[] result = new int[dependsOn.length];
+		for (int i = 0; i < dependsOn.length; i++) {
+			Integer ordinal = constantOrdinals.get(dependsOn[i]);
+			if(ordinal==null){
+				throw new IllegalArgumentException("La opción "+constant.name()+" depende de un elemento inexistente: "+dependsOn[i]);
+			}
+			result[i] = ordinal;
+		}
+		return result;
+	}
+
+	/**
+	 * Comprueba que las dependencias entre opciones no forman ciclos
+	 * @throws IllegalArgumentException Si existe algún ciclo
+	 */
+	private void checkCycles() {
+		// 0: sin visitar, 1: en el camino actual, 2: comprobado
+		int[] state = new int[constants.length];
+		for (int ordinal = 0; ordinal < constants.length; ordinal++) {
+			checkCycles(ordinal, state);
+		}
+	}
+
+	/**
+	 * Comprueba de forma recursiva los ciclos que parten de un ordinal
+	 */
+	private void checkCycles(int ordinal, int[] state) {
+		if(state[ordinal]==2){
+			return;
+		}
+		if(state[ordinal]==1){
+			throw new IllegalArgumentException("Las dependencias de la opción "+constants[ordinal].name()+" forman un ciclo");
+		}
+		state[ordinal] = 1;
+		for (int dependency : dependencies[ordinal]) {
+			checkCycles(dependency, state);
+		}
+		state[ordinal] = 2;
+	}
+
+	/**
+	 * Obtiene el esquema compilado para una clase de enumerado
+	 * @param enumClass Clase del enumerado parametrizado
+	 * @return Devuelve el esquema asociado a la clase. Siempre es la misma instancia para una misma clase
+	 * @throws ParameterizedParserException Si la clase no es un enumerado parametrizado o no se pueden leer sus anotaciones
+	 * */
+	@SuppressWarnings("unchecked")
+	public static <T extends Enum<? extends Parameterized>> OptionSchema<T> forEnum(Class<T> enumClass) throws ParameterizedParserException {
+		try {
+			return (OptionSchema<T>) SCHEMAS.get(enumClass);
+		} catch (RuntimeException e) {
+			StringBuilder string = new StringBuilder("Excepción producida durante la compilación del esquema de opciones: ");
+			string.append(enumClass.getName());
+			throw new ParameterizedParserException(string.toString(), e);
+		}
+	}
+
+	/**
+	 * Obtiene el esquema compilado del enumerado al que pertenece un elemento
+	 * @param constant Elemento del enumerado
+	 * @return Devuelve el esquema asociado a la clase del elemento
+	 * @throws ParameterizedParserException
+	 * */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static OptionSchema<?> forConstant(Enum<? extends Parameterized> constant) throws ParameterizedParserException {
+		return forEnum((Class) constant.getDeclaringClass());
+	}
+
+	/**
+	 * Permite construir un esquema sin reflexión. Lo utiliza el código generado por el procesador
+	 * de anotaciones, que conoce en tiempo de compilación las opciones y validaciones del enumerado
+	 * @param enumClass Clase del enumerado
+	 * @param constants Elementos del enumerado, normalmente el resultado de values()
+	 * @return Devuelve un constructor de esquemas vacío
+	 * */
+	public static <T extends Enum<? extends Parameterized>> Builder<T> builder(Class<T> enumClass, T[] constants) {
+		return new Builder<>(enumClass, constants);
+	}
+
+	/**
+	 * Compila el esquema de una clase leyendo sus anotaciones
+	 * @param type Clase del enumerado
+	 * @return Esquema compilado
+	 * */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static OptionSchema<?> compile(Class<?> type) {
+		if(!type.isEnum() || !Parameterized.class.isAssignableFrom(type)){
+			throw new IllegalArgumentException("La clase "+type.getName()+" no es un enumerado "+Parameterized.class.getSimpleName());
+		}
+
+		Enum[] constants = (Enum[]) type.getEnumConstants();
+		ParameterOption[] parameterOptions = new ParameterOption[constants.length];
+		List<List<CustomValidation>> validations = new ArrayList<>(constants.length);
+		List<List<ParameterValidation>> validators = new ArrayList<>(constants.length);
+
+		for (Enum constant : constants) {
+			try {
+				Field field = type.getField(constant.name());
+				parameterOptions[constant.ordinal()] = field.getAnnotation(ParameterOption.class);
+
+				List<CustomValidation> fieldValidations = new ArrayList<>();
+				List<ParameterValidation> fieldValidators = new ArrayList<>();
+				collectValidations(fieldValidations, fieldValidators, null, field.getAnnotations());
+				validations.add(Collections.unmodifiableList(fieldValidations));
+				validators.add(Collections.unmodifiableList(fieldValidators));
+			} catch (NoSuchFieldException e) {
+				throw new IllegalStateException("No se puede acceder a la opción: "+constant.name(), e);
+			}
+		}
+
+		return new OptionSchema(type, constants, parameterOptions, Collections.unmodifiableList(validations), Collections.unmodifiableList(validators));
+	}
+
+	/**
+	 * Inyecta de forma recursiva las anotaciones de tipo Custom en una lista de anotaciones customizadas
+	 * @param result Lista en la que inyectar las anotaciones
+	 * @param validators Lista en la que inyectar las instancias configuradas de las validaciones, o null
+	 * para las que se comparten entre todos los planes
+	 * @param owner Anotación cuyas anotaciones se comprueban o null si son las del elemento
+	 * @param annotations Lista de anotaciones a comprobar
+	 */
+	private static void collectValidations(List<CustomValidation> result, List<ParameterValidation> validators, Annotation owner, Annotation[] annotations) {
+		if(annotations!=null){
+
+			// Se recorren para obtener las validaciones customizadas
+			for (Annotation annotation : annotations) {
+				if(CustomValidation.class.equals(annotation.annotationType())){
+					result.add((CustomValidation)annotation);
+					validators.add(configuredValidator(((CustomValidation)annotation).validationClass(), owner));
+				}else if(!Documented.class.equals(annotation.annotationType()) && !Target.class.equals(annotation.annotationType()) && !Retention.class.equals(annotation.annotationType())){
+					collectValidations(result, validators, annotation, annotation.annotationType().getAnnotations());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Instancia una validación configurada con los atributos de la anotación que la declara, si la clase
+	 * de la validación tiene un constructor que recibe esa anotación
+	 * @param validationClass Clase de la validación
+	 * @param owner Anotación que declara la validación o null si se declara directamente
+	 * @return Instancia de la validación o null si se comparte entre todos los planes
+	 */
+	private static ParameterValidation configuredValidator(Class<? extends ParameterValidation> validationClass, Annotation owner) {
+		if(owner==null){
+			return null;
+		}
+
+		Constructor<? extends ParameterValidation> constructor;
+		try {
+			constructor = validationClass.getConstructor(owner.annotationType());
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+		try {
+			return constructor.newInstance(owner);
+		} catch (InvocationTargetException e) {
+			throw new IllegalArgumentException("Configuración no válida de la validación: "+owner, e.getCause());
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("No se puede instanciar la validación: "+validationClass.getName(), e);
+		}
+	}
+
+	/**
+	 * Obtiene la clase del enumerado del esquema
+	 * @return Clase del enumerado
+	 * */
+	public Class<T> getEnumClass() {
+		return enumClass;
+	}
+
+	/**
+	 * Obtiene una copia de los elementos del enumerado ordenados por ordinal
+	 * @return Elementos del enumerado
+	 * */
+	public T[] getConstants() {
+		return constants.clone();
+	}
+
+	/**
+	 * Obtiene el número de elementos del enumerado
+	 * @return Número de elementos
+	 * */
+	public int size() {
+		return constants.length;
+	}
+
+	/**
+	 * Obtiene un elemento del enumerado por su ordinal
+	 * @param ordinal Ordinal del elemento
+	 * @return Elemento del enumerado
+	 * */
+	public T getConstant(int ordinal) {
+		return constants[ordinal];
+	}
+
+	/**
+	 * Obtiene una copia de las opciones de commons cli del esquema. Se crea en cada llamada, por lo que
+	 * puede modificarse sin afectar al esquema
+	 * @return Opciones de commons cli
+	 * */
+	public Options getOptions() {
+		Options copy = new Options();
+		for (Option option : cliOptions) {
+			if(option!=null){
+				copy.addOption((Option) option.clone());
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Procesa unos argumentos con el {@code DefaultParser} de commons cli sobre las opciones del
+	 * esquema, sin copiarlas
+	 * @param args Argumentos de línea de comandos
+	 * @return Línea de comandos de commons cli
+	 * @throws ParseException Si los argumentos no son correctos
+	 * */
+	public CommandLine parse(String[] args) throws ParseException {
+		return new DefaultParser().parse(options, args);
+	}
+
+	/**
+	 * Obtiene la opción de commons cli de un elemento. La instancia es compartida y no debe modificarse
+	 * @param option Elemento del enumerado
+	 * @return Devuelve la opción o null si el elemento no tiene {@link ParameterOption}
+	 * */
+	public Option getOption(Enum<? extends Parameterized> option) {
+		return cliOptions[option.ordinal()];
+	}
+
+	/**
+	 * Obtiene la anotación {@link ParameterOption} de un elemento
+	 * @param option Elemento del enumerado
+	 * @return Devuelve la anotación o null si el elemento no la contiene
+	 * */
+	public ParameterOption getParameterOption(Enum<? extends Parameterized> option) {
+		return parameterOptions[option.ordinal()];
+	}
+
+	/**
+	 * Obtiene las validaciones de un elemento
+	 * @param option Elemento del enumerado
+	 * @return Lista inmutable de validaciones. Si no tiene validaciones se devuelve una lista vacía
+	 * */
+	public List<CustomValidation> getValidations(Enum<? extends Parameterized> option) {
+		return validations.get(option.ordinal());
+	}
+
+	/**
+	 * Obtiene las instancias de las validaciones de un elemento, en el mismo orden que {@link #getValidations(Enum)}
+	 * @param option Elemento del enumerado
+	 * @return Lista inmutable de validaciones. Los elementos nulos corresponden a validaciones sin
+	 * configuración, que se instancian una única vez a partir de {@link CustomValidation#validationClass()}
+	 * */
+	public List<ParameterValidation> getValidators(Enum<? extends Parameterized> option) {
+		return validators.get(option.ordinal());
+	}
+
+	/**
+	 * Obtiene el plan de validación del esquema, compilándolo la primera vez que se solicita
+	 * @return Plan de validación
+	 * @throws ParameterizedParserException Si alguna de las validaciones no se puede instanciar
+	 * */
+	public ValidationPlan<T> getValidationPlan() throws ParameterizedParserException {
+		ValidationPlan<T> plan = validationPlan;
+		if(plan==null){
+			plan = ValidationPlan.compile(this);
+			validationPlan = plan;
+		}
+		return plan;
+	}
+
+	/**
+	 * Busca un elemento por su nombre largo
+	 * @param name Nombre largo
+	 * @return Devuelve el elemento o null si no existe
+	 * */
+	public T findByName(String name) {
+		return byName.get(name);
+	}
+
+	/**
+	 * Busca un elemento por su clave corta
+	 * @param shortKey Clave corta
+	 * @return Devuelve el elemento o null si no existe
+	 * */
+	public T findByShortKey(String shortKey) {
+		return byShortKey.get(shortKey);
+	}
+
+	/**
+	 * Obtiene el índice de nombres largos de las opciones con {@link ParameterOption}
+	 * @return Índice de nombres largos a ordinales
+	 * */
+	public KeyIndex getLongKeys() {
+		return longKeys;
+	}
+
+	/**
+	 * Obtiene el índice de claves cortas de las opciones con {@link ParameterOption}
+	 * @return Índice de claves cortas a ordinales
+	 * */
+	public KeyIndex getShortKeys() {
+		return shortKeys;
+	}
+
+	/**
+	 * Obtiene el árbol de prefijos de nombres largos de las opciones con {@link ParameterOption}
+	 * @return Árbol de nombres largos a ordinales para resolver abreviaturas
+	 * */
+	public KeyTrie getLongKeyTrie() {
+		return longKeyTrie;
+	}
+
+	/**
+	 * Obtiene la opción que commons cli resuelve para el nombre largo de una opción. commons cli busca
+	 * primero entre las claves cortas, por lo que si el nombre coincide con la clave corta de otra
+	 * opción se resuelve esa otra opción
+	 * @param ordinal Ordinal de la opción con el nombre largo
+	 * @return Ordinal de la opción resuelta
+	 * */
+	public int getLongKeyTarget(int ordinal) {
+		return longKeyTargets[ordinal];
+	}
+
+	/**
+	 * Busca las opciones más parecidas a una clave desconocida, construyendo el índice la primera vez
+	 * que se solicita
+	 * @param key Clave sin guiones iniciales
+	 * @return Opciones tal como se escriben en la línea de comandos, de la más parecida a la menos
+	 * */
+	public List<String> suggest(String key) {
+		SuggestionIndex index = suggestionIndex;
+		if(index==null){
+			Map<String, String> entries = new HashMap<>();
+
+			// Las claves cortas de un carácter se parecen a todas las demás, por lo que no se sugieren
+			for (T constant : constants) {
+				ParameterOption parameterOption = parameterOptions[constant.ordinal()];
+				if(parameterOption!=null && parameterOption.shortKey().length()>1){
+					entries.put(parameterOption.shortKey(), "-"+parameterOption.shortKey());
+				}
+			}
+			for (T constant : constants) {
+				if(parameterOptions[constant.ordinal()]!=null){
+					String name = ((Parameterized) constant).getName();
+					entries.put(name, "--"+name);
+				}
+			}
+			index = new SuggestionIndex(entries);
+			suggestionIndex = index;
+		}
+		return index.suggest(key);
+	}
+
+	/**
+	 * Determina si la opción de un ordinal tiene argumentos
+	 * @param ordinal Ordinal del elemento
+	 * @return true si el elemento tiene {@link ParameterOption} con hasArgs
+	 * */
+	public boolean hasArgs(int ordinal) {
+		return hasArgs[ordinal];
+	}
+
+	/**
+	 * Obtiene los ordinales de los que depende una opción según {@link ParameterOption#dependsOn()}
+	 * @param ordinal Ordinal del elemento
+	 * @return Ordinales de las dependencias. No debe modificarse
+	 * */
+	public int[] getDependencies(int ordinal) {
+		return dependencies[ordinal];
+	}
+
+	/**
+	 * Determina si la opción de un ordinal es una opción de ayuda
+	 * @param ordinal Ordinal del elemento
+	 * @return true si el ejecutable del elemento es {@link HelpParameterExecutable}
+	 * */
+	public boolean isHelp(int ordinal) {
+		return help[ordinal];
+	}
+
+	/**
+	 * Determina si una clave, corta o larga, corresponde a una opción de ayuda
+	 * @param key Clave sin guiones iniciales
+	 * @return true si la clave corresponde a una opción cuyo ejecutable es {@link HelpParameterExecutable}
+	 * */
+	public boolean isHelpKey(String key) {
+		return helpKeys.contains(key);
+	}
+
+	/**
+	 * Constructor de esquemas sin reflexión
+	 * */
+	public static final class Builder<T extends Enum<? extends Parameterized>> {
+
+		/** Clase del enumerado */
+		private final Class<T> enumClass;
+
+		/** Elementos del enumerado */
+		private final T[] constants;
+
+		/** Opciones por ordinal */
+		private final ParameterOption[] parameterOptions;
+
+		/** Validaciones por ordinal */
+		private final List<List<CustomValidation>> validations;
+
+		/** Instancias de las validaciones por ordinal */
+		private final List<List<ParameterValidation>> validators;
+
+		/**
+		 * Constructor
+		 * */
+		private Builder(Class<T> enumClass, T[] constants) {
+			this.enumClass = enumClass;
+			this.constants = constants.clone();
+			this.parameterOptions = new ParameterOption[constants.length];
+			this.validations = new ArrayList<>(constants.length);
+			this.validators = new ArrayList<>(constants.length);
+			for (int i = 0; i < constants.length; i++) {
+				validations.add(new ArrayList<CustomValidation>());
+				validators.add(new ArrayList<ParameterValidation>());
+			}
+		}
+
+		/**
+		 * Define las opciones de un elemento. Equivale a anotarlo con {@link ParameterOption}
+		 * @param option Elemento del enumerado
+		 * @param shortKey Clave corta
+		 * @param description Descripción
+		 * @param hasArgs Determina si la opción tiene argumentos
+		 * @return El propio constructor
+		 * */
+		public Builder<T> option(T option, String shortKey, String description, boolean hasArgs) {
+			return option(option, shortKey, description, hasArgs, new String[0]);
+		}
+
+		/**
+		 * Define las opciones de un elemento con dependencias. Equivale a anotarlo con {@link ParameterOption}
+		 * @param option Elemento del enumerado
+		 * @param shortKey Clave corta
+		 * @param description Descripción
+		 * @param hasArgs Determina si la opción tiene argumentos
+		 * @param dependsOn Nombres de los elementos de los que depende
+		 * @return El propio constructor
+		 * */
+		public Builder<T> option(T option, String shortKey, String description, boolean hasArgs, String... dependsOn) {
+			parameterOptions[option.ordinal()] = new ParameterOptionDefinition(shortKey, description, hasArgs, dependsOn.clone());
+			return this;
+		}
+
+		/**
+		 * Añade una validación a un elemento. Equivale a anotarlo con una anotación de {@link CustomValidation}
+		 * @param option Elemento del enumerado
+		 * @param validator Instancia de la validación
+		 * @return El propio constructor
+		 * */
+		public Builder<T> validation(T option, ParameterValidation validator) {
+			validations.get(option.ordinal()).add(new CustomValidationDefinition(validator.getClass(), false, CustomValidationDefinition.DEFAULT_CACHE_SIZE, 0));
+			validators.get(option.ordinal()).add(validator);
+			return this;
+		}
+
+		/**
+		 * Añade a un elemento una validación cuyos resultados se guardan en caché. Equivale a anotarlo con
+		 * una anotación de {@link CustomValidation} con {@link CustomValidation#cacheable()}
+		 * @param option Elemento del enumerado
+		 * @param validator Instancia de la validación
+		 * @param cacheSize Número máximo de valores en caché
+		 * @param cacheTtl Milisegundos durante los que un resultado es válido o 0 para que no caduque
+		 * @return El propio constructor
+		 * */
+		public Builder<T> validation(T option, ParameterValidation validator, int cacheSize, long cacheTtl) {
+			validations.get(option.ordinal()).add(new CustomValidationDefinition(validator.getClass(), true, cacheSize, cacheTtl));
+			validators.get(option.ordinal()).add(validator);
+			return this;
+		}
+
+		/**
+		 * Construye el esquema
+		 * @return Esquema inmutable
+		 * */
+		public OptionSchema<T> build() {
+			List<List<CustomValidation>> builtValidations = new ArrayList<>(constants.length);
+			List<List<ParameterValidation>> builtValidators = new ArrayList<>(constants.length);
+			for (int i = 0; i < constants.length; i++) {
+				builtValidations.add(Collections.unmodifiableList(new ArrayList<>(validations.get(i))));
+				builtValidators.add(Collections.unmodifiableList(new ArrayList<>(validators.get(i))));
+			}
+			return new OptionSchema<>(
+				enumClass,
+				constants.clone(),
+				parameterOptions.clone(),
+				Collections.unmodifiableList(builtValidations),
+				Collections.unmodifiableList(builtValidators)
+			);
+		}
+	}
+
+	/**
+	 * Implementación de {@link ParameterOption} para esquemas construidos sin reflexión
+	 * */
+	private static final class ParameterOptionDefinition implements ParameterOption {
+
+		/** Clave corta */
+		private final String shortKey;
+
+		/** Descripción */
+		private final String description;
+
+		/** Determina si la opción tiene argumentos */
+		private final boolean hasArgs;
+
+		/** Dependencias */
+		private final String[] dependsOn;
+
+		/**
+		 * Constructor
+		 * */
+		private ParameterOptionDefinition(String shortKey, String description, boolean hasArgs, String[] dependsOn) {
+			this.shortKey = shortKey;
+			this.description = description;
+			this.hasArgs = hasArgs;
+			this.dependsOn = dependsOn;
+		}
+
+		@Override
+		public Class<? extends Annotation> annotationType() {
+			return ParameterOption.class;
+		}
+
+		@Override
+		public String shortKey() {
+			return shortKey;
+		}
+
+		@Override
+		public String description() {
+			return description;
+		}
+
+		@Override
+		public boolean hasArgs() {
+			return hasArgs;
+		}
+
+		@Override
+		public String[] dependsOn() {
+			return dependsOn.clone();
+		}
+
+		/**
+		 * Compara los atributos con los de cualquier implementación de {@link ParameterOption}, como
+		 * indica {@link Annotation#equals(Object)}
+		 * */
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof ParameterOption)){
+				return false;
+			}
+			ParameterOption other = (ParameterOption) obj;
+			return shortKey.equals(other.shortKey()) && description.equals(other.description()) && hasArgs==other.hasArgs()
+				&& Arrays.equals(dependsOn, other.dependsOn());
+		}
+
+		/**
+		 * Suma de los códigos de los atributos, como indica {@link Annotation#hashCode()}
+		 * */
+		@Override
+		public int hashCode() {
+			return (127*"shortKey".hashCode() ^ shortKey.hashCode())
+				+ (127*"description".hashCode() ^ description.hashCode())
+				+ (127*"hasArgs".hashCode() ^ Boolean.valueOf(hasArgs).hashCode())
+				+ (127*"dependsOn".hashCode() ^ Arrays.hashCode(dependsOn));
+		}
+
+		@Override
+		public String toString() {
+			return "@"+ParameterOption.class.getName()+"(shortKey="+shortKey+", description="+description+", hasArgs="+hasArgs+", dependsOn="+Arrays.toString(dependsOn)+")";
+		}
+	}
+
+	/**
+	 * Implementación de {@link CustomValidation} para esquemas construidos sin reflexión
+	 * */
+	private static final class CustomValidationDefinition implements CustomValidation {
+
+		/** Valor por defecto de {@link CustomValidation#cacheSize()}, para que la anotación sea igual a la obtenida por reflexión */
+		private static final int DEFAULT_CACHE_SIZE = 1024;
+
+		/** Clase de la validación */
+		private final Class<? extends ParameterValidation> validationClass;
+
+		/** Determina si los resultados se guardan en caché */
+		private final boolean cacheable;
+
+		/** Número máximo de valores en caché */
+		private final int cacheSize;
+
+		/** Milisegundos durante los que un resultado es válido */
+		private final long cacheTtl;
+
+		/**
+		 * Constructor
+		 * */
+		private CustomValidationDefinition(Class<? extends ParameterValidation> validationClass, boolean cacheable, int cacheSize, long cacheTtl) {
+			this.validationClass = validationClass;
+			this.cacheable = cacheable;
+			this.cacheSize = cacheSize;
+			this.cacheTtl = cacheTtl;
+		}
+
+		@Override
+		public Class<? extends Annotation> annotationType() {
+			return CustomValidation.class;
+		}
+
+		@Override
+		public Class<? extends ParameterValidation> validationClass() {
+			return validationClass;
+		}
+
+		@Override
+		public boolean cacheable() {
+			return cacheable;
+		}
+
+		@Override
+		public int cacheSize() {
+			return cacheSize;
+		}
+
+		@Override
+		public long cacheTtl() {
+			return cacheTtl;
+		}
+
+		/**
+		 * Compara los atributos con los de cualquier implementación de {@link CustomValidation}, como
+		 * indica {@link Annotation#equals(Object)}
+		 * */
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof CustomValidation)){
+				return false;
+			}
+			CustomValidation other = (CustomValidation) obj;
+			return validationClass==other.validationClass() && cacheable==other.cacheable() && cacheSize==other.cacheSize()
+				&& cacheTtl==other.cacheTtl();
+		}
+
+		/**
+		 * Suma de los códigos de los atributos, como indica {@link Annotation#hashCode()}
+		 * */
+		@Override
+		public int hashCode() {
+			return (127*"validationClass".hashCode() ^ validationClass.hashCode())
+				+ (127*"cacheable".hashCode() ^ Boolean.valueOf(cacheable).hashCode())
+				+ (127*"cacheSize".hashCode() ^ Integer.valueOf(cacheSize).hashCode())
+				+ (127*"cacheTtl".hashCode() ^ Long.valueOf(cacheTtl).hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return "@"+CustomValidation.class.getName()+"(validationClass="+validationClass.getName()+".class, cacheable="+cacheable+", cacheSize="+cacheSize+", cacheTtl="+cacheTtl+")";
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package es.home.parameterized.schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Árbol BK de las claves de las opciones para sugerir las más parecidas a una clave desconocida. Cada
+ * nodo guarda sus hijos por su distancia de edición, de forma que una búsqueda con distancia máxima
+ * {@code d} solo desciende por los hijos cuya distancia está a menos de {@code d} de la del nodo y no
+ * compara la clave con todas las opciones. Solo se utiliza al informar de los errores
+ * */
+final class SuggestionIndex {
+
+	/** Número máximo de sugerencias */
+	static final int MAX_SUGGESTIONS = 3;
+
+	/** Claves de los nodos sin guiones */
+	private final String[] keys;
+
+	/** Claves de los nodos tal como se escriben en la línea de comandos */
+	private final String[] options;
+
+	/** Primer hijo de cada nodo o -1 */
+	private final int[] firstChild;
+
+	/** Siguiente hermano de cada nodo o -1 */
+	private final int[] nextSibling;
+
+	/** Distancia de cada nodo a su padre */
+	private final int[] distances;
+
+	/**
+	 * Constructor
+	 * @param entries Claves sin guiones y su forma en la línea de comandos
+	 * */
+	SuggestionIndex(Map<String, String> entries) {
+		this.keys = entries.keySet().toArray(new String[entries.size()]);
+		Arrays.sort(keys);
+		this.options = new String[keys.length];
+		this.firstChild = new int[keys.length];
+		this.nextSibling = new int[keys.length];
+		this.distances = new int[keys.length];
+		Arrays.fill(firstChild, -1);
+		Arrays.fill(nextSibling, -1);
+
+		for (int i = 0; i < keys.length; i++) {
+			options[i] = entries.get(keys[i]);
+			if(i>0){
+				insert(i);
+			}
+		}
+	}
+
+	/**
+	 * Busca las claves más parecidas a una clave desconocida. Se admiten uno o dos cambios según la
+	 * longitud de la clave
+	 * @param key Clave sin guiones
+	 * @return Hasta {@link #MAX_SUGGESTIONS} opciones tal como se escriben en la línea de comandos,
+	 * ordenadas por distancia y después alfabéticamente
+	 * */
+	List<String> suggest(String key) {
+		if(keys.length==0 || key.isEmpty()){
+			return Collections.emptyList();
+		}
+
+		int maxDistance = key.length()<=3 ? 1 : 2;
+		List<long[]> matches = new ArrayList<>();
+		int[] pending = new int[keys.length];
+		int pendingCount = 0;
+		pending[pendingCount++] = 0;
+		while(pendingCount>0){
+			int node = pending[--pendingCount];
+			int distance = distance(key, keys[node]);
+			if(distance<=maxDistance){
+				matches.add(new long[]{distance, node});
+			}
+			for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+				if(Math.abs(distances[child]-distance)<=maxDistance){
+					pending[pendingCount++] = child;
+				}
+			}
+		}
+
+		// Las claves están ordenadas, por lo que el nodo desempata alfabéticamente
+		long[] order = new long[matches.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = (matches.get(i)[0]<<32) | matches.get(i)[1];
+		}
+		Arrays.sort(order);
+		List<String> result = new ArrayList<>(Math.min(order.length, MAX_SUGGESTIONS));
+		for (int i = 0; i < order.length && i < MAX_SUGGESTIONS; i++) {
+			result.add(options[(int) order[i]]);
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Inserta un nodo bajo la raíz
+	 * @param node Nodo a insertar
+	 */
+	private void insert(int node) {
+		int parent = 0;
+		while(true){
+			int distance = distance(keys[node], keys[parent]);
+			int child = firstChild[parent];
+			while(child>=0 && distances[child]!=distance){
+				child = nextSibling[child];
+			}
+			if(child<0){
+				distances[node] = distance;
+				nextSibling[node] = firstChild[parent];
+				firstChild[parent] = node;
+				return;
+			}
+			parent = child;
+		}
+	}
+
+	/**
+	 * Calcula la distancia de Levenshtein entre dos cadenas con dos filas
+	 * @return Número mínimo de inserciones, borrados y sustituciones
+	 */
+	static int distance(String a, String b) {
+		int[] previous = new int[b.length()+1];
+		int[] current = new int[b.length()+1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			char c = a.charAt(i-1);
+			for (int j = 1; j <= b.length(); j++) {
+				int substitution = previous[j-1]+(c==b.charAt(j-1) ? 0 : 1);
+				current[j] = Math.min(substitution, Math.min(previous[j], current[j-1])+1);
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()];
+	}
+}
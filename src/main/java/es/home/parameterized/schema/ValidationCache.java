@@ -0,0 +1,148 @@
+package es.home.parameterized.schema;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.interfaces.ParameterValidation;
+
+/**
+ * Caché de los resultados de una validación declarada con {@link CustomValidation#cacheable()}. Guarda
+ * el resultado de cada valor hasta {@link CustomValidation#cacheSize()} valores, descartando el
+ * utilizado hace más tiempo, y durante {@link CustomValidation#cacheTtl()} milisegundos si se indica.
+ * Vive tanto como el plan de validación, que se comparte entre todos los parseos del enumerado. Las
+ * validaciones que el plan comparte entre varias opciones comparten también la caché
+ * */
+public final class ValidationCache implements ParameterValidation {
+
+	/** Validación */
+	private final ParameterValidation validation;
+
+	/** Nanosegundos durante los que un resultado es válido o 0 si no caducan */
+	private final long ttl;
+
+	/** Resultados por valor, ordenados por último acceso */
+	private final Map<String, Entry> entries;
+
+	/** Valores encontrados en caché */
+	private final AtomicLong hits = new AtomicLong();
+
+	/** Valores validados */
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Constructor
+	 * @param validation Validación
+	 * @param size Número máximo de valores
+	 * @param ttlMillis Milisegundos durante los que un resultado es válido o 0 para que no caduque
+	 * */
+	ValidationCache(ParameterValidation validation, final int size, long ttlMillis) {
+		if(size<=0 || ttlMillis<0){
+			throw new IllegalArgumentException("Configuración no válida de la caché: tamaño "+size+", caducidad "+ttlMillis);
+		}
+		this.validation = validation;
+		this.ttl = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size()>size;
+			}
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Devuelve el resultado en caché o, si no existe o ha caducado, el de la validación. La validación
+	 * se ejecuta fuera del bloqueo, por lo que un mismo valor puede validarse a la vez en varios hilos
+	 */
+	@Override
+	public boolean isParamValid(String paramValue) {
+		long now = ttl>0 ? System.nanoTime() : 0;
+		synchronized (entries) {
+			Entry entry = entries.get(paramValue);
+			if(entry!=null && (ttl==0 || now-entry.time<ttl)){
+				hits.incrementAndGet();
+				return entry.valid;
+			}
+		}
+
+		misses.incrementAndGet();
+		boolean valid = validation.isParamValid(paramValue);
+		synchronized (entries) {
+			entries.put(paramValue, new Entry(valid, now));
+		}
+		return valid;
+	}
+
+	/**
+	 * Obtiene la validación cuyos resultados se guardan
+	 * @return Validación
+	 * */
+	public ParameterValidation getValidation() {
+		return validation;
+	}
+
+	/**
+	 * Obtiene el número de valores cuyo resultado se ha encontrado en caché
+	 * @return Aciertos
+	 * */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Obtiene el número de valores que se han tenido que validar
+	 * @return Fallos
+	 * */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Obtiene el número de valores en caché, incluidos los caducados que aún no se han sustituido
+	 * @return Número de valores
+	 * */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Descarta todos los resultados. No reinicia los contadores
+	 * */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ValidationCache("+validation.getClass().getName()+", hits="+hits+", misses="+misses+")";
+	}
+
+	/**
+	 * Resultado de un valor
+	 * */
+	private static final class Entry {
+
+		/** Resultado */
+		private final boolean valid;
+
+		/** Momento de la validación en nanosegundos */
+		private final long time;
+
+		/**
+		 * Constructor
+		 * */
+		private Entry(boolean valid, long time) {
+			this.valid = valid;
+			this.time = time;
+		}
+	}
+}
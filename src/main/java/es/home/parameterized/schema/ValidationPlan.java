@@ -0,0 +1,591 @@
+package es.home.parameterized.schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import es.home.parameterized.annotations.CustomValidation;
+import es.home.parameterized.exception.ParameterizedParserException;
+import es.home.parameterized.impl.ParameterNotEmptyValidation;
+import es.home.parameterized.impl.ParameterNotNullValidation;
+import es.home.parameterized.impl.ParameterPathExistsValidation;
+import es.home.parameterized.interfaces.CharSequenceParameterValidation;
+import es.home.parameterized.interfaces.ParameterSource;
+import es.home.parameterized.interfaces.ParameterValidation;
+import es.home.parameterized.interfaces.ParserListener;
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Plan de validación precompilado de un enumerado {@link Parameterized}. Contiene, por cada elemento,
+ * las anotaciones de validación y sus instancias ya construidas. Las implementaciones de
+ * {@link ParameterValidation} sin configuración se instancian una vez por clase en cada plan, salvo las
+ * validaciones sin estado de la librería, cuya única instancia se comparte entre todos los planes. Las
+ * que se configuran con los atributos de su anotación se instancian una vez por elemento al compilar
+ * el esquema
+ * */
+public final class ValidationPlan<T extends Enum<? extends Parameterized>> {
+
+	/** Instancias compartidas de las validaciones sin estado de la librería por clase */
+	private static final Map<Class<?>, ParameterValidation> SHARED_VALIDATORS;
+	static {
+		Map<Class<?>, ParameterValidation> shared = new HashMap<>();
+		shared.put(ParameterNotEmptyValidation.class, new ParameterNotEmptyValidation());
+		shared.put(ParameterNotNullValidation.class, new ParameterNotNullValidation());
+		shared.put(ParameterPathExistsValidation.class, new ParameterPathExistsValidation());
+		SHARED_VALIDATORS = Collections.unmodifiableMap(shared);
+	}
+
+	/** Grupo de hilos por defecto de la validación masiva. Se crea la primera vez que se necesita */
+	private static ForkJoinPool sharedPool;
+
+	/** Número de registros que se leen y validan en paralelo en cada bloque */
+	private static final int CHUNK = 8192;
+
+	/** Número de registros por debajo del cual una tarea no se divide */
+	private static final int THRESHOLD = 256;
+
+	/** Elementos del enumerado ordenados por ordinal */
+	private final T[] constants;
+
+	/** Anotaciones de validación por ordinal */
+	private final CustomValidation[][] validations;
+
+	/** Instancias de validación por ordinal */
+	private final ParameterValidation[][] validators;
+
+	/** Posición del bit de la primera validación de cada ordinal */
+	private final int[] offsets;
+
+	/** Ordinal de cada bit de validación */
+	private final int[] bitOrdinals;
+
+	/** Ordinales con alguna validación */
+	private final int[] validated;
+
+	/**
+	 * Constructor
+	 * */
+	private ValidationPlan(T[] constants, CustomValidation[][] validations, ParameterValidation[][] validators) {
+		this.constants = constants;
+		this.validations = validations;
+		this.validators = validators;
+		this.offsets = new int[constants.length+1];
+
+		int validatedCount = 0;
+		for (int ordinal = 0; ordinal < constants.length; ordinal++) {
+			offsets[ordinal+1] = offsets[ordinal]+validators[ordinal].length;
+			if(validators[ordinal].length>0){
+				validatedCount++;
+			}
+		}
+		this.bitOrdinals = new int[offsets[constants.length]];
+		this.validated = new int[validatedCount];
+		for (int ordinal = 0, v = 0; ordinal < constants.length; ordinal++) {
+			for (int bit = offsets[ordinal]; bit < offsets[ordinal+1]; bit++) {
+				bitOrdinals[bit] = ordinal;
+			}
+			if(validators[ordinal].length>0){
+				validated[v++] = ordinal;
+			}
+		}
+	}
+
+	/**
+	 * Compila el plan de validación de un esquema
+	 * @param schema Esquema de opciones
+	 * @return Plan de validación
+	 * @throws ParameterizedParserException Si alguna de las validaciones no se puede instanciar
+	 * */
+	static <T extends Enum<? extends Parameterized>> ValidationPlan<T> compile(OptionSchema<T> schema) throws ParameterizedParserException {
+		T[] constants = schema.getConstants();
+		CustomValidation[][] validations = new CustomValidation[constants.length][];
+		ParameterValidation[][] validators = new ParameterValidation[constants.length][];
+		Map<CacheKey, ValidationCache> caches = new HashMap<>();
+		Map<Class<?>, ParameterValidation> instances = new HashMap<>();
+
+		for (T option : constants) {
+			List<CustomValidation> optionValidations = schema.getValidations(option);
+			List<ParameterValidation> optionValidators = schema.getValidators(option);
+
+			int ordinal = option.ordinal();
+			validations[ordinal] = optionValidations.toArray(new CustomValidation[optionValidations.size()]);
+			validators[ordinal] = new ParameterValidation[optionValidations.size()];
+			for (int i = 0; i < optionValidations.size(); i++) {
+				CustomValidation validation = optionValidations.get(i);
+				ParameterValidation validator = optionValidators.get(i);
+				if(validator==null){
+					validator = validator(instances, validation, option);
+				}
+				validators[ordinal][i] = validation.cacheable() ? cache(caches, validator, validation, option) : validator;
+			}
+		}
+		return new ValidationPlan<>(constants, validations, validators);
+	}
+
+	/**
+	 * Obtiene la instancia de una validación sin configuración. Las validaciones sin estado de la
+	 * librería se comparten entre todos los planes y el resto se instancian una vez por plan
+	 * @param instances Instancias ya creadas en el plan por clase
+	 * @param validation Anotación de validación
+	 * @param option Elemento al que pertenece la validación
+	 * @return Instancia de la validación
+	 * @throws ParameterizedParserException Si la validación no se puede instanciar
+	 */
+	private static ParameterValidation validator(Map<Class<?>, ParameterValidation> instances, CustomValidation validation, Enum<?> option) throws ParameterizedParserException {
+		Class<? extends ParameterValidation> type = validation.validationClass();
+		ParameterValidation validator = SHARED_VALIDATORS.get(type);
+		if(validator==null){
+			validator = instances.get(type);
+		}
+		if(validator!=null){
+			return validator;
+		}
+		try {
+			validator = type.getConstructor().newInstance();
+			instances.put(type, validator);
+			return validator;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			StringBuilder string = new StringBuilder("Excepción producida al obtener las validaciones de la opción: ");
+			string.append(option.name());
+			throw new ParameterizedParserException(string.toString(), e);
+		}
+	}
+
+	/**
+	 * Crea una copia del plan que notifica la duración y el resultado de cada validación. El plan
+	 * original no se modifica ni mide tiempos
+	 * @param listener Receptor de las métricas
+	 * @return Plan instrumentado
+	 */
+	public ValidationPlan<T> withListener(ParserListener listener) {
+		ParameterValidation[][] timed = new ParameterValidation[constants.length][];
+		for (int ordinal = 0; ordinal < constants.length; ordinal++) {
+			timed[ordinal] = new ParameterValidation[validators[ordinal].length];
+			for (int i = 0; i < timed[ordinal].length; i++) {
+				timed[ordinal][i] = new TimedValidation(validators[ordinal][i], (Parameterized) constants[ordinal], validations[ordinal][i], listener);
+			}
+		}
+		return new ValidationPlan<>(constants, validations, timed);
+	}
+
+	/**
+	 * Obtiene la caché de una validación. Las instancias compartidas dentro del plan comparten la caché
+	 * si se declaran con el mismo tamaño y la misma caducidad
+	 * @param caches Cachés ya creadas por instancia de validación y configuración
+	 * @param validator Instancia de la validación
+	 * @param validation Anotación con la configuración de la caché
+	 * @param option Elemento al que pertenece la validación
+	 * @return Caché de la validación
+	 * @throws ParameterizedParserException Si la configuración de la caché no es válida
+	 */
+	private static ValidationCache cache(Map<CacheKey, ValidationCache> caches, ParameterValidation validator, CustomValidation validation, Enum<?> option) throws ParameterizedParserException {
+		CacheKey key = new CacheKey(validator, validation.cacheSize(), validation.cacheTtl());
+		ValidationCache cache = caches.get(key);
+		if(cache==null){
+			try {
+				cache = new ValidationCache(validator, validation.cacheSize(), validation.cacheTtl());
+			} catch (IllegalArgumentException e) {
+				StringBuilder string = new StringBuilder("Excepción producida al obtener las validaciones de la opción: ");
+				string.append(option.name());
+				throw new ParameterizedParserException(string.toString(), e);
+			}
+			caches.put(key, cache);
+		}
+		return cache;
+	}
+
+	/**
+	 * Ejecuta todas las validaciones
+	 * @param values Valores de cada opción indexados por ordinal. Un valor nulo indica que la opción no tiene valor
+	 * @return Validaciones no superadas por opción. Si no hay fallos, se devuelve un mapa vacío
+	 * */
+	public Map<T, List<CustomValidation>> validate(String[] values) {
+		return validate(values, new int[values.length], lengths(values));
+	}
+
+	/**
+	 * Ejecuta todas las validaciones sobre fragmentos de texto, sin crear las cadenas de los valores
+	 * para las validaciones {@link CharSequenceParameterValidation}
+	 * @param sources Texto que contiene el valor de cada opción indexado por ordinal. Un texto nulo
+	 * indica que la opción no tiene valor
+	 * @param starts Posición inicial de cada valor, incluida
+	 * @param ends Posición final de cada valor, excluida
+	 * @return Validaciones no superadas por opción. Si no hay fallos, se devuelve un mapa vacío
+	 * */
+	public Map<T, List<CustomValidation>> validate(CharSequence[] sources, int[] starts, int[] ends) {
+		Map<T, List<CustomValidation>> result = new HashMap<>();
+		for (int ordinal = 0; ordinal < constants.length; ordinal++) {
+
+			// Lista de validaciones no superadas para una opción
+			List<CustomValidation> failed = null;
+			ParameterValidation[] optionValidators = validators[ordinal];
+			for (int i = 0; i < optionValidators.length; i++) {
+				if(!isValid(optionValidators[i], sources[ordinal], starts[ordinal], ends[ordinal])){
+					if(failed==null){
+						failed = new ArrayList<>(optionValidators.length);
+					}
+					failed.add(validations[ordinal][i]);
+				}
+			}
+
+			if(failed!=null){
+				result.put(constants[ordinal], Collections.unmodifiableList(failed));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Ejecuta todas las validaciones sobre fragmentos de texto
+	 * @param sources Texto que contiene el valor de cada opción indexado por ordinal. Un texto nulo
+	 * indica que la opción no tiene valor
+	 * @param starts Posición inicial de cada valor, incluida
+	 * @param ends Posición final de cada valor, excluida
+	 * @return Bits de las validaciones no superadas, numerados según {@link #getOption(int)} y
+	 * {@link #getValidation(int)}. Si no hay fallos, está vacío
+	 * */
+	public BitSet failures(CharSequence[] sources, int[] starts, int[] ends) {
+		BitSet failures = new BitSet();
+		for (int ordinal : validated) {
+			ParameterValidation[] optionValidators = validators[ordinal];
+			for (int i = 0; i < optionValidators.length; i++) {
+				if(!isValid(optionValidators[i], sources[ordinal], starts[ordinal], ends[ordinal])){
+					failures.set(offsets[ordinal]+i);
+				}
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * Ejecuta las validaciones de una única opción, por ejemplo al cambiar solo su valor
+	 * @param option Opción
+	 * @param value Valor de la opción o null si no tiene valor
+	 * @return Validaciones no superadas. Si no hay fallos, se devuelve una lista vacía
+	 * */
+	public List<CustomValidation> validate(T option, String value) {
+		int ordinal = option.ordinal();
+		List<CustomValidation> failed = Collections.emptyList();
+		ParameterValidation[] optionValidators = validators[ordinal];
+		for (int i = 0; i < optionValidators.length; i++) {
+			if(!optionValidators[i].isParamValid(value)){
+				if(failed.isEmpty()){
+					failed = new ArrayList<>(optionValidators.length);
+				}
+				failed.add(validations[ordinal][i]);
+			}
+		}
+		return failed.isEmpty() ? failed : Collections.unmodifiableList(failed);
+	}
+
+	/**
+	 * Ejecuta todas las validaciones sobre los valores de un origen
+	 * @param source Origen de los valores
+	 * @return Bits de las validaciones no superadas, numerados según {@link #getOption(int)} y
+	 * {@link #getValidation(int)}. Si no hay fallos, está vacío
+	 * */
+	public BitSet validate(ParameterSource source) {
+		long[] failures = failedBits(source);
+		return failures==null ? new BitSet() : BitSet.valueOf(failures);
+	}
+
+	/**
+	 * Valida en paralelo los registros de un iterable en el grupo de hilos por defecto
+	 * @param records Registros a validar. Se leen por bloques, por lo que pueden generarse según se recorren
+	 * @return Informe con los fallos de cada registro
+	 * */
+	public ValidationReport<T> validateAll(Iterable<? extends ParameterSource> records) {
+		return validateAll(records, sharedPool());
+	}
+
+	/**
+	 * Valida en paralelo los registros de un iterable. Las excepciones de las validaciones se propagan
+	 * @param records Registros a validar. Se leen por bloques, por lo que pueden generarse según se recorren
+	 * @param pool Grupo de hilos
+	 * @return Informe con los fallos de cada registro
+	 * */
+	public ValidationReport<T> validateAll(Iterable<? extends ParameterSource> records, ForkJoinPool pool) {
+		ValidationReport.Builder<T> report = new ValidationReport.Builder<>(this);
+		ParameterSource[] chunk = new ParameterSource[CHUNK];
+		long[][] failures = new long[CHUNK][];
+
+		Iterator<? extends ParameterSource> iterator = records.iterator();
+		while(iterator.hasNext()){
+			int count = 0;
+			while(count<CHUNK && iterator.hasNext()){
+				chunk[count++] = iterator.next();
+			}
+			pool.invoke(new ValidationTask(chunk, failures, 0, count));
+			report.add(failures, count);
+			Arrays.fill(chunk, 0, count, null);
+			Arrays.fill(failures, 0, count, null);
+		}
+		return report.build();
+	}
+
+	/**
+	 * Obtiene el número de validaciones del plan, que es el número de bits de los fallos
+	 * @return Número de validaciones
+	 * */
+	public int getValidationCount() {
+		return bitOrdinals.length;
+	}
+
+	/**
+	 * Obtiene la opción de un bit de validación
+	 * @param bit Bit de validación
+	 * @return Opción validada
+	 * */
+	public T getOption(int bit) {
+		return constants[bitOrdinals[bit]];
+	}
+
+	/**
+	 * Obtiene la anotación de un bit de validación
+	 * @param bit Bit de validación
+	 * @return Anotación de la validación
+	 * */
+	public CustomValidation getValidation(int bit) {
+		int ordinal = bitOrdinals[bit];
+		return validations[ordinal][bit-offsets[ordinal]];
+	}
+
+	/**
+	 * Obtiene la caché de resultados de un bit de validación
+	 * @param bit Bit de validación
+	 * @return Caché o null si la validación no se declaró con {@link CustomValidation#cacheable()}
+	 * */
+	public ValidationCache getCache(int bit) {
+		int ordinal = bitOrdinals[bit];
+		ParameterValidation validator = validators[ordinal][bit-offsets[ordinal]];
+		if(validator instanceof TimedValidation){
+			validator = ((TimedValidation) validator).validation;
+		}
+		return validator instanceof ValidationCache ? (ValidationCache) validator : null;
+	}
+
+	/**
+	 * Ejecuta todas las validaciones sobre los valores de un origen
+	 * @param source Origen de los valores
+	 * @return Palabras de los bits de las validaciones no superadas o null si no hay fallos
+	 */
+	long[] failedBits(ParameterSource source) {
+		long[] failures = null;
+		for (int ordinal : validated) {
+			String value = source.getValue((Parameterized) constants[ordinal]);
+			ParameterValidation[] optionValidators = validators[ordinal];
+			for (int i = 0; i < optionValidators.length; i++) {
+				if(!optionValidators[i].isParamValid(value)){
+					if(failures==null){
+						failures = new long[(bitOrdinals.length+63)>>>6];
+					}
+					int bit = offsets[ordinal]+i;
+					failures[bit>>>6] |= 1L<<bit;
+				}
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * Obtiene el grupo de hilos por defecto
+	 */
+	private static synchronized ForkJoinPool sharedPool() {
+		if(sharedPool==null){
+			sharedPool = new ForkJoinPool();
+		}
+		return sharedPool;
+	}
+
+	/**
+	 * Validación en paralelo de un rango de registros
+	 * */
+	@SuppressWarnings("serial")
+	private final class ValidationTask extends RecursiveAction {
+
+		/** Registros */
+		private final ParameterSource[] records;
+
+		/** Fallos por registro */
+		private final long[][] failures;
+
+		/** Primer registro, incluido */
+		private final int from;
+
+		/** Último registro, excluido */
+		private final int to;
+
+		/**
+		 * Constructor
+		 * */
+		private ValidationTask(ParameterSource[] records, long[][] failures, int from, int to) {
+			this.records = records;
+			this.failures = failures;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to-from<=THRESHOLD){
+				for (int i = from; i < to; i++) {
+					failures[i] = failedBits(records[i]);
+				}
+			}else{
+				int middle = (from+to)>>>1;
+				invokeAll(new ValidationTask(records, failures, from, middle), new ValidationTask(records, failures, middle, to));
+			}
+		}
+	}
+
+	/**
+	 * Clave de las cachés de un plan: la instancia de la validación, comparada por identidad, y la
+	 * configuración de la caché
+	 * */
+	private static final class CacheKey {
+
+		/** Validación */
+		private final ParameterValidation validator;
+
+		/** Número máximo de resultados */
+		private final int size;
+
+		/** Caducidad de los resultados en milisegundos */
+		private final long ttl;
+
+		/**
+		 * Constructor
+		 * */
+		private CacheKey(ParameterValidation validator, int size, long ttl) {
+			this.validator = validator;
+			this.size = size;
+			this.ttl = ttl;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof CacheKey)){
+				return false;
+			}
+			CacheKey other = (CacheKey) obj;
+			return validator==other.validator && size==other.size && ttl==other.ttl;
+		}
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(validator)*31+size)*31+(int) (ttl^(ttl>>>32));
+		}
+	}
+
+	/**
+	 * Validación que notifica su duración y su resultado
+	 * */
+	private static final class TimedValidation implements CharSequenceParameterValidation {
+
+		/** Validación */
+		private final ParameterValidation validation;
+
+		/** Opción validada */
+		private final Parameterized option;
+
+		/** Anotación de la validación */
+		private final CustomValidation annotation;
+
+		/** Receptor de las métricas */
+		private final ParserListener listener;
+
+		/**
+		 * Constructor
+		 * */
+		private TimedValidation(ParameterValidation validation, Parameterized option, CustomValidation annotation, ParserListener listener) {
+			this.validation = validation;
+			this.option = option;
+			this.annotation = annotation;
+			this.listener = listener;
+		}
+
+		@Override
+		public boolean isParamValid(String paramValue) {
+			long start = System.nanoTime();
+			boolean valid = validation.isParamValid(paramValue);
+			listener.validationCompleted(option, annotation, valid, System.nanoTime()-start);
+			return valid;
+		}
+
+		@Override
+		public boolean isParamValid(CharSequence source, int start, int end) {
+			long begin = System.nanoTime();
+			boolean valid = ValidationPlan.isValid(validation, source, start, end);
+			listener.validationCompleted(option, annotation, valid, System.nanoTime()-begin);
+			return valid;
+		}
+	}
+
+	/**
+	 * Ejecuta las validaciones deteniéndose en el primer fallo
+	 * @param values Valores de cada opción indexados por ordinal. Un valor nulo indica que la opción no tiene valor
+	 * @return true si se superan todas las validaciones
+	 * */
+	public boolean isValid(String[] values) {
+		return isValid(values, new int[values.length], lengths(values));
+	}
+
+	/**
+	 * Ejecuta las validaciones sobre fragmentos de texto deteniéndose en el primer fallo
+	 * @param sources Texto que contiene el valor de cada opción indexado por ordinal. Un texto nulo
+	 * indica que la opción no tiene valor
+	 * @param starts Posición inicial de cada valor, incluida
+	 * @param ends Posición final de cada valor, excluida
+	 * @return true si se superan todas las validaciones
+	 * */
+	public boolean isValid(CharSequence[] sources, int[] starts, int[] ends) {
+		for (int ordinal : validated) {
+			for (ParameterValidation validator : validators[ordinal]) {
+				if(!isValid(validator, sources[ordinal], starts[ordinal], ends[ordinal])){
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Ejecuta una validación sobre un fragmento de texto. Solo se crea la cadena del valor si la
+	 * validación no admite fragmentos y el valor no es el texto completo
+	 * @param validator Validación
+	 * @param source Texto que contiene el valor o null si la opción no tiene valor
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Resultado de la validación
+	 */
+	static boolean isValid(ParameterValidation validator, CharSequence source, int start, int end) {
+		if(validator instanceof CharSequenceParameterValidation){
+			return ((CharSequenceParameterValidation) validator).isParamValid(source, start, end);
+		}
+		if(source==null){
+			return validator.isParamValid(null);
+		}
+		if(source instanceof String && start==0 && end==source.length()){
+			return validator.isParamValid((String) source);
+		}
+		return validator.isParamValid(source.subSequence(start, end).toString());
+	}
+
+	/**
+	 * Obtiene la longitud de cada valor
+	 */
+	private static int[] lengths(String[] values) {
+		int[] lengths = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			lengths[i] = values[i]==null ? 0 : values[i].length();
+		}
+		return lengths;
+	}
+}
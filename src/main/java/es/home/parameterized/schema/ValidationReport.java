@@ -0,0 +1,170 @@
+package es.home.parameterized.schema;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import es.home.parameterized.interfaces.Parameterized;
+
+/**
+ * Resultado de la validación masiva de {@link ValidationPlan#validateAll(Iterable)}. Solo guarda los
+ * registros con fallos, cada uno como un conjunto de bits de las validaciones no superadas, numerados
+ * según {@link ValidationPlan#getOption(int)} y {@link ValidationPlan#getValidation(int)}. Los registros
+ * se identifican por su posición en el iterable validado
+ * */
+public final class ValidationReport<T extends Enum<? extends Parameterized>> {
+
+	/** Plan de validación */
+	private final ValidationPlan<T> plan;
+
+	/** Número de registros validados */
+	private final int size;
+
+	/** Posiciones de los registros con fallos, en orden ascendente */
+	private final int[] invalid;
+
+	/** Número de registros con fallos */
+	private final int invalidCount;
+
+	/** Palabras de los bits de los fallos, {@link #width} por cada registro con fallos */
+	private final long[] words;
+
+	/** Palabras de bits por registro */
+	private final int width;
+
+	/**
+	 * Constructor
+	 * */
+	private ValidationReport(Builder<T> builder) {
+		this.plan = builder.plan;
+		this.size = builder.size;
+		this.invalid = builder.invalid;
+		this.invalidCount = builder.invalidCount;
+		this.words = builder.words;
+		this.width = builder.width;
+	}
+
+	/**
+	 * Obtiene el plan con el que se ha validado, para interpretar los bits de los fallos
+	 * @return Plan de validación
+	 * */
+	public ValidationPlan<T> getPlan() {
+		return plan;
+	}
+
+	/**
+	 * Obtiene el número de registros validados
+	 * @return Número de registros
+	 * */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Obtiene el número de registros con alguna validación no superada
+	 * @return Número de registros con fallos
+	 * */
+	public int getInvalidCount() {
+		return invalidCount;
+	}
+
+	/**
+	 * Obtiene la posición de un registro con fallos
+	 * @param index Índice entre los registros con fallos, menor que {@link #getInvalidCount()}
+	 * @return Posición del registro en el iterable validado
+	 * */
+	public int getInvalidRecord(int index) {
+		if(index>=invalidCount){
+			throw new IndexOutOfBoundsException("Índice: "+index+", registros con fallos: "+invalidCount);
+		}
+		return invalid[index];
+	}
+
+	/**
+	 * Determina si un registro supera todas las validaciones
+	 * @param record Posición del registro en el iterable validado
+	 * @return true si el registro es válido
+	 * */
+	public boolean isValid(int record) {
+		return Arrays.binarySearch(invalid, 0, invalidCount, record)<0;
+	}
+
+	/**
+	 * Obtiene las validaciones no superadas por un registro
+	 * @param record Posición del registro en el iterable validado
+	 * @return Bits de las validaciones no superadas. Si el registro es válido, está vacío
+	 * */
+	public BitSet getFailures(int record) {
+		int index = Arrays.binarySearch(invalid, 0, invalidCount, record);
+		if(index<0){
+			return new BitSet();
+		}
+		return BitSet.valueOf(Arrays.copyOfRange(words, index*width, (index+1)*width));
+	}
+
+	@Override
+	public String toString() {
+		return "ValidationReport(size="+size+", invalid="+invalidCount+")";
+	}
+
+	/**
+	 * Constructor incremental del informe
+	 * */
+	static final class Builder<T extends Enum<? extends Parameterized>> {
+
+		/** Plan de validación */
+		private final ValidationPlan<T> plan;
+
+		/** Palabras de bits por registro */
+		private final int width;
+
+		/** Número de registros añadidos */
+		private int size;
+
+		/** Posiciones de los registros con fallos */
+		private int[] invalid = new int[16];
+
+		/** Número de registros con fallos */
+		private int invalidCount;
+
+		/** Palabras de los bits de los fallos */
+		private long[] words;
+
+		/**
+		 * Constructor
+		 * @param plan Plan de validación
+		 * */
+		Builder(ValidationPlan<T> plan) {
+			this.plan = plan;
+			this.width = Math.max(1, (plan.getValidationCount()+63)>>>6);
+			this.words = new long[16*width];
+		}
+
+		/**
+		 * Añade el resultado de un bloque de registros
+		 * @param failures Palabras de los fallos de cada registro o null si es válido
+		 * @param count Número de registros del bloque
+		 */
+		void add(long[][] failures, int count) {
+			for (int i = 0; i < count; i++) {
+				if(failures[i]!=null){
+					if(invalidCount==invalid.length){
+						invalid = Arrays.copyOf(invalid, invalidCount*2);
+						words = Arrays.copyOf(words, invalid.length*width);
+					}
+					invalid[invalidCount] = size+i;
+					System.arraycopy(failures[i], 0, words, invalidCount*width, width);
+					invalidCount++;
+				}
+			}
+			size += count;
+		}
+
+		/**
+		 * Construye el informe
+		 * @return Informe de validación
+		 */
+		ValidationReport<T> build() {
+			return new ValidationReport<>(this);
+		}
+	}
+}
@@ -1,11 +1,9 @@
 package es.home.parameterized.utils;
 
-import java.lang.annotation.Annotation;
-import java.lang.annotation.Documented;
-import java.lang.annotation.Retention;
-import java.lang.annotation.Target;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
@@ -14,12 +12,26 @@ import es.home.parameterized.annotations.CustomValidation;
 import es.home.parameterized.annotations.ParameterOption;
 import es.home.parameterized.exception.ParameterizedParserException;
 import es.home.parameterized.interfaces.Parameterized;
+import es.home.parameterized.schema.OptionSchema;
 
 /**
  * Utilidades para parsear parámetros de línea de comandos
  * */
 public class Util {
 	
+	/** Potencias de 10 representables de forma exacta como double */
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	
+	/** Textos que admite {@link Double#parseDouble(String)}, según la documentación de {@link Double#valueOf(String)} */
+	private static final Pattern DOUBLE = Pattern.compile("[\\x00-\\x20]*[+-]?(NaN|Infinity|((((\\p{Digit}+)(\\.)?((\\p{Digit}+)?)([eE][+-]?(\\p{Digit}+))?)|"
+		+ "(\\.((\\p{Digit}+))([eE][+-]?(\\p{Digit}+))?)|(((0[xX](\\p{XDigit}+)(\\.)?)|(0[xX](\\p{XDigit}+)?(\\.)(\\p{XDigit}+)))"
+		+ "[pP][+-]?(\\p{Digit}+)))[fFdD]?))[\\x00-\\x20]*");
+	
+	/** Resultado de {@link #accumulate(CharSequence, int, int)} para los fragmentos que no son un long */
+	private static final long INVALID_LONG = 1;
+	
 	/**
 	 * Constructor sin argumentos
 	 */
@@ -29,13 +41,24 @@ public class Util {
 	 * Permite obtener una lista de opciones de commons cli a partir de una lista de 
 	 * enumerados parametrizados
 	 * @param parameters Objetos parametrizados
-	 * @return Devuelve una instancia de {@link Options}
+	 * @return Devuelve una nueva instancia de {@link Options}
 	 * */
 	public static Options getParameterOptions(Enum<? extends Parameterized> [] parameters) throws ParameterizedParserException{
+		if(parameters.length==0){
+			return new Options();
+		}
+		
+		// Si se solicitan todas las opciones del enumerado, se copian las del esquema
+		OptionSchema<?> schema = OptionSchema.forConstant(parameters[0]);
+		if(Arrays.equals(parameters, schema.getConstants())){
+			return schema.getOptions();
+		}
+		
 		Options options = new Options();
 		for (Enum<? extends Parameterized> t : parameters) {
-			if(Util.getParameterOptionsFromEnum(t)!=null){
-				options.addOption(getParameterOption(t));
+			Option option = OptionSchema.forConstant(t).getOption(t);
+			if(option!=null){
+				options.addOption((Option) option.clone());
 			}
 		}
 		return options;
@@ -44,16 +67,11 @@ public class Util {
 	/**
 	 * Permite obtener una opción de commons cli a partir de un enumerado parametrizado
 	 * @param parameter Objeto parametrizado
-	 * @return Devuelve una instancia de {@link Option}
+	 * @return Devuelve una nueva instancia de {@link Option}
 	 * */
 	public static Option getParameterOption(Enum<? extends Parameterized> parameter) throws ParameterizedParserException{
-		ParameterOption option = Util.getParameterOptionsFromEnum(parameter);
-		return Option.builder(option.shortKey())
-	     //.required(option.required())
-	     .longOpt(((Parameterized) parameter).getName())
-	     .desc(option.description())
-	     .hasArg(option.hasArgs())
-	     .build();
+		Option option = OptionSchema.forConstant(parameter).getOption(parameter);
+		return option==null ? null : (Option) option.clone();
 	}
 	
 	/**
@@ -63,56 +81,17 @@ public class Util {
 	 * @throws ParameterizedParserException
 	 */
 	public static List<CustomValidation> getValdiations(Enum<? extends Parameterized> parameter) throws ParameterizedParserException{
-		 List<CustomValidation> result = new ArrayList<>();
-		try {
-			
-			// Se obtienen las anotaciones
-			Annotation[] annotations = parameter.getClass().getField(parameter.name()).getAnnotations();
-			
-			// inyecta las anotaciones valdiadas en el resultado
-			internGetValidations(result, annotations);
-			
-			return result;
-		} catch (Exception e) {
-			StringBuilder string = new StringBuilder("Excepción producida durante la obtención de las validaciones de la opción: ");
-			string.append(parameter.name());
-			throw new ParameterizedParserException(string.toString(), e);
-		}
-	}
-	
-	/**
-	 * Inyecta de forma recursiva las anotaciones de tipo Custom en una lista de anotaciones customizadas
-	 * @param result Lista en la que inyectar las anotaciones
-	 * @param annotations Lista de anotaciones a comprobar
-	 */
-	private static void internGetValidations(List<CustomValidation> result, Annotation[] annotations) {
-		if(annotations!=null){
-		
-			// Se recorren para obtener las validaciones customizadas
-			for (Annotation annotation : annotations) {
-				if(CustomValidation.class.equals(annotation.annotationType())){
-					result.add((CustomValidation)annotation);
-				}else if(!Documented.class.equals(annotation.annotationType()) && !Target.class.equals(annotation.annotationType()) && !Retention.class.equals(annotation.annotationType())){
-					internGetValidations(result, annotation.annotationType().getAnnotations());
-				}
-			}
-		}
+		return new ArrayList<>(OptionSchema.forConstant(parameter).getValidations(parameter));
 	}
 
 	/**
 	 * Permite obtener las opciones de un enumerado
-	 * @param Enumerado del cual se quiere extraer las opciones
+	 * @param enumerator Enumerado del cual se quiere extraer las opciones
 	 * @return Devuleve la anotación {@link ParameterOption} Que pudiera contener el enumerado o null
 	 * en caso contrario
 	 * */
 	public static ParameterOption getParameterOptionsFromEnum(Enum<? extends Parameterized> enumerator) throws ParameterizedParserException {
-		try {
-			return enumerator.getClass().getField(enumerator.name()).getAnnotation(ParameterOption.class);
-		} catch (Exception e) {
-			StringBuilder string = new StringBuilder("Excepción producida durante la obtención de las opciones de la opción: ");
-			string.append(enumerator.name());
-			throw new ParameterizedParserException(string.toString(), e);
-		}
+		return OptionSchema.forConstant(enumerator).getParameterOption(enumerator);
 	}
 
 	/**
@@ -121,12 +100,167 @@ public class Util {
 	 * @return Devuelve el arg introducido desde la consola sin guiones iniciales
 	 */
 	public static String pruneArg(String arg) {
-		String result = arg;
-		if(result.startsWith("-")){
-			result = result.substring(1);
-			return pruneArg(result);
-		}else{
-			return arg;
+		int start = 0;
+		while(start<arg.length() && arg.charAt(start)=='-'){
+			start++;
+		}
+		return start==0 ? arg : arg.substring(start);
+	}
+
+	/**
+	 * Convierte un fragmento de texto en un número entero largo sin crear subcadenas. Admite signo
+	 * inicial y dígitos decimales
+	 * @param source Texto que contiene el número
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Número representado por el fragmento
+	 * @throws NumberFormatException Si el fragmento es nulo, está vacío, no es un número o desborda un long
+	 */
+	public static long parseLong(CharSequence source, int start, int end) {
+		if(source==null || start>=end){
+			throw new NumberFormatException("Valor numérico vacío");
+		}
+		long result = accumulate(source, start, end);
+		if(result==INVALID_LONG){
+			throw numberFormat(source, start, end);
+		}
+		return source.charAt(start)=='-' ? result : -result;
+	}
+	
+	/**
+	 * Determina si un fragmento de texto es un número entero largo, sin crear excepciones ni subcadenas
+	 * @param source Texto que contiene el número
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return true si {@link #parseLong(CharSequence, int, int)} convierte el fragmento sin errores
+	 */
+	public static boolean isLong(CharSequence source, int start, int end) {
+		return source!=null && start<end && accumulate(source, start, end)!=INVALID_LONG;
+	}
+	
+	/**
+	 * Acumula en negativo los dígitos de un fragmento no vacío, para poder representar Long.MIN_VALUE
+	 * @return Valor absoluto del número en negativo o {@link #INVALID_LONG} si no es un número o desborda un long
+	 */
+	private static long accumulate(CharSequence source, int start, int end) {
+		long limit = -Long.MAX_VALUE;
+		int i = start;
+		char first = source.charAt(i);
+		if(first=='-' || first=='+'){
+			if(first=='-'){
+				limit = Long.MIN_VALUE;
+			}
+			if(++i==end){
+				return INVALID_LONG;
+			}
+		}
+		
+		long result = 0;
+		long multiplyLimit = limit/10;
+		while(i<end){
+			int digit = Character.digit(source.charAt(i++), 10);
+			if(digit<0 || result<multiplyLimit){
+				return INVALID_LONG;
+			}
+			result *= 10;
+			if(result<limit+digit){
+				return INVALID_LONG;
+			}
+			result -= digit;
+		}
+		return result;
+	}
+	
+	/**
+	 * Convierte un fragmento de texto en un número decimal. Los números con hasta 15 dígitos
+	 * significativos, sin exponente, se convierten sin crear subcadenas; el resto se delegan en
+	 * {@link Double#parseDouble(String)}
+	 * @param source Texto que contiene el número
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return Número representado por el fragmento
+	 * @throws NumberFormatException Si el fragmento es nulo, está vacío o no es un número
+	 */
+	public static double parseDouble(CharSequence source, int start, int end) {
+		if(source==null || start>=end){
+			throw new NumberFormatException("Valor numérico vacío");
+		}
+		
+		int i = start;
+		boolean negative = source.charAt(i)=='-';
+		if(negative || source.charAt(i)=='+'){
+			i++;
+		}
+		int digitsStart = i;
+		
+		long mantissa = 0;
+		int digits = 0;
+		int decimals = -1;
+		for (; i < end; i++) {
+			char c = source.charAt(i);
+			if(c=='.' && decimals<0){
+				decimals = 0;
+			}else if(c>='0' && c<='9' && digits<15){
+				mantissa = mantissa*10 + (c-'0');
+				if(mantissa!=0){
+					digits++;
+				}
+				if(decimals>=0){
+					decimals++;
+				}
+			}else{
+				break;
+			}
 		}
+		
+		// Tanto la mantisa como la potencia de 10 son exactas, por lo que la división redondea correctamente
+		if(i==end && i>digitsStart && decimals!=0 && decimals<POWERS_OF_TEN.length){
+			double value = decimals>0 ? mantissa/POWERS_OF_TEN[decimals] : mantissa;
+			return negative ? -value : value;
+		}
+		return Double.parseDouble(source.subSequence(start, end).toString());
+	}
+	
+	/**
+	 * Determina si un fragmento de texto es un número decimal, sin crear excepciones. Los números sin
+	 * exponente se comprueban sin crear subcadenas; el resto se comprueban con la expresión regular de
+	 * los textos que admite {@link Double#parseDouble(String)}
+	 * @param source Texto que contiene el número
+	 * @param start Posición inicial, incluida
+	 * @param end Posición final, excluida
+	 * @return true si {@link #parseDouble(CharSequence, int, int)} convierte el fragmento sin errores
+	 */
+	public static boolean isDouble(CharSequence source, int start, int end) {
+		if(source==null || start>=end){
+			return false;
+		}
+		
+		int i = start;
+		if(source.charAt(i)=='-' || source.charAt(i)=='+'){
+			i++;
+		}
+		boolean digits = false;
+		boolean point = false;
+		for (; i < end; i++) {
+			char c = source.charAt(i);
+			if(c>='0' && c<='9'){
+				digits = true;
+			}else if(c=='.' && !point){
+				point = true;
+			}else{
+				break;
+			}
+		}
+		if(i==end && digits){
+			return true;
+		}
+		return DOUBLE.matcher(source.subSequence(start, end)).matches();
+	}
+	
+	/**
+	 * Crea la excepción de formato numérico de un fragmento
+	 */
+	private static NumberFormatException numberFormat(CharSequence source, int start, int end) {
+		return new NumberFormatException("Valor numérico no válido: \""+source.subSequence(start, end)+"\"");
 	}
 }